@@ -13,6 +13,7 @@ package campuspaths;
 
 import campuspaths.utils.CORSFilter;
 import campuspaths.utils.Info;
+import campuspaths.utils.PathSerializer;
 import com.google.gson.Gson;
 import pathfinder.CampusMap;
 import pathfinder.datastructures.Path;
@@ -27,6 +28,9 @@ import java.util.List;
 
 public class SparkServer {
 
+    // the most alternative routes /find-paths finds, as each one takes about a hundred searches
+    private static final int MAX_PATHS = 10;
+
     public static void main(String[] args) {
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
@@ -35,7 +39,9 @@ public class SparkServer {
         // comes from a different server.
         // You should leave these two lines at the very beginning of main().
 
-        CampusMap map = new CampusMap();
+        // the first argument, if any, names the CampusMap.Engine to find paths with, for example
+        // ROUTE_TABLE to work out the paths from every building before the server starts
+        CampusMap map = args.length > 0 ? new CampusMap(CampusMap.Engine.valueOf(args[0])) : new CampusMap();
         Spark.get("/find-path", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
@@ -46,11 +52,40 @@ public class SparkServer {
                 }
                 Path<Point> shortestPath = map.findShortestPath(startString, endString);
 
-                Gson gson = new Gson();
+                // a Path is written as {cost, start, path: [segments]}, the shape the client reads
+                Gson gson = PathSerializer.gson();
                 return gson.toJson(shortestPath);
             }
         });
 
+        Spark.get("/find-paths", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String startString = request.queryParams("start");
+                String endString = request.queryParams("end");
+                if(startString == null || endString == null) {
+                    Spark.halt(400, "must have start and end");
+                }
+                // the number of alternative routes wanted, 3 if not given
+                int k = 3;
+                String kString = request.queryParams("k");
+                if (kString != null) {
+                    try {
+                        k = Integer.parseInt(kString);
+                    } catch (NumberFormatException e) {
+                        Spark.halt(400, "k must be a number");
+                    }
+                }
+                if (k < 1 || k > MAX_PATHS || !map.shortNameExists(startString) || !map.shortNameExists(endString)) {
+                    Spark.halt(400, "must have valid start, end and k between 1 and " + MAX_PATHS);
+                }
+                List<Path<Point>> shortestPaths = map.findShortestPaths(startString, endString, k);
+
+                Gson gson = PathSerializer.gson();
+                return gson.toJson(shortestPaths);
+            }
+        });
+
         Spark.get("/building-names", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
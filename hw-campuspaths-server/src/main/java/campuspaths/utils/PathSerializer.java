@@ -0,0 +1,45 @@
+package campuspaths.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import pathfinder.datastructures.Path;
+
+import java.lang.reflect.Type;
+
+/**
+ * The PathSerializer writes a Path as the JSON the React application reads:
+ * {"cost": ..., "start": ..., "path": [{"start": ..., "end": ..., "cost": ...}, ...]},
+ * with the segments of the path in order from its start. A Path keeps its segments
+ * as a chain back to its start, which Gson would otherwise write nested once per segment.
+ */
+public class PathSerializer implements JsonSerializer<Path<?>> {
+
+    /**
+     * @return a new Gson that writes every Path with a PathSerializer.
+     */
+    public static Gson gson() {
+        return new GsonBuilder().registerTypeHierarchyAdapter(Path.class, new PathSerializer()).create();
+    }
+
+    @Override
+    public JsonElement serialize(Path<?> src, Type typeOfSrc, JsonSerializationContext context) {
+        JsonObject json = new JsonObject();
+        json.addProperty("cost", src.getCost());
+        json.add("start", context.serialize(src.getStart()));
+        JsonArray segments = new JsonArray();
+        for (Path<?>.Segment segment : src) {
+            JsonObject step = new JsonObject();
+            step.add("start", context.serialize(segment.getStart()));
+            step.add("end", context.serialize(segment.getEnd()));
+            step.addProperty("cost", segment.getCost());
+            segments.add(step);
+        }
+        json.add("path", segments);
+        return json;
+    }
+}
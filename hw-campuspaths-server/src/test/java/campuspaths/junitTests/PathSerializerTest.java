@@ -0,0 +1,49 @@
+package campuspaths.junitTests;
+
+import campuspaths.utils.PathSerializer;
+import org.junit.Test;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PathSerializerTest {
+
+    @Test
+    public void testEmptyPathShape() {
+        Path<Point> path = new Path<>(new Point(1.0, 2.0));
+        assertEquals("{\"cost\":0.0,\"start\":{\"x\":1.0,\"y\":2.0},\"path\":[]}",
+                PathSerializer.gson().toJson(path));
+    }
+
+    @Test
+    public void testPathShape() {
+        Path<Point> path = new Path<>(new Point(0.0, 0.0))
+                .extend(new Point(1.0, 0.0), 1.0)
+                .extend(new Point(1.0, 1.0), 1.0);
+        assertEquals("{\"cost\":2.0,\"start\":{\"x\":0.0,\"y\":0.0},\"path\":["
+                        + "{\"start\":{\"x\":0.0,\"y\":0.0},\"end\":{\"x\":1.0,\"y\":0.0},\"cost\":1.0},"
+                        + "{\"start\":{\"x\":1.0,\"y\":0.0},\"end\":{\"x\":1.0,\"y\":1.0},\"cost\":1.0}]}",
+                PathSerializer.gson().toJson(path));
+    }
+
+    @Test
+    public void testLongPathIsFlat() {
+        Path<Point> path = new Path<>(new Point(0.0, 0.0));
+        for (int i = 1; i <= 10000; i++) {
+            path = path.extend(new Point(i, 0.0), 1.0);
+        }
+        String json = PathSerializer.gson().toJson(path);
+        assertEquals(10000 + 1, json.split("\"end\"", -1).length);
+    }
+
+    @Test
+    public void testListOfPathsShape() {
+        Path<Point> path = new Path<>(new Point(0.0, 0.0)).extend(new Point(3.0, 4.0), 5.0);
+        assertEquals("[{\"cost\":5.0,\"start\":{\"x\":0.0,\"y\":0.0},\"path\":["
+                        + "{\"start\":{\"x\":0.0,\"y\":0.0},\"end\":{\"x\":3.0,\"y\":4.0},\"cost\":5.0}]}]",
+                PathSerializer.gson().toJson(List.of(path)));
+    }
+}
@@ -0,0 +1,320 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * <b>Adjacency</b> holds the outgoing edges of one node of a {@link Graph}.
+ * Parallel edges (edges to the same child with different labels) are grouped into one entry
+ * holding the child's id and the list of their labels, so a pair of nodes joined by many edges
+ * costs one entry plus one reference per label instead of one Edge object per edge.
+ * L is the Edge Label type.
+ */
+class Adjacency<L> {
+
+    // Abstract Function:
+    // Adjacency represents the set of edges {(children[i], l) | 0 <= i < size, l in labels.get(i)}
+    // from the node that owns it.
+
+    // Rep Invariant:
+    // children != null, labels != null, labels.size() == size <= children.length.
+    // children[0 ... size - 1] contains no duplicates.
+    // Each labels.get(i) is non-empty, contains no nulls and no duplicates.
+    // edgeCount is the sum of labels.get(i).size().
+    // If table != null, it is a linear-probing hash table holding slot + 1 for every slot < size,
+    // and 0 in every empty position.
+
+    // once a node has more children than this, a hash table is used to find a child's entry
+    private static final int SCAN_LIMIT = 8;
+
+    // children[i] is the id of the i-th distinct child, for i < size
+    private int[] children;
+
+    // labels.get(i) holds the labels of every edge to children[i], as a read-only list: a singleton
+    // list for one label, a LabelList for more
+    private final ArrayList<List<L>> labels;
+
+    // the number of distinct children
+    private int size;
+
+    // the number of edges
+    private int edgeCount;
+
+    // hash table from child id to (slot + 1), null while size <= SCAN_LIMIT
+    private int[] table;
+
+    // the token of the graph allowed to change this in place, see Graph#snapshot()
+    private final Object owner;
+
+    /**
+     * Construct an Adjacency with no edges.
+     * @param owner the token of the graph allowed to change it
+     */
+    Adjacency(Object owner) {
+        this(owner, 2);
+    }
+
+    /**
+     * Construct an Adjacency with no edges and room for the given number of children.
+     * @param owner the token of the graph allowed to change it
+     * @param capacity the number of distinct children expected
+     */
+    Adjacency(Object owner, int capacity) {
+        this.owner = owner;
+        this.children = new int[Math.max(2, capacity)];
+        this.labels = new ArrayList<>(Math.max(2, capacity));
+    }
+
+    /**
+     * Release the room kept for children that were never added.
+     * @spec.modifies this
+     */
+    void trim() {
+        if (children.length > Math.max(2, size)) {
+            children = Arrays.copyOf(children, Math.max(2, size));
+        }
+        labels.trimToSize();
+    }
+
+    /**
+     * @return the token of the graph allowed to change this in place.
+     */
+    Object owner() {
+        return owner;
+    }
+
+    /**
+     * @param owner the token of the graph allowed to change the copy
+     * @return a copy of this Adjacency, sharing nothing that either one changes in place
+     */
+    Adjacency<L> copy(Object owner) {
+        Adjacency<L> copy = new Adjacency<>(owner);
+        copy.children = Arrays.copyOf(children, children.length);
+        for (List<L> ls : labels) {
+            // singleton lists are immutable and can be shared, longer lists grow in place
+            copy.labels.add(ls.size() == 1 ? ls : new LabelList<>(ls));
+        }
+        copy.size = size;
+        copy.edgeCount = edgeCount;
+        copy.table = table == null ? null : Arrays.copyOf(table, table.length);
+        return copy;
+    }
+
+    /**
+     * @return the number of distinct children.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of edges, counting each label of a parallel edge.
+     */
+    int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @param slot a position between 0 and size() - 1
+     * @return the id of the child at the given position
+     */
+    int childAt(int slot) {
+        return children[slot];
+    }
+
+    /**
+     * @param slot a position between 0 and size() - 1
+     * @return a read-only list of the labels of every edge to the child at the given position
+     */
+    List<L> labelsAt(int slot) {
+        return labels.get(slot);
+    }
+
+    /**
+     * @return a new array of the ids of the distinct children, in the order of their slots.
+     */
+    int[] children() {
+        return Arrays.copyOf(children, size);
+    }
+
+    /**
+     * Find the position of the given child.
+     * @param childId the id of the child
+     * @return the position of childId, or -1 if there is no edge to it.
+     */
+    int slotOf(int childId) {
+        if (table == null) {
+            for (int i = 0; i < size; i++) {
+                if (children[i] == childId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int h = mix(childId) & mask; table[h] != 0; h = (h + 1) & mask) {
+            if (children[table[h] - 1] == childId) {
+                return table[h] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param childId the id of the child
+     * @param label the label of the edge
+     * @return true if there is an edge to the given child with the given label.
+     */
+    boolean contains(int childId, Object label) {
+        int slot = slotOf(childId);
+        return slot >= 0 && labels.get(slot).contains(label);
+    }
+
+    /**
+     * Add an edge to the given child with the given label, if it isn't already here.
+     * @param childId the id of the child
+     * @param label the label of the edge
+     * @param order the order children are kept in, or null to add new children last
+     * @return true if the edge was added, false if it already existed.
+     * @spec.modifies this
+     * @spec.requires label != null, and if order != null the children are already sorted by it
+     */
+    boolean add(int childId, L label, Comparator<Integer> order) {
+        int slot = slotOf(childId);
+        if (slot < 0) {
+            int pos = size;
+            if (order != null) {
+                // binary search for the first child that comes after the new one
+                int lo = 0;
+                while (lo < pos) {
+                    int mid = (lo + pos) >>> 1;
+                    if (order.compare(children[mid], childId) <= 0) {
+                        lo = mid + 1;
+                    } else {
+                        pos = mid;
+                    }
+                }
+            }
+            if (size == children.length) {
+                children = Arrays.copyOf(children, size * 2);
+            }
+            System.arraycopy(children, pos, children, pos + 1, size - pos);
+            children[pos] = childId;
+            labels.add(pos, Collections.singletonList(label));
+            size++;
+            if (pos < size - 1) {
+                // the children after pos moved, so the table is rebuilt
+                table = null;
+            }
+            if (table != null || size > SCAN_LIMIT) {
+                index(size - 1);
+            }
+        } else {
+            List<L> ls = labels.get(slot);
+            if (ls.contains(label)) {
+                return false;
+            }
+            LabelList<L> grown;
+            if (ls.size() == 1) {
+                // the first parallel edge: swap the immutable singleton for a growable list
+                grown = new LabelList<>(ls);
+                labels.set(slot, grown);
+            } else {
+                grown = (LabelList<L>) ls;
+            }
+            grown.append(label);
+        }
+        edgeCount++;
+        return true;
+    }
+
+    /**
+     * Put the children in the given order, keeping each child's labels with it.
+     * @param order the order to sort the children's ids by
+     * @spec.modifies this
+     */
+    void sort(Comparator<Integer> order) {
+        Integer[] slots = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = i;
+        }
+        Arrays.sort(slots, (x, y) -> order.compare(children[x], children[y]));
+        int[] sortedChildren = new int[children.length];
+        List<List<L>> sortedLabels = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sortedChildren[i] = children[slots[i]];
+            sortedLabels.add(labels.get(slots[i]));
+        }
+        children = sortedChildren;
+        labels.clear();
+        labels.addAll(sortedLabels);
+        if (table != null) {
+            table = null;
+            index(size - 1);
+        }
+    }
+
+    // Puts the given slot into the hash table, creating or growing the table as needed.
+    private void index(int slot) {
+        if (table == null || size * 2 > table.length) {
+            table = new int[Integer.highestOneBit(size * 4)];
+            for (int i = 0; i < size; i++) {
+                insert(i);
+            }
+        } else {
+            insert(slot);
+        }
+    }
+
+    // Puts the given slot into the hash table, which must have room for it.
+    private void insert(int slot) {
+        int mask = table.length - 1;
+        int h = mix(children[slot]) & mask;
+        while (table[h] != 0) {
+            h = (h + 1) & mask;
+        }
+        table[h] = slot + 1;
+    }
+
+    // Spreads the bits of a node id so consecutive ids don't probe consecutive positions.
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * <b>LabelList</b> is the labels of the parallel edges to one child. It can only be grown by
+     * its Adjacency, so it is handed out to readers as it is, without a read-only wrapper.
+     */
+    private static class LabelList<L> extends AbstractList<L> {
+        // the labels, in positions 0 to size - 1
+        private Object[] items;
+
+        // the number of labels
+        private int size;
+
+        LabelList(List<L> labels) {
+            items = labels.toArray(new Object[labels.size() + 1]);
+            size = labels.size();
+        }
+
+        // Adds a label at the end of the list.
+        void append(L label) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size + (size >> 1));
+            }
+            items[size++] = label;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public L get(int index) {
+            Objects.checkIndex(index, size);
+            return (L) items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * <b>CompactGraph</b> represents an immutable, directed, labeled graph stored in compressed
+ * sparse row (CSR) form. Every node is numbered with a dense int id, the distinct children of
+ * all nodes are packed into flat int arrays, parallel edges to the same child share one entry,
+ * and equal labels are stored only once.
+ * A CompactGraph is made from a {@link Graph} once it is fully built (see {@link Graph#freeze()}),
+ * and answers the same read operations with far less memory per edge.
+ * D is the node type and L is the Edge Label type.
+ */
+public final class CompactGraph<D, L> implements GraphView<D, L> {
+
+    // Abstract Function:
+    // CompactGraph represents the graph whose nodes are nodes.get(0) ... nodes.get(size() - 1).
+    // The children of the node with id i are targets[k] for every offsets[i] <= k < offsets[i + 1],
+    // and for every such k and every labelOffsets[k] <= j < labelOffsets[k + 1] there is an
+    // Edge from nodes.get(i) to nodes.get(targets[k]) with label labels.get(labelIds[j]).
+
+    // Rep Invariant:
+    // nodes, ids, offsets, targets, labelOffsets, labelIds, labels != null and contain no nulls.
+    // ids.get(nodes.get(i).getData()) == i for every id i.
+    // offsets.length == nodes.size() + 1, offsets[0] == 0, offsets is non-decreasing,
+    // offsets[nodes.size()] == targets.length.
+    // targets is strictly increasing within each row, and 0 <= targets[k] < nodes.size().
+    // labelOffsets.length == targets.length + 1, labelOffsets[0] == 0, labelOffsets is strictly
+    // increasing, labelOffsets[targets.length] == labelIds.length.
+    // 0 <= labelIds[j] < labels.size() for every j, and labels contains no duplicates.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // id -> node
+    private final List<Graph.Node<D>> nodes;
+
+    // node data -> id
+    private final Map<D, Integer> ids;
+
+    // the children of node i are at positions offsets[i] (inclusive) to offsets[i + 1] (exclusive)
+    private final int[] offsets;
+
+    // the id of every distinct child, sorted within each row
+    private final int[] targets;
+
+    // the labels of the edges to targets[k] are at positions labelOffsets[k] to labelOffsets[k + 1]
+    private final int[] labelOffsets;
+
+    // the label id of every edge
+    private final int[] labelIds;
+
+    // label id -> label, every distinct label is stored once
+    private final List<L> labels;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (offsets.length == nodes.size() + 1) : "One offset per node plus the end offset";
+        assert (labelOffsets.length == targets.length + 1) : "One label offset per child plus the end offset";
+        if (DEBUG) {
+            assert (offsets[0] == 0 && labelOffsets[0] == 0) : "First row starts at 0";
+            assert (offsets[nodes.size()] == targets.length) : "Last row ends at the last child";
+            assert (labelOffsets[targets.length] == labelIds.length) : "Last child ends at the last label";
+            for (int i = 0; i < nodes.size(); i++) {
+                assert (ids.get(nodes.get(i).getData()) == i) : "Node id table is inconsistent";
+                assert (offsets[i] <= offsets[i + 1]) : "Offsets must be non-decreasing";
+                for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                    assert (targets[k] >= 0 && targets[k] < nodes.size()) : "Edge child must exist";
+                    assert (k == offsets[i] || targets[k - 1] < targets[k]) : "Children must be sorted";
+                    assert (labelOffsets[k] < labelOffsets[k + 1]) : "Every child has a label";
+                }
+            }
+            for (int labelId : labelIds) {
+                assert (labelId >= 0 && labelId < labels.size()) : "Edge label must exist";
+            }
+        }
+    }
+
+    private CompactGraph(List<Graph.Node<D>> nodes, Map<D, Integer> ids, int[] offsets, int[] targets,
+                         int[] labelOffsets, int[] labelIds, List<L> labels) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.labelOffsets = labelOffsets;
+        this.labelIds = labelIds;
+        this.labels = labels;
+        checkRep();
+    }
+
+    /**
+     * Build a CompactGraph with the same nodes, node ids and edges as the given graph.
+     * Later changes to the given graph are not reflected in the result.
+     * @param g the graph to be copied
+     * @param <D> the node type
+     * @param <L> the Edge Label type
+     * @return an immutable CSR copy of g
+     * @throws IllegalArgumentException if g is null
+     */
+    public static <D, L> CompactGraph<D, L> from(GraphView<D, L> g) {
+        if (g == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        int n = g.size();
+        List<Graph.Node<D>> nodes = new ArrayList<>(Collections.nCopies(n, null));
+        Map<D, Integer> ids = new HashMap<>();
+        for (Graph.Node<D> node : g.listNodes()) {
+            int id = g.idOf(node.getData());
+            ids.put(node.getData(), id);
+            nodes.set(id, node);
+        }
+
+        int[] offsets = new int[n + 1];
+        int[][] rows = new int[n][];
+        for (int i = 0; i < n; i++) {
+            rows[i] = g.childrenOf(i);
+            Arrays.sort(rows[i]);
+            offsets[i + 1] = offsets[i] + rows[i].length;
+        }
+
+        int[] targets = new int[offsets[n]];
+        int[] labelOffsets = new int[targets.length + 1];
+        int[] labelIds = new int[targets.length];
+        int edges = 0;
+        List<L> labels = new ArrayList<>();
+        Map<L, Integer> labelTable = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            int k = offsets[i];
+            for (int child : rows[i]) {
+                for (L label : g.labelsOf(i, child)) {
+                    Integer labelId = labelTable.get(label);
+                    if (labelId == null) {
+                        labelId = labels.size();
+                        labelTable.put(label, labelId);
+                        labels.add(label);
+                    }
+                    if (edges == labelIds.length) {
+                        labelIds = Arrays.copyOf(labelIds, edges * 2);
+                    }
+                    labelIds[edges] = labelId;
+                    edges++;
+                }
+                targets[k] = child;
+                labelOffsets[k + 1] = edges;
+                k++;
+            }
+        }
+        return new CompactGraph<>(nodes, ids, offsets, targets, labelOffsets,
+                Arrays.copyOf(labelIds, edges), labels);
+    }
+
+    @Override
+    public boolean containsNode(Graph.Node<D> n) {
+        return n != null && ids.containsKey(n.getData());
+    }
+
+    @Override
+    public Set<Graph.Node<D>> listNodes() {
+        return new NodeSet<>(() -> nodes, () -> ids);
+    }
+
+    /**
+     * Return a set of all Edges from a particular Node. The set is a read-only view of the
+     * packed edge arrays, and each Edge is created as the set is iterated.
+     * @param n the node needs to get edges from
+     * @return a set of all Edges from a particular Node,
+     *         if the node doesn't exist in Graph or has no edges, return an empty set.
+     * @spec.requires n != null
+     */
+    @Override
+    public Set<Graph.Edge<D, L>> listChildren(Graph.Node<D> n) {
+        Integer id = ids.get(n.getData());
+        if (id == null || offsets[id] == offsets[id + 1]) {
+            return Collections.emptySet();
+        }
+        return new ChildSet(id);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public int idOf(D data) {
+        Integer id = ids.get(data);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public D dataOf(int id) {
+        checkId(id);
+        return nodes.get(id).getData();
+    }
+
+    @Override
+    public int[] childrenOf(int id) {
+        checkId(id);
+        return Arrays.copyOfRange(targets, offsets[id], offsets[id + 1]);
+    }
+
+    @Override
+    public void forEachChild(Graph.Node<D> n, EdgeConsumer<D, L> action) {
+        Integer id = ids.get(n.getData());
+        if (id != null) {
+            for (int k = offsets[id]; k < offsets[id + 1]; k++) {
+                Graph.Node<D> child = nodes.get(targets[k]);
+                for (int j = labelOffsets[k]; j < labelOffsets[k + 1]; j++) {
+                    action.accept(child, labels.get(labelIds[j]));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachChild(int id, ChildConsumer<L> action) {
+        checkId(id);
+        // one view is moved along the row instead of creating a list per child
+        LabelRange range = new LabelRange();
+        for (int k = offsets[id]; k < offsets[id + 1]; k++) {
+            range.from = labelOffsets[k];
+            range.to = labelOffsets[k + 1];
+            action.accept(targets[k], range);
+        }
+    }
+
+    @Override
+    public List<L> labelsOf(int parentId, int childId) {
+        checkId(parentId);
+        checkId(childId);
+        int k = Arrays.binarySearch(targets, offsets[parentId], offsets[parentId + 1], childId);
+        if (k < 0) {
+            return Collections.emptyList();
+        }
+        List<L> result = new ArrayList<>(labelOffsets[k + 1] - labelOffsets[k]);
+        for (int j = labelOffsets[k]; j < labelOffsets[k + 1]; j++) {
+            result.add(labels.get(labelIds[j]));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    // Throws an IllegalArgumentException if id is not the id of a node in this graph.
+    private void checkId(int id) {
+        if (id < 0 || id >= nodes.size()) {
+            throw new IllegalArgumentException("No node has id " + id);
+        }
+    }
+
+    /**
+     * Return the number of Edges in this Graph
+     * @return the number of Edges in the Graph
+     */
+    public int edgeCount() {
+        return labelIds.length;
+    }
+
+    /**
+     * Return the number of distinct Edge labels in this Graph
+     * @return the number of distinct labels in the Graph
+     */
+    public int labelCount() {
+        return labels.size();
+    }
+
+    // The packed arrays themselves, not copies, for MappedGraph to write out. They must not be changed.
+    List<Graph.Node<D>> nodes() {
+        return nodes;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    int[] labelOffsets() {
+        return labelOffsets;
+    }
+
+    int[] labelIds() {
+        return labelIds;
+    }
+
+    List<L> labels() {
+        return labels;
+    }
+
+    /**
+     * <b>ChildSet</b> is a read-only view of the outgoing Edges of one node.
+     */
+    private class ChildSet extends AbstractSet<Graph.Edge<D, L>> {
+        // the id of the parent node
+        private final int id;
+
+        ChildSet(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public Iterator<Graph.Edge<D, L>> iterator() {
+            return new Iterator<Graph.Edge<D, L>>() {
+                // the position of the current child and of the next label
+                private int k = offsets[id];
+                private int j = labelOffsets[offsets[id]];
+
+                @Override
+                public boolean hasNext() {
+                    return k < offsets[id + 1];
+                }
+
+                @Override
+                public Graph.Edge<D, L> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Graph.Edge<D, L> e = new Graph.Edge<>(nodes.get(id), nodes.get(targets[k]), labels.get(labelIds[j]));
+                    j++;
+                    if (j == labelOffsets[k + 1]) {
+                        k++;
+                    }
+                    return e;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return labelOffsets[offsets[id + 1]] - labelOffsets[offsets[id]];
+        }
+    }
+
+    /**
+     * <b>LabelRange</b> is a read-only view of the labels of the edges at positions from (inclusive)
+     * to to (exclusive) of labelIds.
+     */
+    private class LabelRange extends AbstractList<L> {
+        // the positions in labelIds this view covers
+        private int from;
+        private int to;
+
+        @Override
+        public L get(int index) {
+            Objects.checkIndex(index, to - from);
+            return labels.get(labelIds[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <b>Components</b> is a mutable union-find forest over node ids 0 ... size() - 1 that a Graph keeps
+ * to know which nodes are joined by edges in either direction, that is its weakly connected
+ * components. Two nodes in different components have no path between them either way.
+ *
+ * <p>Unions go by size and halve the paths they walk, so a find takes at most about log(size())
+ * steps, and it is built with every node pointing straight at its root. Finds never change the
+ * forest, so any number of threads may read it at once while no thread changes it.</p>
+ */
+final class Components {
+
+    // Abstract Function:
+    // Components represents the partition of the ids 0 ... count - 1 in which two ids are in the same part
+    // exactly when following parent from each ends at the same root, a root being an id r with
+    // parent[r] == r. sizes[r] is the number of ids in the part of root r.
+
+    // Rep Invariant:
+    // parent, sizes != null, parent.length == sizes.length >= count >= 0, components >= 0.
+    // 0 <= parent[v] < count for every v < count, and following parent from any v reaches a root.
+    // components is the number of roots below count, and the sizes of the roots add up to count.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // once a task has fewer nodes than this, it joins their edges itself
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    // id -> the id it points at, itself for a root
+    private int[] parent;
+
+    // root id -> the number of ids in its part
+    private int[] sizes;
+
+    // the number of ids
+    private int count;
+
+    // the number of parts
+    private int components;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (parent.length == sizes.length && parent.length >= count) : "Room for every id";
+        if (DEBUG) {
+            int roots = 0;
+            int total = 0;
+            for (int v = 0; v < count; v++) {
+                if (parent[v] == v) {
+                    roots++;
+                    total += sizes[v];
+                }
+            }
+            assert (roots == components) : "One part per root";
+            assert (total == count) : "Every id is in one part";
+        }
+    }
+
+    // Constructs the given forest, taking ownership of the arrays.
+    private Components(int[] parent, int[] sizes, int count, int components) {
+        this.parent = parent;
+        this.sizes = sizes;
+        this.count = count;
+        this.components = components;
+        checkRep();
+    }
+
+    /**
+     * Finds the components of the graph with the given edges.
+     * @param adjacency the edges from each node id
+     * @param pool the pool to join the edges of different nodes on, or null to join them on this thread
+     * @return the components of the graph, each node pointing straight at its root
+     */
+    static Components of(List<? extends Adjacency<?>> adjacency, ForkJoinPool pool) {
+        int n = adjacency.size();
+        int[] parent = new int[Math.max(n, 8)];
+        if (pool == null) {
+            for (int v = 0; v < n; v++) {
+                parent[v] = v;
+            }
+            for (int v = 0; v < n; v++) {
+                Adjacency<?> adj = adjacency.get(v);
+                for (int slot = 0; slot < adj.size(); slot++) {
+                    int a = root(parent, v);
+                    int b = root(parent, adj.childAt(slot));
+                    // the greater root goes under the lesser, which only ever makes paths shorter to walk
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        } else {
+            AtomicIntegerArray shared = new AtomicIntegerArray(n);
+            for (int v = 0; v < n; v++) {
+                shared.set(v, v);
+            }
+            pool.invoke(new UnionTask(adjacency, shared, 0, n));
+            for (int v = 0; v < n; v++) {
+                parent[v] = shared.get(v);
+            }
+        }
+
+        int[] sizes = new int[parent.length];
+        int components = 0;
+        // every node points at a lesser id, so the roots of lesser ids are already flattened
+        for (int v = 0; v < n; v++) {
+            parent[v] = parent[v] == v ? v : parent[parent[v]];
+            if (parent[v] == v) {
+                components++;
+            }
+            sizes[parent[v]]++;
+        }
+        return new Components(parent, sizes, n, components);
+    }
+
+    // Returns the root of v, halving the path walked to it.
+    private static int root(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * <b>UnionTask</b> joins every node with ids from lo (inclusive) to hi (exclusive) with its
+     * children, splitting into smaller tasks while there are many. The roots are linked with a
+     * compare-and-set, always the greater root under the lesser, so every thread sees the same
+     * forest grow and every node ends up under the least id of its component.
+     */
+    private static class UnionTask extends RecursiveAction {
+        // the edges from each node id
+        private final List<? extends Adjacency<?>> adjacency;
+
+        // id -> the id it points at, itself for a root; every id points at a lesser or equal one
+        private final AtomicIntegerArray parent;
+
+        // the range of node ids this task joins
+        private final int lo;
+        private final int hi;
+
+        UnionTask(List<? extends Adjacency<?>> adjacency, AtomicIntegerArray parent, int lo, int hi) {
+            this.adjacency = adjacency;
+            this.parent = parent;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > PARALLEL_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new UnionTask(adjacency, parent, lo, mid), new UnionTask(adjacency, parent, mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                Adjacency<?> adj = adjacency.get(v);
+                for (int slot = 0; slot < adj.size(); slot++) {
+                    union(v, adj.childAt(slot));
+                }
+            }
+        }
+
+        // Joins the parts of a and b.
+        private void union(int a, int b) {
+            while (true) {
+                a = root(a);
+                b = root(b);
+                if (a == b) {
+                    return;
+                }
+                int high = Math.max(a, b);
+                int low = Math.min(a, b);
+                if (parent.compareAndSet(high, high, low)) {
+                    return;
+                }
+            }
+        }
+
+        // Returns the root of v, halving the path walked to it. Another thread may have linked the
+        // root meanwhile, which union notices when its compare-and-set fails.
+        private int root(int v) {
+            int p = parent.get(v);
+            while (p != v) {
+                int grand = parent.get(p);
+                parent.compareAndSet(v, p, grand);
+                v = p;
+                p = parent.get(v);
+            }
+            return v;
+        }
+    }
+
+    /**
+     * @return a copy of this forest, which can be changed without changing this one.
+     */
+    Components copy() {
+        return new Components(parent.clone(), sizes.clone(), count, components);
+    }
+
+    /**
+     * Adds the next id, in a part of its own.
+     * @spec.modifies this
+     */
+    void add() {
+        if (count == parent.length) {
+            parent = Arrays.copyOf(parent, count * 2);
+            sizes = Arrays.copyOf(sizes, count * 2);
+        }
+        parent[count] = count;
+        sizes[count] = 1;
+        count++;
+        components++;
+        checkRep();
+    }
+
+    /**
+     * Joins the parts of the two given ids into one.
+     * @param a an id
+     * @param b another id
+     * @spec.modifies this
+     */
+    void union(int a, int b) {
+        a = root(parent, a);
+        b = root(parent, b);
+        if (a != b) {
+            if (sizes[a] < sizes[b]) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            parent[b] = a;
+            sizes[a] += sizes[b];
+            components--;
+        }
+        checkRep();
+    }
+
+    /**
+     * @param v an id
+     * @return the root of the part of v, the same for every id in that part.
+     */
+    int find(int v) {
+        while (parent[v] != v) {
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * @param v an id
+     * @return the number of ids in the part of v.
+     */
+    int sizeOf(int v) {
+        return sizes[find(v)];
+    }
+
+    /**
+     * @return the number of ids.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * @return the number of parts.
+     */
+    int count() {
+        return components;
+    }
+
+    /**
+     * @return the number of ids in each part, largest first.
+     */
+    int[] sizes() {
+        int[] result = new int[components];
+        int i = 0;
+        for (int v = 0; v < count; v++) {
+            if (parent[v] == v) {
+                result[i++] = sizes[v];
+            }
+        }
+        Arrays.sort(result);
+        for (int lo = 0, hi = result.length - 1; lo < hi; lo++, hi--) {
+            int t = result[lo];
+            result[lo] = result[hi];
+            result[hi] = t;
+        }
+        return result;
+    }
+}
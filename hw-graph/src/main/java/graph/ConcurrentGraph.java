@@ -0,0 +1,336 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <b>ConcurrentGraph</b> represents a mutable, directed, labeled graph that many threads can
+ * read and change at the same time. It has the same operations and rules as {@link Graph}
+ * (no duplicate nodes, no duplicate edges, edges need both ends to exist).
+ * Readers never take a lock: a reader sees every node and edge whose add finished before the
+ * read started, and may or may not see ones being added at the same moment. Writers adding edges
+ * from different nodes usually don't block each other, since each edge only locks one of
+ * several stripes chosen by its parent's id.
+ * D is the node type and L is the Edge Label type.
+ */
+public class ConcurrentGraph<D, L> implements GraphView<D, L> {
+
+    // Abstract Function:
+    // The nodes of the graph are vertices.get(0).node ... vertices.get(size - 1).node, where the
+    // id of a node is its position. For every vertex v with id i, and every slot k < v.row.size,
+    // there is an Edge from v.node to vertices.get(v.row.children[k]).node labeled l for every
+    // l in v.row.labels.get(k).
+
+    // Rep Invariant:
+    // ids, vertices, slots, stripes != null and contain no nulls in their used positions.
+    // 0 <= size <= vertices.length(), vertices.get(i) != null for every i < size.
+    // ids.get(vertices.get(i).node.getData()) == i once addNode of that node has returned.
+    // For every vertex v: v.row != null, v.row.size <= v.row.children.length, the first
+    // v.row.size children are distinct node ids, and each of their label lists is non-empty
+    // with no duplicates.
+    // slots.get(key(i, c)) == k exactly when vertices.get(i).row.children[k] == c, except that
+    // while an edge to a new child is being added its slot may be recorded before its row is.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // number of locks edge writers are spread over, a power of two
+    private static final int STRIPES = 64;
+
+    // node data -> id
+    private final ConcurrentHashMap<D, Integer> ids;
+
+    // (parent id, child id) -> position of the child in the parent's row
+    private final ConcurrentHashMap<Long, Integer> slots;
+
+    // id -> node and its edges, replaced by a bigger copy when full
+    private volatile AtomicReferenceArray<Vertex<D, L>> vertices;
+
+    // the number of nodes, published after the node's vertex
+    private volatile int size;
+
+    // held while adding a node
+    private final Object nodeLock = new Object();
+
+    // held while adding an edge from a parent whose id is equal to the lock's index mod STRIPES
+    private final Object[] stripes;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (ids != null && slots != null && vertices != null) : "graph cannot be null!";
+        if (DEBUG) {
+            int n = size;
+            AtomicReferenceArray<Vertex<D, L>> vs = vertices;
+            for (int i = 0; i < n; i++) {
+                Row<L> row = vs.get(i).row;
+                assert (row.size <= row.children.length) : "Row size cannot exceed its capacity";
+                for (int k = 0; k < row.size; k++) {
+                    assert (row.children[k] >= 0 && row.children[k] < n) : "Child node must exist";
+                    assert (!row.labels.get(k).isEmpty()) : "Every child has a label";
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs a new ConcurrentGraph.
+     * @spec.effects Construct a new, empty ConcurrentGraph.
+     */
+    public ConcurrentGraph() {
+        ids = new ConcurrentHashMap<>();
+        slots = new ConcurrentHashMap<>();
+        vertices = new AtomicReferenceArray<>(16);
+        stripes = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        checkRep();
+    }
+
+    /**
+     * Add the given node to the graph if it doesn't already exist in the graph.
+     * @param n Node to be added.
+     * @spec.modifies this
+     * @spec.effects add the given node to this graph.
+     * @spec.requires n != null
+     */
+    public void addNode(Graph.Node<D> n) {
+        if (n == null || ids.containsKey(n.getData())) {
+            return;
+        }
+        synchronized (nodeLock) {
+            if (ids.containsKey(n.getData())) {
+                return;
+            }
+            int id = size;
+            AtomicReferenceArray<Vertex<D, L>> vs = vertices;
+            if (id == vs.length()) {
+                AtomicReferenceArray<Vertex<D, L>> bigger = new AtomicReferenceArray<>(id * 2);
+                for (int i = 0; i < id; i++) {
+                    bigger.set(i, vs.get(i));
+                }
+                vertices = bigger;
+                vs = bigger;
+            }
+            // publish the vertex, then the count, then the id, so whoever can find a node can read it
+            vs.set(id, new Vertex<>(n));
+            size = id + 1;
+            ids.put(n.getData(), id);
+        }
+        checkRep();
+    }
+
+    /**
+     * Add the Edge with the given parent Node, child Node and label to the graph if the Edge doesn't already
+     * exist in the graph.
+     * @param parent the parent node in which the edge points from
+     * @param child the child node in which the edge points to
+     * @param label the label of the edge
+     * @spec.modifies this
+     * @spec.effects add the edge with the given parent node, child node and label to this graph.
+     * @throws IllegalArgumentException if added Edge's parentNode or childNode didn't already exist in the graph.
+     * @spec.requires parent != null, child != null, label != null.
+     */
+    public void addEdge(Graph.Node<D> parent, Graph.Node<D> child, L label) {
+        Integer parentId = ids.get(parent.getData());
+        Integer childId = ids.get(child.getData());
+        if (parentId == null || childId == null) {
+            throw new IllegalArgumentException("Parent and Child must have existed!");
+        }
+        Vertex<D, L> v = vertices.get(parentId);
+        synchronized (stripes[parentId & (STRIPES - 1)]) {
+            Row<L> row = v.row;
+            Integer slot = slots.get(key(parentId, childId));
+            if (slot == null) {
+                // the slot is recorded before the row is published, so a reader that sees the
+                // new row can always find the child's labels
+                Row<L> added = row.withChild(childId, label);
+                slots.put(key(parentId, childId), row.size);
+                v.row = added;
+            } else if (!row.labels.get(slot).contains(label)) {
+                // label lists are never changed in place, a longer copy replaces the old one
+                List<L> labels = new ArrayList<>(row.labels.get(slot));
+                labels.add(label);
+                row.labels.set(slot, Collections.unmodifiableList(labels));
+            }
+        }
+        checkRep();
+    }
+
+    @Override
+    public boolean containsNode(Graph.Node<D> n) {
+        return n != null && ids.containsKey(n.getData());
+    }
+
+    /**
+     * Returns a set of all Nodes from this Graph, as they are when this method is called.
+     * @return set of Nodes in the Graph. If there are no nodes in the graph, return an empty set.
+     */
+    @Override
+    public Set<Graph.Node<D>> listNodes() {
+        int n = size;
+        AtomicReferenceArray<Vertex<D, L>> vs = vertices;
+        Set<Graph.Node<D>> result = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            result.add(vs.get(i).node);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Return a set of all Edges from a particular Node, as they are when this method is called.
+     * @param n the node needs to get edges from
+     * @return a set of all Edges from a particular Node,
+     *         if the node doesn't exist in Graph or has no edges, return an empty set.
+     * @spec.requires n != null
+     */
+    @Override
+    public Set<Graph.Edge<D, L>> listChildren(Graph.Node<D> n) {
+        Integer id = ids.get(n.getData());
+        if (id == null) {
+            return new HashSet<>();
+        }
+        Vertex<D, L> v = vertices.get(id);
+        Row<L> row = v.row;
+        Set<Graph.Edge<D, L>> result = new HashSet<>();
+        for (int k = 0; k < row.size; k++) {
+            Graph.Node<D> childNode = vertices.get(row.children[k]).node;
+            for (L label : row.labels.get(k)) {
+                result.add(new Graph.Edge<>(v.node, childNode, label));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int idOf(D data) {
+        Integer id = ids.get(data);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public D dataOf(int id) {
+        checkId(id);
+        return vertices.get(id).node.getData();
+    }
+
+    @Override
+    public int[] childrenOf(int id) {
+        checkId(id);
+        Row<L> row = vertices.get(id).row;
+        return Arrays.copyOf(row.children, row.size);
+    }
+
+    @Override
+    public void forEachChild(Graph.Node<D> n, EdgeConsumer<D, L> action) {
+        Integer id = ids.get(n.getData());
+        if (id != null) {
+            Row<L> row = vertices.get(id).row;
+            for (int k = 0; k < row.size; k++) {
+                Graph.Node<D> child = vertices.get(row.children[k]).node;
+                List<L> ls = row.labels.get(k);
+                for (int j = 0; j < ls.size(); j++) {
+                    action.accept(child, ls.get(j));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachChild(int id, ChildConsumer<L> action) {
+        checkId(id);
+        Row<L> row = vertices.get(id).row;
+        for (int k = 0; k < row.size; k++) {
+            action.accept(row.children[k], row.labels.get(k));
+        }
+    }
+
+    @Override
+    public List<L> labelsOf(int parentId, int childId) {
+        checkId(parentId);
+        checkId(childId);
+        Row<L> row = vertices.get(parentId).row;
+        Integer slot = slots.get(key(parentId, childId));
+        if (slot == null || slot >= row.size) {
+            return Collections.emptyList();
+        }
+        return row.labels.get(slot);
+    }
+
+    // Throws an IllegalArgumentException if id is not the id of a node in this graph.
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("No node has id " + id);
+        }
+    }
+
+    // Packs a parent id and a child id into one key of the slots table.
+    private static long key(int parentId, int childId) {
+        return ((long) parentId << 32) | (childId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * <b>Vertex</b> is one node of the graph together with its current row of edges.
+     */
+    private static class Vertex<D, L> {
+        // the node itself
+        private final Graph.Node<D> node;
+
+        // the edges from node, replaced (never changed in place) by writers holding the node's stripe
+        private volatile Row<L> row;
+
+        Vertex(Graph.Node<D> node) {
+            this.node = node;
+            this.row = new Row<>(new int[2], new AtomicReferenceArray<>(2), 0);
+        }
+    }
+
+    /**
+     * <b>Row</b> is the edges from one node at one moment. The first size positions of its arrays
+     * never change once a Row is published, except that a label list may be replaced by a longer one,
+     * so a reader holding an old Row always sees a consistent set of edges.
+     */
+    private static class Row<L> {
+        // children[k] is the id of the k-th distinct child, for k < size
+        private final int[] children;
+
+        // labels.get(k) is the read-only list of labels of the edges to children[k]
+        private final AtomicReferenceArray<List<L>> labels;
+
+        // the number of distinct children
+        private final int size;
+
+        Row(int[] children, AtomicReferenceArray<List<L>> labels, int size) {
+            this.children = children;
+            this.labels = labels;
+            this.size = size;
+        }
+
+        /**
+         * @param childId the id of a child not yet in this row
+         * @param label the label of the edge to it
+         * @return a Row with an edge to childId added after the edges of this Row
+         */
+        Row<L> withChild(int childId, L label) {
+            int[] cs = children;
+            AtomicReferenceArray<List<L>> ls = labels;
+            if (size == cs.length) {
+                cs = Arrays.copyOf(cs, size * 2);
+                ls = new AtomicReferenceArray<>(size * 2);
+                for (int k = 0; k < size; k++) {
+                    ls.set(k, labels.get(k));
+                }
+            }
+            // positions at and after size are not visible to readers of this Row
+            cs[size] = childId;
+            ls.set(size, Collections.singletonList(label));
+            return new Row<>(cs, ls, size + 1);
+        }
+    }
+}
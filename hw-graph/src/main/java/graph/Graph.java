@@ -1,6 +1,7 @@
 package graph;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * <b>Graph</b> represents a mutable, directed, labeled graph.
@@ -9,46 +10,88 @@ import java.util.*;
  * have the same label, and no two nodes share the same label.)
  * D is the node type and L is the Edge Label type.
  */
-public class Graph<D, L> {
+public class Graph<D, L> implements GraphView<D, L> {
 
     // Abstract Function:
-    // Graph stores pairs of Parent Node and the outgoing Edges from that Node.
-    // (i.e one object in graph can be represented by <parentNode, edgesFromParent>
-    // in which parentNode is a Node object from this and edgesFromParent is a set of Edge
-    // objects from this).
+    // Graph stores every Node together with the outgoing Edges from that Node.
+    // Each Node is interned to a dense int id when it is added: nodes.get(id) is the Node
+    // with that id, and adjacency.get(id) holds the Edges from that Node, grouped by child:
+    // for every child c of the Node and every label l in adjacency.get(id).labelsAt(slotOf(c)),
+    // there is an Edge from nodes.get(id) to nodes.get(c) labeled l.
     //
-    // graph.size() represents the number of nodes in a graph.
+    // nodes.size() represents the number of nodes in a graph.
     // Graph can have self pointed Node meaning that there exist an Edge in the
     // edgesFromParent such that Edge.getChild().equals(parentNode).
     // If the there are no entities in graph, graph represents an empty graph.
 
     // Rep Invariant:
-    // Graph cannot be null and all entities (keys/values and every Node and Edge) in graph cannot be null.
+    // ids, nodes, adjacency cannot be null and none of their entities can be null.
+    // nodes.size() == adjacency.size() == ids.size(), and ids.get(nodes.get(i).getData()) == i.
     // No two edges have the same parent and child share the same label.
     // No two nodes share the same label.
     // An Edge cannot exist if its parent or child doesn't already exist in the graph.
+    // Every child id in adjacency.get(i) is the id of a node in the graph.
+    // If shared, ids, nodes, adjacency and incoming are also used by a snapshot and are never changed in place.
+    // An Adjacency whose owner is not this graph's owner may be used by a snapshot and is never
+    // changed in place.
+    // If childOrder != null, the children of every adjacency are sorted by childOrder of their data,
+    // and idOrder compares node ids the same way.
+    // If incoming != null, incoming.size() == nodes.size(), and incoming.get(c) holds the edge
+    // (p, l) exactly when adjacency.get(p) holds the edge (c, l). Its Adjacency objects are shared
+    // with snapshots the same way.
+    // If components != null, it has nodes.size() ids, and two ids are in the same part exactly when
+    // edges join their nodes, ignoring direction. If shared, it is also used by a snapshot.
 
     // The switch for checkRep
     private final static boolean DEBUG = false;
 
-    // The holder of nodes and corresponding edges, which represents the graph
-    private Map<Node<D>, Set<Edge<D, L>>> graph;
+    // node data -> id
+    private Map<D, Integer> ids;
+
+    // id -> node
+    private List<Node<D>> nodes;
+
+    // id -> outgoing edges of that node
+    private List<Adjacency<L>> adjacency;
+
+    // id -> incoming edges of that node, each held as an edge to its parent, or null if not indexed
+    private List<Adjacency<L>> incoming;
+
+    // the weakly connected components of the nodes, by id, or null if not indexed
+    private Components components;
+
+    // true if ids, nodes, adjacency, incoming and components are shared with a snapshot, so must be
+    // copied before a change
+    private boolean shared;
+
+    // marks the Adjacency objects this graph may change in place, replaced on every snapshot
+    private Object owner;
+
+    // the order children are kept in, or null to keep them in the order they were added
+    private Comparator<? super D> childOrder;
+
+    // childOrder applied to the data of the nodes with the given ids
+    private Comparator<Integer> idOrder;
 
     // Throws an exception if the representation invariant is violated.
     private void checkRep() {
-        assert (graph != null) : "graph cannot be null!";
-        Set<Graph.Node<D>> nodes = graph.keySet();
+        assert (ids != null && nodes != null && adjacency != null) : "graph cannot be null!";
+        assert (nodes.size() == adjacency.size()) : "Every node has one adjacency";
+        assert (incoming == null || incoming.size() == nodes.size()) : "Every node has one incoming adjacency";
+        assert (components == null || components.size() == nodes.size()) : "Every node is in one component";
         if (DEBUG) {
-            for (Node<D> n : nodes) {
+            assert (nodes.size() == ids.size()) : "Every node has one id";
+            for (int i = 0; i < nodes.size(); i++) {
+                Node<D> n = nodes.get(i);
                 assert (n != null) : "Node cannot be null";
-                Set<Graph.Edge<D, L>> edgeSet = graph.get(n);
-                Set<Graph.Edge<D, L>> visitedEdge = new HashSet<>();
-                for(Graph.Edge<D, L> e : edgeSet) {
-                    assert (e != null) : "Edge cannot be null";
-                    assert (graph.containsKey(e.getParent())) : "Parent node must exist before Edge was added";
-                    assert (graph.containsKey(e.getChild())) : "Child node must exist before Edge was added";
-                    assert (!visitedEdge.contains(e)) : "Duplicate edge are not allowed";
-                    visitedEdge.add(e);
+                assert (ids.get(n.getData()) == i) : "Node id table is inconsistent";
+                Adjacency<L> adj = adjacency.get(i);
+                for (int slot = 0; slot < adj.size(); slot++) {
+                    int child = adj.childAt(slot);
+                    assert (child >= 0 && child < nodes.size()) : "Child node must exist before Edge was added";
+                    assert (!adj.labelsAt(slot).contains(null)) : "Edge label cannot be null";
+                    assert (idOrder == null || slot == 0 || idOrder.compare(adj.childAt(slot - 1), child) <= 0)
+                            : "Children must be kept in order";
                 }
             }
         }
@@ -60,12 +103,46 @@ public class Graph<D, L> {
      * @spec.effects Construct a new Graph.
      */
     public Graph () {
-        graph = new HashMap<>();
+        ids = new HashMap<>();
+        nodes = new ArrayList<>();
+        adjacency = new ArrayList<>();
+        owner = new Object();
+        checkRep();
+    }
+
+    // Constructs a graph with the given nodes and no edges, with room in adjacency.get(i) for
+    // capacity[i] children. Used by GraphBuilder, which then adds the edges by id.
+    Graph(Map<D, Integer> ids, List<Node<D>> nodes, int[] capacity) {
+        this.ids = ids;
+        this.nodes = nodes;
+        this.owner = new Object();
+        this.adjacency = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            adjacency.add(new Adjacency<>(owner, capacity[i]));
+        }
+        checkRep();
+    }
+
+    // Constructs a snapshot sharing the given tables with the graph it was taken from.
+    private Graph(Map<D, Integer> ids, List<Node<D>> nodes, List<Adjacency<L>> adjacency,
+                  List<Adjacency<L>> incoming, Components components, Comparator<? super D> childOrder) {
+        this.ids = ids;
+        this.nodes = nodes;
+        this.adjacency = adjacency;
+        this.incoming = incoming;
+        this.components = components;
+        this.childOrder = childOrder;
+        if (childOrder != null) {
+            this.idOrder = (x, y) -> childOrder.compare(this.nodes.get(x).getData(), this.nodes.get(y).getData());
+        }
+        this.shared = true;
+        this.owner = new Object();
         checkRep();
     }
 
     /**
      * Add the given node to the graph if it doesn't already exist in the graph.
+     * The node is given the next unused id.
      * @param n Node to be added.
      * @spec.modifies this
      * @spec.effects add the given node to this graph.
@@ -73,8 +150,17 @@ public class Graph<D, L> {
      */
     public void addNode(Node<D> n) {
         checkRep();
-        if (!graph.containsKey(n) && n != null) {
-            graph.put(n, new HashSet<>());
+        if (n != null && !ids.containsKey(n.getData())) {
+            unshare();
+            ids.put(n.getData(), nodes.size());
+            nodes.add(n);
+            adjacency.add(new Adjacency<>(owner));
+            if (incoming != null) {
+                incoming.add(new Adjacency<>(owner));
+            }
+            if (components != null) {
+                components.add();
+            }
         }
         checkRep();
     }
@@ -92,43 +178,269 @@ public class Graph<D, L> {
      */
     public void addEdge(Node<D> parent, Node<D> child, L label) {
         checkRep();
-        if (!containsNode(parent) || !containsNode(child)) {
+        Integer parentId = ids.get(parent.getData());
+        Integer childId = ids.get(child.getData());
+        if (parentId == null || childId == null) {
             throw new IllegalArgumentException("Parent and Child must have existed!");
         }
 
-        Set<Edge<D, L>> fromParent = graph.get(parent);
-        Edge<D, L> edge = new Edge<>(parent, child, label);
+        if (!adjacency.get(parentId).contains(childId, label)) {
+            unshare();
+            writableAdjacency(parentId).add(childId, label, idOrder);
+            if (incoming != null) {
+                writable(incoming, childId).add(parentId, label, null);
+            }
+            if (components != null) {
+                components.union(parentId, childId);
+            }
+        }
+        checkRep();
+    }
+
+    // Adds an edge between two nodes known to be in the graph, for GraphBuilder.
+    // Nothing is checked, and the graph must not be shared with a snapshot yet.
+    void addEdge(int parentId, int childId, L label) {
+        adjacency.get(parentId).add(childId, label, idOrder);
+        if (incoming != null) {
+            incoming.get(childId).add(parentId, label, null);
+        }
+        if (components != null) {
+            components.union(parentId, childId);
+        }
+    }
 
-//        if (fromParent.contains(edge)) {
-//            throw new IllegalArgumentException("Edge to be added already exist in the graph!");
-//        }
+    // Releases the room kept for edges from the given node that were never added, for GraphBuilder.
+    void trim(int id) {
+        adjacency.get(id).trim();
+    }
 
-        fromParent.add(edge);
+    /**
+     * Keep the children of every node sorted by the given order of their data, from now on.
+     * childrenOf, forEachChild and listChildren then list children in that order, so a search
+     * that has to visit children in order doesn't need to sort them itself.
+     * Children already in the graph are sorted once; later edges to new children are put in place.
+     * @param order the order to keep children in
+     * @spec.modifies this
+     * @spec.effects children of every node are listed in the given order
+     * @throws IllegalArgumentException if order is null
+     */
+    public void sortChildren(Comparator<? super D> order) {
+        checkRep();
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        unshare();
+        childOrder = order;
+        idOrder = (x, y) -> order.compare(nodes.get(x).getData(), nodes.get(y).getData());
+        for (int i = 0; i < adjacency.size(); i++) {
+            if (adjacency.get(i).size() > 1) {
+                writableAdjacency(i).sort(idOrder);
+            }
+        }
         checkRep();
     }
 
     /**
-     * Check if the given Node is contained in the graph.
-     * @param n Node to be checked
-     * @return true if the given node is in the Graph, false otherwise.
-     * @spec.requires n != null
+     * Keep an index of the incoming edges of every node from now on, so that forEachParent takes
+     * time proportional to the number of parents of a node instead of the number of nodes in the
+     * graph. The index holds every edge a second time, and is built now and kept up to date as
+     * edges are added. Snapshots taken afterwards share it. Calling this again does nothing.
+     * @spec.modifies this
+     * @spec.effects the parents of every node are indexed
      */
+    public void indexParents() {
+        checkRep();
+        if (incoming == null) {
+            unshare();
+            List<Adjacency<L>> index = new ArrayList<>(nodes.size());
+            for (int i = 0; i < nodes.size(); i++) {
+                index.add(new Adjacency<>(owner));
+            }
+            for (int parent = 0; parent < nodes.size(); parent++) {
+                Adjacency<L> adj = adjacency.get(parent);
+                for (int slot = 0; slot < adj.size(); slot++) {
+                    Adjacency<L> in = index.get(adj.childAt(slot));
+                    for (L label : adj.labelsAt(slot)) {
+                        in.add(parent, label, null);
+                    }
+                }
+            }
+            incoming = index;
+        }
+        checkRep();
+    }
+
+    /**
+     * Keep an index of the weakly connected components of this graph from now on: two nodes are in
+     * the same component when edges join them, ignoring direction. With it, mayReach answers false
+     * for nodes in different components at once, so a search between them can give up before it
+     * starts, and the components can be counted and measured. The index is built now, and kept up
+     * to date as nodes and edges are added. Snapshots taken afterwards share it. Calling this again
+     * does nothing.
+     * @spec.modifies this
+     * @spec.effects the components of the nodes are indexed
+     */
+    public void indexComponents() {
+        checkRep();
+        if (components == null) {
+            unshare();
+            components = Components.of(adjacency, null);
+        }
+        checkRep();
+    }
+
+    /**
+     * Keep an index of the weakly connected components of this graph from now on, like
+     * indexComponents(), joining the edges of different nodes on the threads of the given pool.
+     * @param pool the pool to run on
+     * @spec.modifies this
+     * @spec.effects the components of the nodes are indexed
+     * @throws IllegalArgumentException if pool is null
+     */
+    public void indexComponents(ForkJoinPool pool) {
+        checkRep();
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (components == null) {
+            unshare();
+            components = Components.of(adjacency, pool);
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns false if there is no path between the two nodes, in either direction, without
+     * searching, when the components of this graph are indexed. Otherwise returns true.
+     * @param fromId the id of the node the path would start at
+     * @param toId the id of the node the path would end at
+     * @return false only if there is no path from fromId to toId
+     * @throws IllegalArgumentException if fromId or toId is not between 0 and size() - 1
+     */
+    @Override
+    public boolean mayReach(int fromId, int toId) {
+        checkRep();
+        checkId(fromId);
+        checkId(toId);
+        return components == null || components.find(fromId) == components.find(toId);
+    }
+
+    /**
+     * Return the number of weakly connected components of this graph.
+     * @return the number of components, each node with no edges being one of its own
+     * @throws IllegalStateException if the components are not indexed
+     */
+    public int componentCount() {
+        checkRep();
+        return indexedComponents().count();
+    }
+
+    /**
+     * Return the number of nodes in the weakly connected component of the given node.
+     * @param n the node to look up
+     * @return the number of nodes joined to n by edges, ignoring direction, n included
+     * @throws IllegalArgumentException if n is null or not in this graph
+     * @throws IllegalStateException if the components are not indexed
+     */
+    public int componentSize(Node<D> n) {
+        checkRep();
+        Integer id = n == null ? null : ids.get(n.getData());
+        if (id == null) {
+            throw new IllegalArgumentException("Node must exist in the graph");
+        }
+        return indexedComponents().sizeOf(id);
+    }
+
+    /**
+     * Return the sizes of all the weakly connected components of this graph.
+     * @return a new array of the number of nodes in each component, largest first
+     * @throws IllegalStateException if the components are not indexed
+     */
+    public int[] componentSizes() {
+        checkRep();
+        return indexedComponents().sizes();
+    }
+
+    // Returns the component index, or throws an IllegalStateException if there is none.
+    private Components indexedComponents() {
+        if (components == null) {
+            throw new IllegalStateException("Components are not indexed; call indexComponents() first");
+        }
+        return components;
+    }
+
+    @Override
+    public Comparator<? super D> childOrder() {
+        checkRep();
+        return childOrder;
+    }
+
+    // Returns the adjacency of the given node, first copying it if a snapshot may still be reading it.
+    private Adjacency<L> writableAdjacency(int id) {
+        return writable(adjacency, id);
+    }
+
+    // Returns table.get(id), first copying it if a snapshot may still be reading it.
+    private Adjacency<L> writable(List<Adjacency<L>> table, int id) {
+        Adjacency<L> adj = table.get(id);
+        if (adj.owner() != owner) {
+            adj = adj.copy(owner);
+            table.set(id, adj);
+        }
+        return adj;
+    }
+
+    // Copies the node tables if a snapshot is sharing them, so they can be changed.
+    private void unshare() {
+        if (shared) {
+            ids = new HashMap<>(ids);
+            nodes = new ArrayList<>(nodes);
+            adjacency = new ArrayList<>(adjacency);
+            if (incoming != null) {
+                incoming = new ArrayList<>(incoming);
+            }
+            if (components != null) {
+                components = components.copy();
+            }
+            shared = false;
+        }
+    }
+
+    /**
+     * Return a read-only snapshot of this Graph as it is now. Taking a snapshot copies nothing:
+     * the snapshot shares its nodes and edges with this Graph, and later changes to this Graph
+     * copy only the tables and the edge lists of the nodes they change, so the snapshot never sees them.
+     * Queries can keep running on a snapshot while this Graph is being changed by the same thread
+     * that took it, or by one that takes it over after a happens-before edge such as handing the
+     * snapshot through a volatile field or a concurrent collection.
+     * @return a read-only view of this Graph's current nodes and edges, with the same node ids.
+     */
+    public GraphView<D, L> snapshot() {
+        checkRep();
+        shared = true;
+        owner = new Object();
+        return new Graph<>(ids, nodes, adjacency, incoming, components, childOrder);
+    }
+
+    @Override
     public boolean containsNode(Node<D> n) {
         checkRep();
-        return graph.containsKey(n);
+        return n != null && ids.containsKey(n.getData());
     }
 
     /**
-     * Returns a set of all Nodes from this Graph.
+     * Returns a set of all Nodes from this Graph. The set is a read-only view of this Graph,
+     * so it includes nodes added later, even after a snapshot has been taken.
      * @return set of Nodes in the Graph. If there are no nodes in the graph, return an empty set.
      */
     public Set<Node<D>> listNodes() {
         checkRep();
-        return Collections.unmodifiableSet(graph.keySet());
+        return new NodeSet<>(() -> nodes, () -> ids);
     }
 
     /**
-     * Return a set of all Edges from a particular Node.
+     * Return a set of all Edges from a particular Node. The set is a read-only view of this
+     * Graph, and each Edge is created as the set is iterated.
      * @param n the node needs to get edges from
      * @return a set of all Edges from a particular Node,
      *         if the node doesn't exist in Graph or has no edges, return an empty set.
@@ -136,11 +448,12 @@ public class Graph<D, L> {
      */
     public Set<Edge<D,L>> listChildren(Node<D> n) {
         checkRep();
-        if(!graph.containsKey(n) || graph.get(n).isEmpty()) {
-            return new HashSet<>();
+        Integer id = ids.get(n.getData());
+        if(id == null || adjacency.get(id).size() == 0) {
+            return Collections.emptySet();
         }
         checkRep();
-        return Collections.unmodifiableSet(graph.get(n));
+        return new EdgeSet(id);
     }
 
     /**
@@ -149,7 +462,157 @@ public class Graph<D, L> {
      */
     public int size() {
         checkRep();
-        return graph.size();
+        return nodes.size();
+    }
+
+    @Override
+    public int idOf(D data) {
+        checkRep();
+        Integer id = ids.get(data);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public D dataOf(int id) {
+        checkRep();
+        checkId(id);
+        return nodes.get(id).getData();
+    }
+
+    @Override
+    public int[] childrenOf(int id) {
+        checkRep();
+        checkId(id);
+        return adjacency.get(id).children();
+    }
+
+    @Override
+    public void forEachChild(Node<D> n, EdgeConsumer<D, L> action) {
+        checkRep();
+        Integer id = ids.get(n.getData());
+        if (id != null) {
+            Adjacency<L> adj = adjacency.get(id);
+            for (int slot = 0; slot < adj.size(); slot++) {
+                Node<D> child = nodes.get(adj.childAt(slot));
+                List<L> ls = adj.labelsAt(slot);
+                for (int j = 0; j < ls.size(); j++) {
+                    action.accept(child, ls.get(j));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachChild(int id, ChildConsumer<L> action) {
+        checkRep();
+        checkId(id);
+        Adjacency<L> adj = adjacency.get(id);
+        for (int slot = 0; slot < adj.size(); slot++) {
+            action.accept(adj.childAt(slot), adj.labelsAt(slot));
+        }
+    }
+
+    @Override
+    public void forEachParent(int id, ChildConsumer<L> action) {
+        checkRep();
+        if (incoming == null) {
+            GraphView.super.forEachParent(id, action);
+            return;
+        }
+        checkId(id);
+        Adjacency<L> in = incoming.get(id);
+        for (int slot = 0; slot < in.size(); slot++) {
+            action.accept(in.childAt(slot), in.labelsAt(slot));
+        }
+    }
+
+    @Override
+    public List<L> labelsOf(int parentId, int childId) {
+        checkRep();
+        checkId(parentId);
+        checkId(childId);
+        int slot = adjacency.get(parentId).slotOf(childId);
+        if (slot < 0) {
+            return Collections.emptyList();
+        }
+        return adjacency.get(parentId).labelsAt(slot);
+    }
+
+    // Throws an IllegalArgumentException if id is not the id of a node in this graph.
+    private void checkId(int id) {
+        if (id < 0 || id >= nodes.size()) {
+            throw new IllegalArgumentException("No node has id " + id);
+        }
+    }
+
+    /**
+     * <b>EdgeSet</b> is a read-only view of the outgoing Edges of one node.
+     */
+    private class EdgeSet extends AbstractSet<Edge<D, L>> {
+        // the id of the parent node
+        private final int id;
+
+        EdgeSet(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge)) {
+                return false;
+            }
+            Edge<?, ?> e = (Edge<?, ?>) o;
+            Integer childId = ids.get(e.getChild().getData());
+            if (childId == null || !nodes.get(id).equals(e.getParent())) {
+                return false;
+            }
+            return adjacency.get(id).contains(childId, e.getLabel());
+        }
+
+        @Override
+        public Iterator<Edge<D, L>> iterator() {
+            Adjacency<L> adj = adjacency.get(id);
+            return new Iterator<Edge<D, L>>() {
+                // the position of the current child and of the next label of that child
+                private int slot = 0;
+                private int label = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return slot < adj.size();
+                }
+
+                @Override
+                public Edge<D, L> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    List<L> ls = adj.labelsAt(slot);
+                    Edge<D, L> e = new Edge<>(nodes.get(id), nodes.get(adj.childAt(slot)), ls.get(label));
+                    label++;
+                    if (label == ls.size()) {
+                        slot++;
+                        label = 0;
+                    }
+                    return e;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return adjacency.get(id).edgeCount();
+        }
+    }
+
+    /**
+     * Return an immutable, compact copy of this Graph for read-mostly use.
+     * Later changes to this Graph are not reflected in the returned copy.
+     * @return a CompactGraph with the same nodes and edges as this Graph.
+     */
+    public CompactGraph<D, L> freeze() {
+        checkRep();
+        return CompactGraph.from(this);
     }
 
     /**
@@ -165,6 +628,9 @@ public class Graph<D, L> {
         //Node's data can never be null
         private final D data;
 
+        // data.hashCode(), computed once since data never changes
+        private final int hash;
+
         private void checkRep() {
             assert (this.data != null): "Node data cannot be null";
         }
@@ -177,6 +643,7 @@ public class Graph<D, L> {
         public Node(D data) {
             this.data = data;
             checkRep();
+            this.hash = 31 * data.hashCode();
         }
 
         /**
@@ -213,7 +680,7 @@ public class Graph<D, L> {
          */
         @Override
         public int hashCode() {
-            return 31 * data.hashCode();
+            return hash;
         }
     }
 
@@ -0,0 +1,381 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <b>GraphBuilder</b> loads a large number of nodes and edges into a new {@link Graph} at once.
+ * Nodes and edges are collected into flat arrays, sized from the expected counts given up front,
+ * and the Graph is built from them in one pass by {@link #build()}, with every node's edge list
+ * already sized for the edges it will hold. This skips the per-call lookups and checks of
+ * {@link Graph#addNode} and {@link Graph#addEdge}, and the repeated growing of their tables.
+ * The built Graph is the same as one made by adding the same nodes and edges, in the same order,
+ * to an empty Graph.
+ * Edges can also be made by many threads at once, each filling its own {@link EdgeList}, which
+ * are then added with {@link #addEdges} in a fixed order, and {@link #build(ForkJoinPool)} builds
+ * the edge lists of different nodes on different threads. The result doesn't depend on the number
+ * of threads.
+ * D is the node type and L is the Edge Label type.
+ */
+public class GraphBuilder<D, L> {
+
+    // Abstract Function:
+    // A GraphBuilder represents the graph with nodes nodes.get(0) ... nodes.get(nodes.size() - 1)
+    // and, for every 0 <= i < edges.size(), an Edge from nodes.get(edges.parents[i]) to
+    // nodes.get(edges.children[i]) labeled edges.labels[i] (an edge listed twice is one Edge).
+    // built is true once the graph has been handed out by build().
+
+    // Rep Invariant:
+    // If !built: ids, nodes, edges != null, nodes contains no nulls.
+    // ids.get(nodes.get(i).getData()) == i for every i.
+    // Every parent and child id in edges is between 0 and nodes.size() - 1.
+
+    // once a task of the parallel build has fewer edges than this, it builds them itself
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    // node data -> id
+    private Map<D, Integer> ids;
+
+    // id -> node
+    private List<Graph.Node<D>> nodes;
+
+    // every edge added, in order
+    private EdgeList<L> edges;
+
+    // true once build() has been called
+    private boolean built;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (built || (ids != null && nodes != null && edges != null)) : "Tables cannot be null";
+    }
+
+    /**
+     * Constructs a new GraphBuilder with no size hints.
+     * @spec.effects Construct a new, empty GraphBuilder.
+     */
+    public GraphBuilder() {
+        this(16, 16);
+    }
+
+    /**
+     * Constructs a new GraphBuilder with room for the given numbers of nodes and edges.
+     * The hints only decide how much room is made up front; more nodes and edges can still be added.
+     * @param expectedNodes the number of nodes expected
+     * @param expectedEdges the number of edges expected, counting every call to addEdge
+     * @spec.effects Construct a new, empty GraphBuilder.
+     * @throws IllegalArgumentException if expectedNodes or expectedEdges is negative
+     */
+    public GraphBuilder(int expectedNodes, int expectedEdges) {
+        if (expectedNodes < 0 || expectedEdges < 0) {
+            throw new IllegalArgumentException("Expected sizes cannot be negative");
+        }
+        ids = new HashMap<>(Math.max(16, (int) (expectedNodes / 0.75f) + 1));
+        nodes = new ArrayList<>(expectedNodes);
+        edges = new EdgeList<>(expectedEdges);
+        checkRep();
+    }
+
+    /**
+     * Add a node storing the given data, if there isn't one already.
+     * @param data the data of the node to be added
+     * @return the id the node has in the built Graph
+     * @spec.modifies this
+     * @spec.effects add a node storing data, if there isn't one
+     * @throws IllegalArgumentException if data is null
+     * @throws IllegalStateException if build() has already been called
+     */
+    public int addNode(D data) {
+        checkNotBuilt();
+        if (data == null) {
+            throw new IllegalArgumentException("Node data cannot be null");
+        }
+        Integer id = ids.get(data);
+        if (id == null) {
+            id = nodes.size();
+            ids.put(data, id);
+            nodes.add(new Graph.Node<>(data));
+        }
+        return id;
+    }
+
+    /**
+     * Add an Edge between the nodes with the given ids. Adding an Edge that was already added
+     * has no effect.
+     * @param parentId the id of the parent node, as returned by addNode
+     * @param childId the id of the child node, as returned by addNode
+     * @param label the label of the edge
+     * @spec.modifies this
+     * @spec.effects add an Edge from parentId to childId labeled label
+     * @throws IllegalArgumentException if parentId or childId is not the id of an added node, or label is null
+     * @throws IllegalStateException if build() has already been called
+     */
+    public void addEdge(int parentId, int childId, L label) {
+        checkNotBuilt();
+        if (parentId >= nodes.size() || childId >= nodes.size()) {
+            throw new IllegalArgumentException("Parent and Child must have existed!");
+        }
+        edges.add(parentId, childId, label);
+    }
+
+    /**
+     * Add an Edge between the nodes storing the given data. Adding an Edge that was already
+     * added has no effect.
+     * @param parent the data of the parent node
+     * @param child the data of the child node
+     * @param label the label of the edge
+     * @spec.modifies this
+     * @spec.effects add an Edge from parent to child labeled label
+     * @throws IllegalArgumentException if parent or child was not added, or label is null
+     * @throws IllegalStateException if build() has already been called
+     */
+    public void addEdge(D parent, D child, L label) {
+        checkNotBuilt();
+        Integer parentId = ids.get(parent);
+        Integer childId = ids.get(child);
+        if (parentId == null || childId == null) {
+            throw new IllegalArgumentException("Parent and Child must have existed!");
+        }
+        edges.add(parentId, childId, label);
+    }
+
+    /**
+     * Add every Edge of the given list, in order, as if by addEdge.
+     * @param more the edges to be added
+     * @spec.modifies this
+     * @spec.effects add an Edge for every edge in more
+     * @throws IllegalArgumentException if more is null, or has an edge between ids of nodes that weren't added
+     * @throws IllegalStateException if build() has already been called
+     */
+    public void addEdges(EdgeList<L> more) {
+        checkNotBuilt();
+        if (more == null) {
+            throw new IllegalArgumentException("Edge list cannot be null");
+        }
+        if (more.maxId >= nodes.size()) {
+            throw new IllegalArgumentException("Parent and Child must have existed!");
+        }
+        edges.addAll(more);
+    }
+
+    /**
+     * Build the Graph holding every node and edge added. This builder can't be used afterwards.
+     * @return a new Graph with the added nodes, with the ids addNode returned, and the added edges
+     * @spec.modifies this
+     * @throws IllegalStateException if build() has already been called
+     */
+    public Graph<D, L> build() {
+        checkNotBuilt();
+        checkRep();
+        // each node gets room for all its edges; parallel edges and duplicates are trimmed off after
+        int[] capacity = new int[nodes.size()];
+        for (int i = 0; i < edges.size; i++) {
+            capacity[edges.parents[i]]++;
+        }
+        Graph<D, L> graph = new Graph<>(ids, nodes, capacity);
+        for (int i = 0; i < edges.size; i++) {
+            graph.addEdge(edges.parents[i], edges.children[i], edges.label(i));
+        }
+        for (int id = 0; id < nodes.size(); id++) {
+            graph.trim(id);
+        }
+        finish();
+        return graph;
+    }
+
+    /**
+     * Build the Graph holding every node and edge added, building the edges of different nodes
+     * on the threads of the given pool. The Graph is the same as the one build() would return.
+     * This builder can't be used afterwards.
+     * @param pool the pool to run on
+     * @return a new Graph with the added nodes, with the ids addNode returned, and the added edges
+     * @spec.modifies this
+     * @throws IllegalArgumentException if pool is null
+     * @throws IllegalStateException if build() has already been called
+     */
+    public Graph<D, L> build(ForkJoinPool pool) {
+        checkNotBuilt();
+        checkRep();
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        // the edges are grouped by parent, keeping their order, so each node's edges are added
+        // in the same order as by build() and every node is only touched by one task
+        int n = nodes.size();
+        int[] start = new int[n + 1];
+        for (int i = 0; i < edges.size; i++) {
+            start[edges.parents[i] + 1]++;
+        }
+        int[] capacity = new int[n];
+        for (int id = 0; id < n; id++) {
+            capacity[id] = start[id + 1];
+            start[id + 1] += start[id];
+        }
+        int[] byParent = new int[edges.size];
+        int[] next = Arrays.copyOf(start, n);
+        for (int i = 0; i < edges.size; i++) {
+            byParent[next[edges.parents[i]]++] = i;
+        }
+        Graph<D, L> graph = new Graph<>(ids, nodes, capacity);
+        pool.invoke(new BuildTask(graph, start, byParent, 0, n));
+        finish();
+        return graph;
+    }
+
+    // Marks this builder as used and lets go of its tables, which now belong to the built graph.
+    private void finish() {
+        built = true;
+        ids = null;
+        nodes = null;
+        edges = null;
+    }
+
+    // Throws an IllegalStateException if build() has already been called.
+    private void checkNotBuilt() {
+        if (built) {
+            throw new IllegalStateException("The graph has already been built");
+        }
+    }
+
+    /**
+     * <b>BuildTask</b> adds the edges of the nodes with ids from lo (inclusive) to hi (exclusive)
+     * to the graph, splitting into smaller tasks while it has many edges.
+     */
+    private class BuildTask extends RecursiveAction {
+        // the graph being built
+        private final Graph<D, L> graph;
+
+        // the edges from node id are edges[byParent[start[id]]] ... edges[byParent[start[id + 1] - 1]]
+        private final int[] start;
+        private final int[] byParent;
+
+        // the range of node ids this task builds
+        private final int lo;
+        private final int hi;
+
+        BuildTask(Graph<D, L> graph, int[] start, int[] byParent, int lo, int hi) {
+            this.graph = graph;
+            this.start = start;
+            this.byParent = byParent;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1 && start[hi] - start[lo] > PARALLEL_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BuildTask(graph, start, byParent, lo, mid),
+                        new BuildTask(graph, start, byParent, mid, hi));
+                return;
+            }
+            for (int id = lo; id < hi; id++) {
+                for (int k = start[id]; k < start[id + 1]; k++) {
+                    int i = byParent[k];
+                    graph.addEdge(id, edges.children[i], edges.label(i));
+                }
+                graph.trim(id);
+            }
+        }
+    }
+
+    /**
+     * <b>EdgeList</b> is a growable list of edges between node ids, with no Graph behind it.
+     * Different threads can each fill their own EdgeList at once, and the lists are then added to
+     * a GraphBuilder one after another with addEdges.
+     * L is the Edge Label type.
+     */
+    public static class EdgeList<L> {
+
+        // Abstract Function:
+        // The i-th edge, for 0 <= i < size, is from parents[i] to children[i] labeled labels[i].
+
+        // Rep Invariant:
+        // parents, children, labels != null, size <= parents.length == children.length == labels.length.
+        // For every i < size, 0 <= parents[i], children[i] <= maxId and labels[i] != null.
+
+        // the parent id, child id and label of each edge, in the order they were added
+        private int[] parents;
+        private int[] children;
+        private Object[] labels;
+
+        // the number of edges
+        private int size;
+
+        // the largest node id of any edge, -1 if there are none
+        private int maxId = -1;
+
+        /**
+         * Constructs a new, empty EdgeList with room for the given number of edges.
+         * @param expectedEdges the number of edges expected
+         * @spec.effects Construct a new, empty EdgeList.
+         * @throws IllegalArgumentException if expectedEdges is negative
+         */
+        public EdgeList(int expectedEdges) {
+            if (expectedEdges < 0) {
+                throw new IllegalArgumentException("Expected size cannot be negative");
+            }
+            parents = new int[Math.max(16, expectedEdges)];
+            children = new int[parents.length];
+            labels = new Object[parents.length];
+        }
+
+        /**
+         * Add an edge to the end of this list.
+         * @param parentId the id of the parent node
+         * @param childId the id of the child node
+         * @param label the label of the edge
+         * @spec.modifies this
+         * @spec.effects add the edge from parentId to childId labeled label at the end of this list
+         * @throws IllegalArgumentException if parentId or childId is negative, or label is null
+         */
+        public void add(int parentId, int childId, L label) {
+            if (parentId < 0 || childId < 0) {
+                throw new IllegalArgumentException("Parent and Child must have existed!");
+            }
+            if (label == null) {
+                throw new IllegalArgumentException("Edge label cannot be null");
+            }
+            ensureCapacity(size + 1);
+            parents[size] = parentId;
+            children[size] = childId;
+            labels[size] = label;
+            size++;
+            maxId = Math.max(maxId, Math.max(parentId, childId));
+        }
+
+        /**
+         * @return the number of edges in this list
+         */
+        public int size() {
+            return size;
+        }
+
+        // Adds every edge of more to the end of this list.
+        private void addAll(EdgeList<L> more) {
+            ensureCapacity(size + more.size);
+            System.arraycopy(more.parents, 0, parents, size, more.size);
+            System.arraycopy(more.children, 0, children, size, more.size);
+            System.arraycopy(more.labels, 0, labels, size, more.size);
+            size += more.size;
+            maxId = Math.max(maxId, more.maxId);
+        }
+
+        // Returns the label of the i-th edge.
+        @SuppressWarnings("unchecked")
+        private L label(int i) {
+            return (L) labels[i];
+        }
+
+        // Makes room for at least the given number of edges.
+        private void ensureCapacity(int capacity) {
+            if (capacity > parents.length) {
+                capacity = Math.max(capacity, parents.length * 2);
+                parents = Arrays.copyOf(parents, capacity);
+                children = Arrays.copyOf(children, capacity);
+                labels = Arrays.copyOf(labels, capacity);
+            }
+        }
+    }
+}
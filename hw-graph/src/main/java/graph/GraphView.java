@@ -0,0 +1,187 @@
+package graph;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <b>GraphView</b> represents the read-only operations of a directed, labeled graph.
+ * Path finding algorithms only need to read a graph, so they are written against this
+ * interface and work the same on a mutable {@link Graph} and on an immutable {@link CompactGraph}.
+ * Every node of a GraphView is also numbered with a dense int id, from 0 to size() - 1, so
+ * search algorithms can keep their per-node state in arrays instead of maps keyed by Node.
+ * D is the node type and L is the Edge Label type.
+ */
+public interface GraphView<D, L> {
+
+    /**
+     * Check if the given Node is contained in the graph.
+     * @param n Node to be checked
+     * @return true if the given node is in the Graph, false otherwise.
+     * @spec.requires n != null
+     */
+    boolean containsNode(Graph.Node<D> n);
+
+    /**
+     * Returns a set of all Nodes from this Graph.
+     * @return set of Nodes in the Graph. If there are no nodes in the graph, return an empty set.
+     */
+    Set<Graph.Node<D>> listNodes();
+
+    /**
+     * Return a set of all Edges from a particular Node.
+     * @param n the node needs to get edges from
+     * @return a set of all Edges from a particular Node,
+     *         if the node doesn't exist in Graph or has no edges, return an empty set.
+     * @spec.requires n != null
+     */
+    Set<Graph.Edge<D, L>> listChildren(Graph.Node<D> n);
+
+    /**
+     * Return the number of Nodes in this Graph
+     * @return the number of Nodes in the Graph
+     */
+    int size();
+
+    /**
+     * Return the id of the node storing the given data.
+     * @param data the data of the node to look up
+     * @return the id of the node, between 0 and size() - 1, or -1 if no node stores data.
+     * @spec.requires data != null
+     */
+    int idOf(D data);
+
+    /**
+     * Return the data stored in the node with the given id.
+     * @param id the id of the node
+     * @return the data of the node with the given id
+     * @throws IllegalArgumentException if id is not between 0 and size() - 1
+     */
+    D dataOf(int id);
+
+    /**
+     * Return the ids of the children of the node with the given id. A child appears once
+     * however many Edges point to it.
+     * @param id the id of the parent node
+     * @return a new array of the ids of the node's distinct children, empty if the node has no edges
+     * @throws IllegalArgumentException if id is not between 0 and size() - 1
+     */
+    int[] childrenOf(int id);
+
+    /**
+     * Return the labels of every Edge from one node to another.
+     * @param parentId the id of the parent node
+     * @param childId the id of the child node
+     * @return a read-only list of the labels of the Edges from parentId to childId,
+     *         empty if there are none
+     * @throws IllegalArgumentException if parentId or childId is not between 0 and size() - 1
+     */
+    List<L> labelsOf(int parentId, int childId);
+
+    /**
+     * Call the given action once for every Edge from the given Node, with the Edge's child and label,
+     * without creating a set or an Edge. Children are visited in the order given by childOrder(),
+     * if it isn't null.
+     * @param n the node to visit the edges of
+     * @param action called with the child and the label of every Edge from n
+     * @spec.requires n != null, action != null, and action doesn't change this graph
+     */
+    default void forEachChild(Graph.Node<D> n, EdgeConsumer<D, L> action) {
+        int id = idOf(n.getData());
+        if (id >= 0) {
+            forEachChild(id, (childId, labels) -> {
+                Graph.Node<D> child = new Graph.Node<>(dataOf(childId));
+                for (L label : labels) {
+                    action.accept(child, label);
+                }
+            });
+        }
+    }
+
+    /**
+     * Call the given action once for every distinct child of the node with the given id, with
+     * the child's id and the labels of every Edge to it, without creating a set, an Edge or an array.
+     * Children are visited in the order given by childOrder(), if it isn't null.
+     * The list of labels is read-only, and may only be used until the action returns.
+     * @param id the id of the node to visit the children of
+     * @param action called with the id and the labels of every child of the node
+     * @throws IllegalArgumentException if id is not between 0 and size() - 1
+     * @spec.requires action != null, and action doesn't change this graph
+     */
+    default void forEachChild(int id, ChildConsumer<L> action) {
+        for (int child : childrenOf(id)) {
+            action.accept(child, labelsOf(id, child));
+        }
+    }
+
+    /**
+     * Call the given action once for every distinct parent of the node with the given id, that is
+     * every node with an Edge to it, with the parent's id and the labels of every Edge from it.
+     * Parents are visited in no particular order. The list of labels is read-only, and may only be
+     * used until the action returns. This default looks for edges to the node from every node in
+     * the graph; a graph that keeps an index of incoming edges takes time proportional to the
+     * number of parents instead.
+     * @param id the id of the node to visit the parents of
+     * @param action called with the id and the labels of every parent of the node
+     * @throws IllegalArgumentException if id is not between 0 and size() - 1
+     * @spec.requires action != null, and action doesn't change this graph
+     */
+    default void forEachParent(int id, ChildConsumer<L> action) {
+        dataOf(id);
+        for (int parent = 0; parent < size(); parent++) {
+            List<L> labels = labelsOf(parent, id);
+            if (!labels.isEmpty()) {
+                action.accept(parent, labels);
+            }
+        }
+    }
+
+    /**
+     * Return whether there may be a path from one node to another. A graph that keeps an index of
+     * its connected components answers false for nodes in different components, so a search can
+     * give up before it starts; this default can't tell, and always answers true.
+     * @param fromId the id of the node the path would start at
+     * @param toId the id of the node the path would end at
+     * @return false only if there is no path from fromId to toId
+     * @throws IllegalArgumentException if fromId or toId is not between 0 and size() - 1
+     */
+    default boolean mayReach(int fromId, int toId) {
+        dataOf(fromId);
+        dataOf(toId);
+        return true;
+    }
+
+    /**
+     * Return the order the children of every node are listed in by childrenOf and forEachChild.
+     * @return the order of the children's data, or null if children are in no particular order
+     */
+    default Comparator<? super D> childOrder() {
+        return null;
+    }
+
+    /**
+     * <b>EdgeConsumer</b> is an action taken on each Edge from one node, given its child and label.
+     * D is the node type and L is the Edge Label type.
+     */
+    @FunctionalInterface
+    interface EdgeConsumer<D, L> {
+        /**
+         * @param child the child of the Edge
+         * @param label the label of the Edge
+         */
+        void accept(Graph.Node<D> child, L label);
+    }
+
+    /**
+     * <b>ChildConsumer</b> is an action taken on each distinct child of one node, given the child's
+     * id and the labels of every Edge to it. L is the Edge Label type.
+     */
+    @FunctionalInterface
+    interface ChildConsumer<L> {
+        /**
+         * @param childId the id of the child
+         * @param labels a read-only list of the labels of every Edge to the child, never empty
+         */
+        void accept(int childId, List<L> labels);
+    }
+}
@@ -0,0 +1,503 @@
+package graph;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <b>MappedGraph</b> represents an immutable, directed, labeled graph read straight out of a
+ * binary graph file that is memory-mapped, instead of out of objects on the heap.
+ * A graph is saved once with {@link #write}, in the same compressed sparse row form as
+ * {@link CompactGraph} plus a pool of node names, a pool of label names, and a hash table from node
+ * name to id, and {@link #map} then makes it queryable in about the time it takes to map the file:
+ * nothing is parsed or built, and a node's data or an edge's label is only decoded when asked for.
+ * Nodes and labels are saved as strings, turned to and from their types by a {@link Codec}.
+ * Node ids are the same as in the saved graph.
+ * D is the node type and L is the Edge Label type.
+ */
+public final class MappedGraph<D, L> implements GraphView<D, L> {
+
+    // Abstract Function:
+    // MappedGraph represents the graph with nodes nodeCodec.decode(node(0)) ... nodeCodec.decode(node(n - 1)),
+    // where node(i) is the UTF-8 string at bytes nodeStart[i] to nodeStart[i + 1] of the node pool.
+    // The children of node i are targets[k] for offsets[i] <= k < offsets[i + 1], and for every such k and
+    // every labelOffsets[k] <= j < labelOffsets[k + 1] there is an Edge from node i to node targets[k]
+    // labeled labelCodec.decode(label(labelIds[j])), where label(x) is a string of the label pool.
+    // Each array named here is a section of buffer, laid out as described at write().
+
+    // Rep Invariant:
+    // buffer, nodeCodec, labelCodec, labelCache != null, and buffer holds a graph file as written by write(),
+    // so its sections satisfy the rep invariant of CompactGraph.
+    // Every non-null labelCache.get(x) is the decoded label(x).
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // the first int of every graph file, "GRPH", and the version of the layout
+    private static final int MAGIC = 0x47525048;
+    private static final int VERSION = 1;
+
+    // the number of ints in the header
+    private static final int HEADER_INTS = 9;
+
+    // the mapped file
+    private final ByteBuffer buffer;
+
+    // the number of nodes, of distinct (parent, child) pairs, of edges and of distinct labels
+    private final int n;
+    private final int m;
+    private final int e;
+    private final int l;
+
+    // the number of positions in the name -> id hash table, a power of two
+    private final int tableSize;
+
+    // the byte position of each section of the file
+    private final int offsetsAt;
+    private final int targetsAt;
+    private final int labelOffsetsAt;
+    private final int labelIdsAt;
+    private final int tableAt;
+    private final int nodeStartAt;
+    private final int labelStartAt;
+    private final int nodePoolAt;
+    private final int labelPoolAt;
+
+    // turn node data and labels to and from the strings saved in the file
+    private final Codec<D> nodeCodec;
+    private final Codec<L> labelCodec;
+
+    // label id -> decoded label, filled in as labels are first read
+    private final AtomicReferenceArray<L> labelCache;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (buffer != null && nodeCodec != null && labelCodec != null) : "Fields cannot be null";
+        assert (labelPoolAt <= buffer.limit()) : "File is shorter than its sections";
+        if (DEBUG) {
+            for (int i = 0; i < n; i++) {
+                assert (offset(i) <= offset(i + 1)) : "Offsets must be non-decreasing";
+                for (int k = offset(i); k < offset(i + 1); k++) {
+                    assert (target(k) >= 0 && target(k) < n) : "Edge child must exist";
+                }
+                assert (idOf(dataOf(i)) == i) : "Node name table is inconsistent";
+            }
+        }
+    }
+
+    private MappedGraph(ByteBuffer buffer, Codec<D> nodeCodec, Codec<L> labelCodec) {
+        this.buffer = buffer;
+        this.nodeCodec = nodeCodec;
+        this.labelCodec = labelCodec;
+        if (buffer.limit() < HEADER_INTS * 4 || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a graph file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unknown graph file version " + buffer.getInt(4));
+        }
+        n = buffer.getInt(8);
+        m = buffer.getInt(12);
+        e = buffer.getInt(16);
+        l = buffer.getInt(20);
+        tableSize = buffer.getInt(24);
+        int nodeBytes = buffer.getInt(28);
+        int labelBytes = buffer.getInt(32);
+        if (n < 0 || m < 0 || e < 0 || l < 0 || nodeBytes < 0 || labelBytes < 0
+                || tableSize <= 0 || Integer.bitCount(tableSize) != 1) {
+            throw new IllegalArgumentException("Not a graph file: bad header");
+        }
+        // the sections are summed as longs, so a header with huge counts can't wrap around to a small end
+        long offsetsEnd = HEADER_INTS * 4L;
+        long targetsEnd = offsetsEnd + (n + 1L) * 4;
+        long labelOffsetsEnd = targetsEnd + m * 4L;
+        long labelIdsEnd = labelOffsetsEnd + (m + 1L) * 4;
+        long tableEnd = labelIdsEnd + e * 4L;
+        long nodeStartEnd = tableEnd + tableSize * 4L;
+        long labelStartEnd = nodeStartEnd + (n + 1L) * 4;
+        long nodePoolEnd = labelStartEnd + (l + 1L) * 4;
+        long labelPoolEnd = nodePoolEnd + nodeBytes;
+        if (labelPoolEnd + labelBytes != buffer.limit()) {
+            throw new IllegalArgumentException("Not a graph file: " + buffer.limit() + " bytes, header says "
+                    + (labelPoolEnd + labelBytes));
+        }
+        offsetsAt = (int) offsetsEnd;
+        targetsAt = (int) targetsEnd;
+        labelOffsetsAt = (int) labelOffsetsEnd;
+        labelIdsAt = (int) labelIdsEnd;
+        tableAt = (int) tableEnd;
+        nodeStartAt = (int) nodeStartEnd;
+        labelStartAt = (int) labelStartEnd;
+        nodePoolAt = (int) nodePoolEnd;
+        labelPoolAt = (int) labelPoolEnd;
+        labelCache = new AtomicReferenceArray<>(l);
+        checkRep();
+    }
+
+    /**
+     * Save the given graph to a file that map() can read, replacing the file if it exists.
+     * @param graph the graph to be saved
+     * @param file the file to save it to
+     * @param nodeCodec turns the data of each node into the string saved for it
+     * @param labelCodec turns each label into the string saved for it
+     * @param <D> the node type
+     * @param <L> the Edge Label type
+     * @throws IllegalArgumentException if any argument is null, or the graph is too big for one file
+     * @throws IOException if the file can't be written
+     */
+    public static <D, L> void write(GraphView<D, L> graph, Path file, Codec<D> nodeCodec, Codec<L> labelCodec)
+            throws IOException {
+        if (graph == null || file == null || nodeCodec == null || labelCodec == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        CompactGraph<D, L> compact = graph instanceof CompactGraph ? (CompactGraph<D, L>) graph : CompactGraph.from(graph);
+        List<Graph.Node<D>> nodes = compact.nodes();
+        int[] targets = compact.targets();
+        int[] labelIds = compact.labelIds();
+        List<L> labels = compact.labels();
+
+        byte[][] nodeNames = new byte[nodes.size()][];
+        int[] tableEntries = new int[Math.max(2, Integer.highestOneBit(Math.max(1, nodes.size())) * 4)];
+        for (int i = 0; i < nodes.size(); i++) {
+            String name = nodeCodec.encode(nodes.get(i).getData());
+            nodeNames[i] = name.getBytes(StandardCharsets.UTF_8);
+            int mask = tableEntries.length - 1;
+            int h = mix(name.hashCode()) & mask;
+            while (tableEntries[h] != 0) {
+                h = (h + 1) & mask;
+            }
+            tableEntries[h] = i + 1;
+        }
+        byte[][] labelNames = new byte[labels.size()][];
+        for (int x = 0; x < labels.size(); x++) {
+            labelNames[x] = labelCodec.encode(labels.get(x)).getBytes(StandardCharsets.UTF_8);
+        }
+        long nodeBytes = totalLength(nodeNames);
+        long labelBytes = totalLength(labelNames);
+        long fileSize = 4L * (HEADER_INTS + (nodes.size() + 1) * 2L + targets.length * 2L + 1 + labelIds.length
+                + tableEntries.length + labels.size() + 1) + nodeBytes + labelBytes;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph is too big for one graph file");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nodes.size());
+            out.writeInt(targets.length);
+            out.writeInt(labelIds.length);
+            out.writeInt(labels.size());
+            out.writeInt(tableEntries.length);
+            out.writeInt((int) nodeBytes);
+            out.writeInt((int) labelBytes);
+            writeInts(out, compact.offsets());
+            writeInts(out, targets);
+            writeInts(out, compact.labelOffsets());
+            writeInts(out, labelIds);
+            writeInts(out, tableEntries);
+            writeStarts(out, nodeNames);
+            writeStarts(out, labelNames);
+            for (byte[] name : nodeNames) {
+                out.write(name);
+            }
+            for (byte[] name : labelNames) {
+                out.write(name);
+            }
+        }
+    }
+
+    /**
+     * Map a file saved by write() into memory, and return the graph it holds.
+     * The file must not be changed while the graph is in use.
+     * @param file the file to be read
+     * @param nodeCodec turns the saved strings back into node data, and node data into strings for idOf
+     * @param labelCodec turns the saved strings back into labels
+     * @param <D> the node type
+     * @param <L> the Edge Label type
+     * @return the graph saved in file, with the same node ids
+     * @throws IllegalArgumentException if any argument is null, or file isn't a graph file
+     * @throws IOException if the file can't be read
+     */
+    public static <D, L> MappedGraph<D, L> map(Path file, Codec<D> nodeCodec, Codec<L> labelCodec) throws IOException {
+        if (file == null || nodeCodec == null || labelCodec == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Not a graph file");
+            }
+            // the mapping stays valid after the channel is closed
+            return new MappedGraph<>(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                    nodeCodec, labelCodec);
+        }
+    }
+
+    @Override
+    public boolean containsNode(Graph.Node<D> node) {
+        return node != null && idOf(node.getData()) >= 0;
+    }
+
+    /**
+     * Returns a set of all Nodes from this Graph. Every node's data is decoded.
+     * @return set of Nodes in the Graph. If there are no nodes in the graph, return an empty set.
+     */
+    @Override
+    public Set<Graph.Node<D>> listNodes() {
+        Set<Graph.Node<D>> result = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            result.add(new Graph.Node<>(dataOf(i)));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public Set<Graph.Edge<D, L>> listChildren(Graph.Node<D> node) {
+        int id = idOf(node.getData());
+        if (id < 0 || offset(id) == offset(id + 1)) {
+            return Collections.emptySet();
+        }
+        Set<Graph.Edge<D, L>> result = new HashSet<>();
+        for (int k = offset(id); k < offset(id + 1); k++) {
+            Graph.Node<D> child = new Graph.Node<>(dataOf(target(k)));
+            for (int j = labelOffset(k); j < labelOffset(k + 1); j++) {
+                result.add(new Graph.Edge<>(node, child, label(buffer.getInt(labelIdsAt + j * 4))));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int idOf(D data) {
+        String name = nodeCodec.encode(data);
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int mask = tableSize - 1;
+        for (int h = mix(name.hashCode()) & mask; ; h = (h + 1) & mask) {
+            int entry = buffer.getInt(tableAt + h * 4);
+            if (entry == 0) {
+                return -1;
+            }
+            if (nameEquals(entry - 1, bytes)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    @Override
+    public D dataOf(int id) {
+        checkId(id);
+        return nodeCodec.decode(string(nodePoolAt, nodeStartAt, id));
+    }
+
+    @Override
+    public int[] childrenOf(int id) {
+        checkId(id);
+        int[] result = new int[offset(id + 1) - offset(id)];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = target(offset(id) + k);
+        }
+        return result;
+    }
+
+    @Override
+    public List<L> labelsOf(int parentId, int childId) {
+        checkId(parentId);
+        checkId(childId);
+        int k = find(parentId, childId);
+        if (k < 0) {
+            return Collections.emptyList();
+        }
+        List<L> result = new ArrayList<>(labelOffset(k + 1) - labelOffset(k));
+        for (int j = labelOffset(k); j < labelOffset(k + 1); j++) {
+            result.add(label(buffer.getInt(labelIdsAt + j * 4)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public void forEachChild(int id, ChildConsumer<L> action) {
+        checkId(id);
+        // one view is moved along the row instead of creating a list per child
+        LabelRange range = new LabelRange();
+        for (int k = offset(id); k < offset(id + 1); k++) {
+            range.from = labelOffset(k);
+            range.to = labelOffset(k + 1);
+            action.accept(target(k), range);
+        }
+    }
+
+    /**
+     * Return the number of Edges in this Graph
+     * @return the number of Edges in the Graph
+     */
+    public int edgeCount() {
+        return e;
+    }
+
+    // Throws an IllegalArgumentException if id is not the id of a node in this graph.
+    private void checkId(int id) {
+        if (id < 0 || id >= n) {
+            throw new IllegalArgumentException("No node has id " + id);
+        }
+    }
+
+    // Returns the position of childId in the row of parentId, or -1 if it isn't there.
+    private int find(int parentId, int childId) {
+        int lo = offset(parentId);
+        int hi = offset(parentId + 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int t = target(mid);
+            if (t < childId) {
+                lo = mid + 1;
+            } else if (t > childId) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int offset(int i) {
+        return buffer.getInt(offsetsAt + i * 4);
+    }
+
+    private int target(int k) {
+        return buffer.getInt(targetsAt + k * 4);
+    }
+
+    private int labelOffset(int k) {
+        return buffer.getInt(labelOffsetsAt + k * 4);
+    }
+
+    // Returns the label with the given label id, decoding it the first time it is asked for.
+    private L label(int labelId) {
+        L label = labelCache.get(labelId);
+        if (label == null) {
+            label = labelCodec.decode(string(labelPoolAt, labelStartAt, labelId));
+            labelCache.set(labelId, label);
+        }
+        return label;
+    }
+
+    // Returns the i-th string of the pool at poolAt, whose start positions are at startsAt.
+    private String string(int poolAt, int startsAt, int i) {
+        int from = buffer.getInt(startsAt + i * 4);
+        byte[] bytes = new byte[buffer.getInt(startsAt + (i + 1) * 4) - from];
+        for (int b = 0; b < bytes.length; b++) {
+            bytes[b] = buffer.get(poolAt + from + b);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Returns true if the name of node id is the given bytes.
+    private boolean nameEquals(int id, byte[] bytes) {
+        int from = buffer.getInt(nodeStartAt + id * 4);
+        if (buffer.getInt(nodeStartAt + (id + 1) * 4) - from != bytes.length) {
+            return false;
+        }
+        for (int b = 0; b < bytes.length; b++) {
+            if (buffer.get(nodePoolAt + from + b) != bytes[b]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Spreads the bits of a hash code so similar names don't probe neighbouring positions.
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Writes every int of the array.
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int v : values) {
+            out.writeInt(v);
+        }
+    }
+
+    // Writes the start position of every string in a pool of the given strings, then the end of the pool.
+    private static void writeStarts(DataOutputStream out, byte[][] names) throws IOException {
+        int start = 0;
+        for (byte[] name : names) {
+            out.writeInt(start);
+            start += name.length;
+        }
+        out.writeInt(start);
+    }
+
+    // Returns the total length of the given strings.
+    private static long totalLength(byte[][] names) {
+        long total = 0;
+        for (byte[] name : names) {
+            total += name.length;
+        }
+        return total;
+    }
+
+    /**
+     * <b>LabelRange</b> is a read-only view of the labels of the edges at positions from (inclusive)
+     * to to (exclusive) of the label id section.
+     */
+    private class LabelRange extends AbstractList<L> {
+        // the positions in the label id section this view covers
+        private int from;
+        private int to;
+
+        @Override
+        public L get(int index) {
+            Objects.checkIndex(index, to - from);
+            return label(buffer.getInt(labelIdsAt + (from + index) * 4));
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * <b>Codec</b> turns values of one type into strings to be saved in a graph file, and back.
+     * decode(encode(x)) must equal x, and equal values must have equal strings.
+     * T is the type of the values.
+     */
+    public interface Codec<T> {
+        /**
+         * The Codec of strings, which saves every string as it is.
+         */
+        Codec<String> STRING = new Codec<>() {
+            @Override
+            public String encode(String value) {
+                return value;
+            }
+
+            @Override
+            public String decode(String saved) {
+                return saved;
+            }
+        };
+
+        /**
+         * @param value the value to be saved
+         * @return the string saved for value
+         */
+        String encode(T value);
+
+        /**
+         * @param saved a string returned by encode
+         * @return the value saved as the given string
+         */
+        T decode(String saved);
+    }
+}
@@ -0,0 +1,54 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * <b>NodeSet</b> is a read-only Set view of the nodes of a graph that numbers its nodes
+ * with dense int ids. The view reads the graph's id tables each time it is used, so building it
+ * does not copy any nodes, and it keeps up with a graph that replaces its tables when they change.
+ * D is the node type.
+ */
+class NodeSet<D> extends AbstractSet<Graph.Node<D>> {
+
+    // Abstract Function:
+    // NodeSet represents the set of nodes {nodes.get().get(0), ..., nodes.get().get(nodes.get().size() - 1)}.
+
+    // Rep Invariant:
+    // nodes != null, ids != null, and ids.get().get(nodes.get().get(i).getData()) == i for every valid i.
+
+    // the owning graph's current id -> node table
+    private final Supplier<List<Graph.Node<D>>> nodes;
+
+    // the owning graph's current node data -> id table
+    private final Supplier<Map<D, Integer>> ids;
+
+    /**
+     * Construct a view of the id tables the given suppliers return.
+     * @param nodes returns the nodes of the graph, indexed by id
+     * @param ids returns the id of every node's data
+     * @spec.requires nodes != null, ids != null
+     */
+    NodeSet(Supplier<List<Graph.Node<D>>> nodes, Supplier<Map<D, Integer>> ids) {
+        this.nodes = nodes;
+        this.ids = ids;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Graph.Node)) {
+            return false;
+        }
+        return ids.get().containsKey(((Graph.Node<?>) o).getData());
+    }
+
+    @Override
+    public Iterator<Graph.Node<D>> iterator() {
+        return Collections.unmodifiableList(nodes.get()).iterator();
+    }
+
+    @Override
+    public int size() {
+        return nodes.get().size();
+    }
+}
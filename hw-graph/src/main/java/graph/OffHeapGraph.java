@@ -0,0 +1,290 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.*;
+
+/**
+ * <b>OffHeapGraph</b> represents an immutable, directed, labeled graph whose edges are stored
+ * outside the Java heap. It has the same compressed sparse row layout as {@link CompactGraph},
+ * but the offset, child and label id arrays live in direct buffers, so the garbage collector never
+ * scans or copies them, and a graph with hundreds of millions of edges needs no more heap than its
+ * nodes and distinct labels take. Reads cost about the same as on a CompactGraph.
+ * D is the node type and L is the Edge Label type.
+ */
+public final class OffHeapGraph<D, L> implements GraphView<D, L> {
+
+    // Abstract Function:
+    // OffHeapGraph represents the graph whose nodes are nodes.get(0) ... nodes.get(size() - 1).
+    // The children of the node with id i are targets.get(k) for every offsets.get(i) <= k < offsets.get(i + 1),
+    // and for every such k and every labelOffsets.get(k) <= j < labelOffsets.get(k + 1) there is an
+    // Edge from nodes.get(i) to nodes.get(targets.get(k)) with label labels.get(labelIds.get(j)).
+
+    // Rep Invariant:
+    // nodes, ids, offsets, targets, labelOffsets, labelIds, labels != null and contain no nulls.
+    // ids.get(nodes.get(i).getData()) == i for every id i.
+    // offsets.limit() == nodes.size() + 1, offsets.get(0) == 0, offsets is non-decreasing,
+    // offsets.get(nodes.size()) == targets.limit().
+    // targets is strictly increasing within each row, and 0 <= targets.get(k) < nodes.size().
+    // labelOffsets.limit() == targets.limit() + 1, labelOffsets.get(0) == 0, labelOffsets is strictly
+    // increasing, labelOffsets.get(targets.limit()) == labelIds.limit().
+    // 0 <= labelIds.get(j) < labels.size() for every j, and labels contains no duplicates.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // id -> node
+    private final List<Graph.Node<D>> nodes;
+
+    // node data -> id
+    private final Map<D, Integer> ids;
+
+    // the children of node i are at positions offsets.get(i) (inclusive) to offsets.get(i + 1) (exclusive)
+    private final IntBuffer offsets;
+
+    // the id of every distinct child, sorted within each row
+    private final IntBuffer targets;
+
+    // the labels of the edges to targets.get(k) are at positions labelOffsets.get(k) to labelOffsets.get(k + 1)
+    private final IntBuffer labelOffsets;
+
+    // the label id of every edge
+    private final IntBuffer labelIds;
+
+    // label id -> label, every distinct label is stored once
+    private final List<L> labels;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (offsets.limit() == nodes.size() + 1) : "One offset per node plus the end offset";
+        assert (labelOffsets.limit() == targets.limit() + 1) : "One label offset per child plus the end offset";
+        if (DEBUG) {
+            for (int i = 0; i < nodes.size(); i++) {
+                assert (ids.get(nodes.get(i).getData()) == i) : "Node id table is inconsistent";
+                for (int k = offsets.get(i); k < offsets.get(i + 1); k++) {
+                    assert (targets.get(k) >= 0 && targets.get(k) < nodes.size()) : "Edge child must exist";
+                    assert (k == offsets.get(i) || targets.get(k - 1) < targets.get(k)) : "Children must be sorted";
+                    assert (labelOffsets.get(k) < labelOffsets.get(k + 1)) : "Every child has a label";
+                }
+            }
+        }
+    }
+
+    private OffHeapGraph(List<Graph.Node<D>> nodes, Map<D, Integer> ids, IntBuffer offsets, IntBuffer targets,
+                         IntBuffer labelOffsets, IntBuffer labelIds, List<L> labels) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.labelOffsets = labelOffsets;
+        this.labelIds = labelIds;
+        this.labels = labels;
+        checkRep();
+    }
+
+    /**
+     * Build an OffHeapGraph with the same nodes, node ids and edges as the given graph.
+     * The edges are read twice, once to size the buffers and once to fill them, and are never
+     * all copied onto the heap. Later changes to the given graph are not reflected in the result.
+     * @param g the graph to be copied
+     * @param <D> the node type
+     * @param <L> the Edge Label type
+     * @return an immutable off-heap copy of g
+     * @throws IllegalArgumentException if g is null, or has more than about 500 million edges
+     */
+    public static <D, L> OffHeapGraph<D, L> from(GraphView<D, L> g) {
+        if (g == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        int n = g.size();
+        List<Graph.Node<D>> nodes = new ArrayList<>(Collections.nCopies(n, null));
+        Map<D, Integer> ids = new HashMap<>();
+        for (Graph.Node<D> node : g.listNodes()) {
+            int id = g.idOf(node.getData());
+            ids.put(node.getData(), id);
+            nodes.set(id, node);
+        }
+
+        // first pass: the size of every row and the number of edges
+        IntBuffer offsets = allocate(n + 1L);
+        long edges = 0;
+        for (int i = 0; i < n; i++) {
+            int[] row = g.childrenOf(i);
+            offsets.put(i + 1, offsets.get(i) + row.length);
+            for (int child : row) {
+                edges += g.labelsOf(i, child).size();
+            }
+        }
+
+        // second pass: the children, sorted, and their labels
+        IntBuffer targets = allocate(offsets.get(n));
+        IntBuffer labelOffsets = allocate(offsets.get(n) + 1L);
+        IntBuffer labelIds = allocate(edges);
+        List<L> labels = new ArrayList<>();
+        Map<L, Integer> labelTable = new HashMap<>();
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            int[] row = g.childrenOf(i);
+            Arrays.sort(row);
+            int k = offsets.get(i);
+            for (int child : row) {
+                for (L label : g.labelsOf(i, child)) {
+                    Integer labelId = labelTable.get(label);
+                    if (labelId == null) {
+                        labelId = labels.size();
+                        labelTable.put(label, labelId);
+                        labels.add(label);
+                    }
+                    labelIds.put(j++, labelId);
+                }
+                targets.put(k, child);
+                labelOffsets.put(k + 1, j);
+                k++;
+            }
+        }
+        return new OffHeapGraph<>(nodes, ids, offsets, targets, labelOffsets, labelIds, labels);
+    }
+
+    // Returns a zeroed int buffer of the given length outside the heap.
+    private static IntBuffer allocate(long length) {
+        if (length * 4 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph is too big for one buffer");
+        }
+        return ByteBuffer.allocateDirect((int) length * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    @Override
+    public boolean containsNode(Graph.Node<D> n) {
+        return n != null && ids.containsKey(n.getData());
+    }
+
+    @Override
+    public Set<Graph.Node<D>> listNodes() {
+        return new NodeSet<>(() -> nodes, () -> ids);
+    }
+
+    @Override
+    public Set<Graph.Edge<D, L>> listChildren(Graph.Node<D> n) {
+        Integer id = ids.get(n.getData());
+        if (id == null || offsets.get(id) == offsets.get(id + 1)) {
+            return Collections.emptySet();
+        }
+        Set<Graph.Edge<D, L>> result = new HashSet<>();
+        for (int k = offsets.get(id); k < offsets.get(id + 1); k++) {
+            Graph.Node<D> child = nodes.get(targets.get(k));
+            for (int j = labelOffsets.get(k); j < labelOffsets.get(k + 1); j++) {
+                result.add(new Graph.Edge<>(nodes.get(id), child, labels.get(labelIds.get(j))));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public int idOf(D data) {
+        Integer id = ids.get(data);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public D dataOf(int id) {
+        checkId(id);
+        return nodes.get(id).getData();
+    }
+
+    @Override
+    public int[] childrenOf(int id) {
+        checkId(id);
+        int[] result = new int[offsets.get(id + 1) - offsets.get(id)];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = targets.get(offsets.get(id) + k);
+        }
+        return result;
+    }
+
+    @Override
+    public List<L> labelsOf(int parentId, int childId) {
+        checkId(parentId);
+        checkId(childId);
+        int k = find(parentId, childId);
+        if (k < 0) {
+            return Collections.emptyList();
+        }
+        List<L> result = new ArrayList<>(labelOffsets.get(k + 1) - labelOffsets.get(k));
+        for (int j = labelOffsets.get(k); j < labelOffsets.get(k + 1); j++) {
+            result.add(labels.get(labelIds.get(j)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public void forEachChild(int id, ChildConsumer<L> action) {
+        checkId(id);
+        // one view is moved along the row instead of creating a list per child
+        LabelRange range = new LabelRange();
+        for (int k = offsets.get(id); k < offsets.get(id + 1); k++) {
+            range.from = labelOffsets.get(k);
+            range.to = labelOffsets.get(k + 1);
+            action.accept(targets.get(k), range);
+        }
+    }
+
+    /**
+     * Return the number of Edges in this Graph
+     * @return the number of Edges in the Graph
+     */
+    public int edgeCount() {
+        return labelIds.limit();
+    }
+
+    // Throws an IllegalArgumentException if id is not the id of a node in this graph.
+    private void checkId(int id) {
+        if (id < 0 || id >= nodes.size()) {
+            throw new IllegalArgumentException("No node has id " + id);
+        }
+    }
+
+    // Returns the position of childId in the row of parentId, or -1 if it isn't there.
+    private int find(int parentId, int childId) {
+        int lo = offsets.get(parentId);
+        int hi = offsets.get(parentId + 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int t = targets.get(mid);
+            if (t < childId) {
+                lo = mid + 1;
+            } else if (t > childId) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * <b>LabelRange</b> is a read-only view of the labels of the edges at positions from (inclusive)
+     * to to (exclusive) of labelIds.
+     */
+    private class LabelRange extends AbstractList<L> {
+        // the positions in labelIds this view covers
+        private int from;
+        private int to;
+
+        @Override
+        public L get(int index) {
+            Objects.checkIndex(index, to - from);
+            return labels.get(labelIds.get(from + index));
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package graph.benchmarks;
+
+import graph.ConcurrentGraph;
+import graph.Graph;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rough throughput measurements of the graph implementations on synthetic graphs.
+ * These are not JUnit tests; run them with "gradle :hw-graph:runBenchmarks".
+ */
+public class GraphBenchmarks {
+    //This class is not an ADT
+
+    // the size of the synthetic graph every benchmark starts from
+    private static final int NODES = 10_000;
+    private static final int EDGES = 100_000;
+
+    // how long each measurement runs
+    private static final long MILLIS = 1000;
+
+    /**
+     * Runs every benchmark and prints the results.
+     * @param args an array of command-line arguments for the application
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        System.out.println("threads: " + threads);
+
+        mixedLoad(threads);
+    }
+
+    /**
+     * Compares read throughput of ConcurrentGraph and a synchronized Graph while some of the
+     * operations are edge writes.
+     * @param threads the number of threads sharing the graph
+     */
+    private static void mixedLoad(int threads) throws InterruptedException {
+        for (int writePercent : new int[] {1, 10}) {
+            ConcurrentGraph<Integer, String> concurrent = new ConcurrentGraph<>();
+            SynchronizedGraph locked = new SynchronizedGraph();
+            for (int i = 0; i < NODES; i++) {
+                concurrent.addNode(new Graph.Node<>(i));
+                locked.addNode(new Graph.Node<>(i));
+            }
+            Random random = new Random(331);
+            for (int i = 0; i < EDGES; i++) {
+                Graph.Node<Integer> parent = new Graph.Node<>(random.nextInt(NODES));
+                Graph.Node<Integer> child = new Graph.Node<>(random.nextInt(NODES));
+                concurrent.addEdge(parent, child, "e");
+                locked.addEdge(parent, child, "e");
+            }
+
+            double c = run(threads, writePercent, id -> concurrent.childrenOf(id).length,
+                    (p, ch) -> concurrent.addEdge(new Graph.Node<>(p), new Graph.Node<>(ch), "w"));
+            double s = run(threads, writePercent, locked::degree,
+                    (p, ch) -> locked.addEdge(new Graph.Node<>(p), new Graph.Node<>(ch), "w"));
+            System.out.printf("%2d%% writes: ConcurrentGraph %.2f M reads/s, synchronized Graph %.2f M reads/s%n",
+                    writePercent, c, s);
+        }
+    }
+
+    /**
+     * Runs a mix of reads and writes on many threads for MILLIS milliseconds.
+     * @param threads the number of threads
+     * @param writePercent the percent of operations that are writes
+     * @param read reads the children of the node with the given id
+     * @param write adds an edge between the nodes with the given ids
+     * @return the number of reads completed, in millions per second
+     */
+    private static double run(int threads, int writePercent, Reader read, Writer write) throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder reads = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                while (!stop.get()) {
+                    if (random.nextInt(100) < writePercent) {
+                        write.add(random.nextInt(NODES), random.nextInt(NODES));
+                    } else {
+                        read.degree(random.nextInt(NODES));
+                        done++;
+                    }
+                }
+                reads.add(done);
+            }));
+        }
+        for (Thread t : workers) {
+            t.start();
+        }
+        Thread.sleep(MILLIS);
+        stop.set(true);
+        for (Thread t : workers) {
+            t.join();
+        }
+        return reads.sum() / 1e3 / MILLIS;
+    }
+
+    /**
+     * A read operation of the mixed load.
+     */
+    private interface Reader {
+        int degree(int id);
+    }
+
+    /**
+     * A write operation of the mixed load.
+     */
+    private interface Writer {
+        void add(int parent, int child);
+    }
+
+    /**
+     * A Graph made thread safe the simple way, with every method holding one lock.
+     */
+    private static class SynchronizedGraph {
+        private final Graph<Integer, String> graph = new Graph<>();
+
+        synchronized void addNode(Graph.Node<Integer> n) {
+            graph.addNode(n);
+        }
+
+        synchronized void addEdge(Graph.Node<Integer> parent, Graph.Node<Integer> child, String label) {
+            graph.addEdge(parent, child, label);
+        }
+
+        synchronized int degree(int id) {
+            return graph.childrenOf(id).length;
+        }
+    }
+}
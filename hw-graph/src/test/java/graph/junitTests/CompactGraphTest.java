@@ -0,0 +1,143 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains tests to ensure the CompactGraph class is correctly implemented
+ */
+public class CompactGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    //this graph
+    private Graph<String, String> myGraph;
+
+    //some nodes
+    Graph.Node<String> a = new Graph.Node<>("a");
+    Graph.Node<String> b = new Graph.Node<>("b");
+    Graph.Node<String> c = new Graph.Node<>("c");
+    Graph.Node<String> d = new Graph.Node<>("d");
+
+    @Before
+    public void setUp() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addNode(c);
+        myGraph.addEdge(a, b, "e1");
+        myGraph.addEdge(a, b, "e2");
+        myGraph.addEdge(a, a, "e1");
+        myGraph.addEdge(b, c, "e3");
+    }
+
+    /**
+     * Test the frozen graph has the same nodes as the graph it came from.
+     */
+    @Test
+    public void testSameNodes() {
+        CompactGraph<String, String> frozen = myGraph.freeze();
+        assertEquals(frozen.size(), 3);
+        assertEquals(frozen.listNodes(), myGraph.listNodes());
+        assertTrue(frozen.containsNode(a));
+        assertFalse(frozen.containsNode(d));
+    }
+
+    /**
+     * Test the frozen graph has the same edges as the graph it came from.
+     */
+    @Test
+    public void testSameEdges() {
+        CompactGraph<String, String> frozen = myGraph.freeze();
+        assertEquals(frozen.edgeCount(), 4);
+        for (Graph.Node<String> n : myGraph.listNodes()) {
+            assertEquals(frozen.listChildren(n), myGraph.listChildren(n));
+        }
+        assertTrue(frozen.listChildren(a).contains(new Graph.Edge<>(a, a, "e1")));
+    }
+
+    /**
+     * Test the frozen graph keeps the node ids of the graph it came from.
+     */
+    @Test
+    public void testSameIds() {
+        CompactGraph<String, String> frozen = myGraph.freeze();
+        for (Graph.Node<String> n : myGraph.listNodes()) {
+            int id = myGraph.idOf(n.getData());
+            assertEquals(frozen.idOf(n.getData()), id);
+            assertEquals(frozen.dataOf(id), n.getData());
+            int[] expected = myGraph.childrenOf(id);
+            int[] actual = frozen.childrenOf(id);
+            Arrays.sort(expected);
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual);
+        }
+        assertEquals(frozen.idOf("d"), -1);
+    }
+
+    /**
+     * Test equal labels are only stored once.
+     */
+    @Test
+    public void testLabelsInterned() {
+        CompactGraph<String, String> frozen = myGraph.freeze();
+        assertEquals(frozen.labelCount(), 3);
+    }
+
+    /**
+     * Test listChildren returns an empty set for a node with no edges or not in the graph.
+     */
+    @Test
+    public void testListChildrenEmpty() {
+        CompactGraph<String, String> frozen = myGraph.freeze();
+        Set<Graph.Edge<String, String>> expected = new HashSet<>();
+        assertEquals(frozen.listChildren(c), expected);
+        assertEquals(frozen.listChildren(d), expected);
+    }
+
+    /**
+     * Test later changes to the graph don't change the frozen graph.
+     */
+    @Test
+    public void testIndependentOfGraph() {
+        CompactGraph<String, String> frozen = myGraph.freeze();
+        myGraph.addNode(d);
+        myGraph.addEdge(c, d, "e4");
+        assertEquals(frozen.size(), 3);
+        assertFalse(frozen.containsNode(d));
+        assertEquals(frozen.listChildren(c).size(), 0);
+    }
+
+    /**
+     * Test freezing an empty graph.
+     */
+    @Test
+    public void testEmptyGraph() {
+        CompactGraph<String, String> frozen = new Graph<String, String>().freeze();
+        assertEquals(frozen.size(), 0);
+        assertEquals(frozen.edgeCount(), 0);
+        assertTrue(frozen.listNodes().isEmpty());
+    }
+
+    /**
+     * Test the frozen graph cannot be changed through its node or edge sets.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testListNodesUnmodifiable() {
+        myGraph.freeze().listNodes().add(d);
+    }
+
+    /**
+     * Test CompactGraph.from doesn't allow a null graph.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromNull() {
+        CompactGraph.from(null);
+    }
+}
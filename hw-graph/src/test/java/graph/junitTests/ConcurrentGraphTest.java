@@ -0,0 +1,139 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains tests to ensure the ConcurrentGraph class is correctly implemented
+ */
+public class ConcurrentGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    //this graph
+    private ConcurrentGraph<String, String> myGraph;
+
+    //some nodes
+    Graph.Node<String> a = new Graph.Node<>("a");
+    Graph.Node<String> b = new Graph.Node<>("b");
+    Graph.Node<String> c = new Graph.Node<>("c");
+
+    @Before
+    public void setUp() {
+        myGraph = new ConcurrentGraph<>();
+    }
+
+    /**
+     * Test nodes are added once and get ids in order.
+     */
+    @Test
+    public void testAddNode() {
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addNode(new Graph.Node<>("a"));
+        assertEquals(myGraph.size(), 2);
+        assertTrue(myGraph.containsNode(a));
+        assertFalse(myGraph.containsNode(c));
+        assertEquals(myGraph.idOf("b"), 1);
+        assertEquals(myGraph.dataOf(0), "a");
+    }
+
+    /**
+     * Test edges are added once, and parallel edges are kept.
+     */
+    @Test
+    public void testAddEdge() {
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addEdge(a, b, "e1");
+        myGraph.addEdge(a, b, "e2");
+        myGraph.addEdge(a, b, "e1");
+        myGraph.addEdge(a, a, "e3");
+        Set<Graph.Edge<String, String>> expected = new HashSet<>();
+        expected.add(new Graph.Edge<>(a, b, "e1"));
+        expected.add(new Graph.Edge<>(a, b, "e2"));
+        expected.add(new Graph.Edge<>(a, a, "e3"));
+        assertEquals(myGraph.listChildren(a), expected);
+        assertArrayEquals(myGraph.childrenOf(0), new int[] {1, 0});
+        assertEquals(myGraph.labelsOf(0, 1), List.of("e1", "e2"));
+        assertEquals(myGraph.listChildren(b).size(), 0);
+    }
+
+    /**
+     * Test addEdge doesn't allow a child that isn't in the graph.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoChildren() {
+        myGraph.addNode(a);
+        myGraph.addEdge(a, b, "ab");
+    }
+
+    /**
+     * Test many threads adding nodes and edges at once, while other threads read,
+     * lose no edges and never show a reader an edge to a missing node.
+     */
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        int writers = 4;
+        int nodesPerWriter = 200;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads.add(new Thread(() -> {
+                Graph.Node<String> prev = null;
+                for (int i = 0; i < nodesPerWriter; i++) {
+                    Graph.Node<String> n = new Graph.Node<>(writer + ":" + i);
+                    myGraph.addNode(n);
+                    myGraph.addNode(new Graph.Node<>("shared" + i));
+                    if (prev != null) {
+                        myGraph.addEdge(prev, n, "next");
+                        myGraph.addEdge(new Graph.Node<>("shared" + i), n, "w" + writer);
+                    }
+                    prev = n;
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int round = 0; round < 200; round++) {
+                        int size = myGraph.size();
+                        for (int id = 0; id < size; id++) {
+                            for (int child : myGraph.childrenOf(id)) {
+                                assertTrue(child < myGraph.size());
+                                assertFalse(myGraph.labelsOf(id, child).isEmpty());
+                            }
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertNull(failure.get());
+
+        assertEquals(myGraph.size(), writers * nodesPerWriter + nodesPerWriter);
+        for (int w = 0; w < writers; w++) {
+            for (int i = 1; i < nodesPerWriter; i++) {
+                Graph.Node<String> n = new Graph.Node<>(w + ":" + i);
+                assertTrue(myGraph.listChildren(new Graph.Node<>(w + ":" + (i - 1)))
+                        .contains(new Graph.Edge<>(new Graph.Node<>(w + ":" + (i - 1)), n, "next")));
+            }
+        }
+        for (int i = 1; i < nodesPerWriter; i++) {
+            assertEquals(myGraph.listChildren(new Graph.Node<>("shared" + i)).size(), writers);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains tests to ensure the GraphBuilder class is correctly implemented
+ */
+public class GraphBuilderTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    //this builder
+    private GraphBuilder<String, String> builder;
+
+    @Before
+    public void setUp() {
+        builder = new GraphBuilder<>(4, 8);
+    }
+
+    /**
+     * Test nodes are added once and keep the ids addNode returned.
+     */
+    @Test
+    public void testAddNode() {
+        assertEquals(builder.addNode("a"), 0);
+        assertEquals(builder.addNode("b"), 1);
+        assertEquals(builder.addNode("a"), 0);
+        Graph<String, String> graph = builder.build();
+        assertEquals(graph.size(), 2);
+        assertEquals(graph.idOf("b"), 1);
+        assertTrue(graph.containsNode(new Graph.Node<>("a")));
+    }
+
+    /**
+     * Test the built graph is the same as one made with addNode and addEdge, even past the size hints.
+     */
+    @Test
+    public void testSameAsGraph() {
+        Graph<String, String> expected = new Graph<>();
+        Random random = new Random(331);
+        for (int i = 0; i < 50; i++) {
+            builder.addNode("n" + i);
+            expected.addNode(new Graph.Node<>("n" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            int parent = random.nextInt(50);
+            int child = random.nextInt(50);
+            String label = "e" + random.nextInt(3);
+            builder.addEdge(parent, child, label);
+            expected.addEdge(new Graph.Node<>("n" + parent), new Graph.Node<>("n" + child), label);
+        }
+        builder.addEdge("n1", "n2", "e9");
+        expected.addEdge(new Graph.Node<>("n1"), new Graph.Node<>("n2"), "e9");
+        Graph<String, String> graph = builder.build();
+        assertEquals(graph.listNodes(), expected.listNodes());
+        for (int i = 0; i < 50; i++) {
+            assertArrayEquals(graph.childrenOf(i), expected.childrenOf(i));
+            assertEquals(graph.listChildren(new Graph.Node<>("n" + i)), expected.listChildren(new Graph.Node<>("n" + i)));
+        }
+        graph.addEdge(new Graph.Node<>("n0"), new Graph.Node<>("n49"), "new");
+        assertTrue(graph.labelsOf(0, 49).contains("new"));
+    }
+
+    /**
+     * Test addEdge doesn't allow a node that wasn't added.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownNode() {
+        builder.addNode("a");
+        builder.addEdge(0, 1, "ab");
+    }
+
+    /**
+     * Test addEdge doesn't allow a null label.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullLabel() {
+        builder.addNode("a");
+        builder.addEdge(0, 0, null);
+    }
+
+    /**
+     * Test the builder can't be used once it has built its graph.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testBuildTwice() {
+        builder.addNode("a");
+        builder.build();
+        builder.addNode("b");
+    }
+
+    /**
+     * Test edge lists filled on their own and then added give the same graph as addEdge, and a
+     * parallel build gives the same graph as a sequential one.
+     */
+    @Test
+    public void testEdgeListsAndParallelBuild() {
+        GraphBuilder<String, String> sequential = new GraphBuilder<>();
+        for (int i = 0; i < 200; i++) {
+            builder.addNode("n" + i);
+            sequential.addNode("n" + i);
+        }
+        Random random = new Random(331);
+        for (int part = 0; part < 4; part++) {
+            GraphBuilder.EdgeList<String> edges = new GraphBuilder.EdgeList<>(0);
+            for (int i = 0; i < 20000; i++) {
+                int parent = random.nextInt(200);
+                int child = random.nextInt(200);
+                String label = "e" + random.nextInt(5);
+                edges.add(parent, child, label);
+                sequential.addEdge(parent, child, label);
+            }
+            assertEquals(edges.size(), 20000);
+            builder.addEdges(edges);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Graph<String, String> graph = builder.build(pool);
+        pool.shutdown();
+        Graph<String, String> expected = sequential.build();
+        for (int id = 0; id < 200; id++) {
+            assertArrayEquals(graph.childrenOf(id), expected.childrenOf(id));
+            for (int child : expected.childrenOf(id)) {
+                assertEquals(graph.labelsOf(id, child), expected.labelsOf(id, child));
+            }
+        }
+    }
+
+    /**
+     * Test addEdges doesn't allow an edge to a node that wasn't added.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEdgeListUnknownNode() {
+        builder.addNode("a");
+        GraphBuilder.EdgeList<String> edges = new GraphBuilder.EdgeList<>(1);
+        edges.add(0, 1, "ab");
+        builder.addEdges(edges);
+    }
+}
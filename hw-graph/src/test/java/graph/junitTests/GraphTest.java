@@ -3,8 +3,12 @@ import graph.*;
 import org.junit.*;
 import org.junit.rules.Timeout;
 
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.*;
 
@@ -129,4 +133,364 @@ public class GraphTest {
         Set<Graph.Node<String>> expected = new HashSet<>();
         assertEquals(myGraph.listNodes(), expected);
     }
+
+    /**
+     * Test nodes are given dense ids in the order they were added.
+     */
+    @Test
+    public void testIdOf() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addNode(a1);
+        assertEquals(myGraph.idOf("a"), 0);
+        assertEquals(myGraph.idOf("b"), 1);
+        assertEquals(myGraph.idOf("c"), -1);
+        assertEquals(myGraph.dataOf(1), "b");
+    }
+
+    /**
+     * Test childrenOf lists every distinct child of a node once.
+     */
+    @Test
+    public void testChildrenOf() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addEdge(a, b, "e1");
+        myGraph.addEdge(a, b, "e2");
+        myGraph.addEdge(a, a, "e3");
+        myGraph.addEdge(a, b, "e1");
+        assertArrayEquals(myGraph.childrenOf(0), new int[] {1, 0});
+        assertArrayEquals(myGraph.childrenOf(1), new int[] {});
+    }
+
+    /**
+     * Test parallel edges between two nodes are all kept and listed.
+     */
+    @Test
+    public void testParallelEdges() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addEdge(a, b, "e1");
+        myGraph.addEdge(a, b, "e2");
+        myGraph.addEdge(a, b, "e1");
+        assertEquals(myGraph.labelsOf(0, 1), List.of("e1", "e2"));
+        assertEquals(myGraph.labelsOf(1, 0), List.of());
+        Set<Graph.Edge<String, String>> expected = new HashSet<>();
+        expected.add(new Graph.Edge<>(a, b, "e1"));
+        expected.add(new Graph.Edge<>(a, b, "e2"));
+        assertEquals(myGraph.listChildren(a), expected);
+        assertFalse(myGraph.listChildren(a).contains(new Graph.Edge<>(a, b, "e3")));
+    }
+
+    /**
+     * Test a node with many children still finds each child's edges.
+     */
+    @Test
+    public void testManyChildren() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        for (int i = 0; i < 100; i++) {
+            myGraph.addNode(new Graph.Node<>("n" + i));
+            myGraph.addEdge(a, new Graph.Node<>("n" + i), "x");
+        }
+        for (int i = 0; i < 100; i++) {
+            myGraph.addEdge(a, new Graph.Node<>("n" + i), "y");
+        }
+        assertEquals(myGraph.listChildren(a).size(), 200);
+        assertEquals(myGraph.childrenOf(0).length, 100);
+        assertEquals(myGraph.labelsOf(0, myGraph.idOf("n57")), List.of("x", "y"));
+        assertTrue(myGraph.listChildren(a).contains(new Graph.Edge<>(a, new Graph.Node<>("n99"), "y")));
+    }
+
+    /**
+     * Test dataOf doesn't allow an id that no node has.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDataOfUnknownId() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.dataOf(1);
+    }
+
+    /**
+     * Test childrenOf doesn't allow an id that no node has.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testChildrenOfUnknownId() {
+        myGraph = new Graph<>();
+        myGraph.childrenOf(0);
+    }
+
+    /**
+     * Test a snapshot keeps the nodes and edges the graph had when it was taken.
+     */
+    @Test
+    public void testSnapshot() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addEdge(a, b, "e1");
+        GraphView<String, String> snap = myGraph.snapshot();
+        myGraph.addNode(c);
+        myGraph.addEdge(a, b, "e2");
+        myGraph.addEdge(a, c, "e3");
+        myGraph.addEdge(b, a, "e4");
+        assertEquals(snap.size(), 2);
+        assertFalse(snap.containsNode(c));
+        assertEquals(snap.labelsOf(0, 1), List.of("e1"));
+        assertArrayEquals(snap.childrenOf(0), new int[] {1});
+        assertEquals(snap.listChildren(b).size(), 0);
+        assertEquals(myGraph.size(), 3);
+        assertEquals(myGraph.labelsOf(0, 1), List.of("e1", "e2"));
+        assertArrayEquals(myGraph.childrenOf(0), new int[] {1, 2});
+    }
+
+    /**
+     * Test a node set taken before a snapshot still shows the nodes added after it.
+     */
+    @Test
+    public void testListNodesAfterSnapshot() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        Set<Graph.Node<String>> nodes = myGraph.listNodes();
+        myGraph.snapshot();
+        myGraph.addNode(b);
+        assertEquals(nodes.size(), 2);
+        assertTrue(nodes.contains(b));
+        Set<Graph.Node<String>> iterated = new HashSet<>();
+        for (Graph.Node<String> n : nodes) {
+            iterated.add(n);
+        }
+        assertEquals(iterated, Set.of(a, b));
+    }
+
+    /**
+     * Test snapshots taken one after another each keep their own version of the graph.
+     */
+    @Test
+    public void testManySnapshots() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        List<GraphView<String, String>> snaps = new java.util.ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            snaps.add(myGraph.snapshot());
+            myGraph.addNode(new Graph.Node<>("n" + i));
+            myGraph.addEdge(a, new Graph.Node<>("n" + i), "x");
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(snaps.get(i).size(), i + 1);
+            assertEquals(snaps.get(i).childrenOf(0).length, i);
+            assertEquals(snaps.get(i).listChildren(a).size(), i);
+        }
+        assertEquals(myGraph.listChildren(a).size(), 20);
+    }
+
+    /**
+     * Test forEachChild visits every edge from a node, by node and by id.
+     */
+    @Test
+    public void testForEachChild() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addNode(c);
+        myGraph.addEdge(a, b, "e1");
+        myGraph.addEdge(a, b, "e2");
+        myGraph.addEdge(a, c, "e3");
+        Set<Graph.Edge<String, String>> visited = new HashSet<>();
+        myGraph.forEachChild(a, (child, label) -> visited.add(new Graph.Edge<>(a, child, label)));
+        assertEquals(visited, myGraph.listChildren(a));
+        List<String> byId = new java.util.ArrayList<>();
+        myGraph.forEachChild(0, (child, labels) -> byId.add(child + ":" + labels));
+        assertEquals(byId, List.of("1:[e1, e2]", "2:[e3]"));
+        myGraph.forEachChild(d, (child, label) -> fail("d is not in the graph"));
+        myGraph.forEachChild(1, (child, labels) -> fail("b has no children"));
+    }
+
+    /**
+     * Test children are listed in order once the graph keeps them sorted, including ones added later.
+     */
+    @Test
+    public void testSortChildren() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(d);
+        myGraph.addNode(b);
+        myGraph.addNode(c);
+        myGraph.addEdge(a, d, "x");
+        myGraph.addEdge(a, b, "x");
+        myGraph.addEdge(a, b, "y");
+        assertNull(myGraph.childOrder());
+        myGraph.sortChildren(Comparator.naturalOrder());
+        assertArrayEquals(myGraph.childrenOf(0), new int[] {2, 1});
+        myGraph.addEdge(a, c, "x");
+        myGraph.addEdge(a, a, "x");
+        assertArrayEquals(myGraph.childrenOf(0), new int[] {0, 2, 3, 1});
+        assertEquals(myGraph.labelsOf(0, 2), List.of("x", "y"));
+        assertEquals(myGraph.childOrder(), Comparator.naturalOrder());
+    }
+
+    /**
+     * Test a node with many children keeps them sorted and still finds each one.
+     */
+    @Test
+    public void testSortManyChildren() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.sortChildren(Comparator.reverseOrder());
+        for (int i = 10; i < 60; i++) {
+            myGraph.addNode(new Graph.Node<>("n" + (i * 7 % 50 + 10)));
+            myGraph.addEdge(a, new Graph.Node<>("n" + (i * 7 % 50 + 10)), "x");
+        }
+        int[] children = myGraph.childrenOf(0);
+        assertEquals(children.length, 50);
+        for (int i = 0; i < children.length; i++) {
+            assertEquals(myGraph.dataOf(children[i]), "n" + (59 - i));
+            assertEquals(myGraph.labelsOf(0, children[i]), List.of("x"));
+        }
+    }
+
+    /**
+     * Test the parents of a node are the same found with and without an index, as edges are added
+     * before and after it is built.
+     */
+    @Test
+    public void testIndexParents() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.addNode(c);
+        myGraph.addEdge(a, c, "x");
+        myGraph.addEdge(b, c, "y");
+        myGraph.addEdge(b, c, "z");
+        assertEquals(parents(myGraph, 2), Set.of("0:[x]", "1:[y, z]"));
+        myGraph.indexParents();
+        assertEquals(parents(myGraph, 2), Set.of("0:[x]", "1:[y, z]"));
+        myGraph.addNode(d);
+        myGraph.addEdge(d, c, "w");
+        myGraph.addEdge(c, d, "v");
+        assertEquals(parents(myGraph, 2), Set.of("0:[x]", "1:[y, z]", "3:[w]"));
+        assertEquals(parents(myGraph, 3), Set.of("2:[v]"));
+        assertEquals(parents(myGraph, 0), Set.of());
+    }
+
+    /**
+     * Test a snapshot keeps the parents its nodes had when it was taken.
+     */
+    @Test
+    public void testSnapshotParents() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.indexParents();
+        myGraph.addEdge(a, b, "x");
+        GraphView<String, String> snap = myGraph.snapshot();
+        myGraph.addEdge(b, b, "y");
+        myGraph.addEdge(a, b, "z");
+        assertEquals(parents(snap, 1), Set.of("0:[x]"));
+        assertEquals(parents(myGraph, 1), Set.of("0:[x, z]", "1:[y]"));
+    }
+
+    /**
+     * Test the components are kept up to date as nodes and edges are added, ignoring the direction of edges.
+     */
+    @Test
+    public void testComponents() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.indexComponents();
+        myGraph.addNode(b);
+        myGraph.addNode(c);
+        myGraph.addNode(d);
+        assertEquals(myGraph.componentCount(), 4);
+        myGraph.addEdge(a, b, "x");
+        myGraph.addEdge(d, b, "y");
+        assertEquals(myGraph.componentCount(), 2);
+        assertEquals(myGraph.componentSize(d), 3);
+        assertEquals(myGraph.componentSize(c), 1);
+        assertArrayEquals(myGraph.componentSizes(), new int[] {3, 1});
+        assertTrue(myGraph.mayReach(0, 3));
+        assertFalse(myGraph.mayReach(0, 2));
+        assertFalse(myGraph.mayReach(2, 3));
+    }
+
+    /**
+     * Test a snapshot keeps the components its nodes had when it was taken.
+     */
+    @Test
+    public void testSnapshotComponents() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.addNode(b);
+        myGraph.indexComponents();
+        GraphView<String, String> snap = myGraph.snapshot();
+        myGraph.addEdge(a, b, "x");
+        assertFalse(snap.mayReach(0, 1));
+        assertTrue(myGraph.mayReach(0, 1));
+    }
+
+    /**
+     * Test indexing the components of a built graph, on one thread and on many, gives the same
+     * components as keeping them up to date edge by edge.
+     */
+    @Test
+    public void testIndexComponents() {
+        Random random = new Random(331);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int round = 0; round < 10; round++) {
+                int n = 20000;
+                Graph<Integer, String> incremental = new Graph<>();
+                incremental.indexComponents();
+                GraphBuilder<Integer, String> builder = new GraphBuilder<>();
+                GraphBuilder<Integer, String> other = new GraphBuilder<>();
+                for (int i = 0; i < n; i++) {
+                    incremental.addNode(new Graph.Node<>(i));
+                    builder.addNode(i);
+                    other.addNode(i);
+                }
+                for (int i = 0; i < n * round / 10; i++) {
+                    int from = random.nextInt(n);
+                    int to = random.nextInt(n);
+                    incremental.addEdge(new Graph.Node<>(from), new Graph.Node<>(to), "e");
+                    builder.addEdge(from, to, "e");
+                    other.addEdge(from, to, "e");
+                }
+                Graph<Integer, String> sequential = builder.build();
+                Graph<Integer, String> parallel = other.build();
+                sequential.indexComponents();
+                parallel.indexComponents(pool);
+                assertArrayEquals(incremental.componentSizes(), sequential.componentSizes());
+                assertArrayEquals(incremental.componentSizes(), parallel.componentSizes());
+                for (int i = 0; i < 1000; i++) {
+                    int from = random.nextInt(n);
+                    int to = random.nextInt(n);
+                    assertEquals(incremental.mayReach(from, to), sequential.mayReach(from, to));
+                    assertEquals(incremental.mayReach(from, to), parallel.mayReach(from, to));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test asking for component sizes before indexing them
+     */
+    @Test (expected = IllegalStateException.class)
+    public void testComponentsNotIndexed() {
+        myGraph = new Graph<>();
+        myGraph.addNode(a);
+        myGraph.componentCount();
+    }
+
+    // Returns each parent of the node with the given id as "parentId:labels".
+    private static Set<String> parents(GraphView<String, String> g, int id) {
+        Set<String> result = new HashSet<>();
+        g.forEachParent(id, (parent, labels) -> result.add(parent + ":" + labels));
+        return result;
+    }
 }
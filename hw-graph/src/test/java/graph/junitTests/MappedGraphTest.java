@@ -0,0 +1,126 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains tests to ensure the MappedGraph class is correctly implemented
+ */
+public class MappedGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // saves and reads back integers as strings
+    private static final MappedGraph.Codec<Integer> INTEGER = new MappedGraph.Codec<>() {
+        @Override
+        public String encode(Integer value) {
+            return value.toString();
+        }
+
+        @Override
+        public Integer decode(String saved) {
+            return Integer.valueOf(saved);
+        }
+    };
+
+    //some nodes
+    Graph.Node<String> a = new Graph.Node<>("a");
+    Graph.Node<String> b = new Graph.Node<>("b");
+    Graph.Node<String> c = new Graph.Node<>("ç");
+
+    /**
+     * Test a graph read back from its file has the same nodes, ids and edges.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Graph<String, Integer> graph = new Graph<>();
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addEdge(a, b, 1);
+        graph.addEdge(a, b, 2);
+        graph.addEdge(c, a, 1);
+        graph.addEdge(a, a, 3);
+        Path file = folder.newFile().toPath();
+        MappedGraph.write(graph, file, MappedGraph.Codec.STRING, INTEGER);
+        MappedGraph<String, Integer> mapped = MappedGraph.map(file, MappedGraph.Codec.STRING, INTEGER);
+        assertEquals(mapped.size(), 3);
+        assertEquals(mapped.edgeCount(), 4);
+        assertEquals(mapped.listNodes(), graph.listNodes());
+        for (Graph.Node<String> n : graph.listNodes()) {
+            int id = graph.idOf(n.getData());
+            assertEquals(mapped.idOf(n.getData()), id);
+            assertEquals(mapped.dataOf(id), n.getData());
+            assertEquals(mapped.listChildren(n), graph.listChildren(n));
+        }
+        assertEquals(mapped.labelsOf(0, 1), List.of(1, 2));
+        assertEquals(mapped.labelsOf(1, 0), List.of());
+        assertArrayEquals(mapped.childrenOf(0), new int[] {0, 1});
+        assertEquals(mapped.idOf("d"), -1);
+        assertFalse(mapped.containsNode(new Graph.Node<>("d")));
+    }
+
+    /**
+     * Test an empty graph can be saved and read back.
+     */
+    @Test
+    public void testEmpty() throws IOException {
+        Path file = folder.newFile().toPath();
+        MappedGraph.write(new Graph<String, String>(), file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+        MappedGraph<String, String> mapped = MappedGraph.map(file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+        assertEquals(mapped.size(), 0);
+        assertEquals(mapped.listNodes().size(), 0);
+        assertEquals(mapped.idOf("a"), -1);
+    }
+
+    /**
+     * Test map doesn't allow a file that isn't a graph file.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotAGraphFile() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "not a graph file at all, just some text".getBytes());
+        MappedGraph.map(file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+    }
+
+    /**
+     * Test map doesn't allow a graph file that was cut short.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedFile() throws IOException {
+        Graph<String, Integer> graph = new Graph<>();
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addEdge(a, b, 1);
+        Path file = folder.newFile().toPath();
+        MappedGraph.write(graph, file, MappedGraph.Codec.STRING, INTEGER);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        MappedGraph.map(file, MappedGraph.Codec.STRING, INTEGER);
+    }
+
+    /**
+     * Test map doesn't allow a graph file whose header has a negative count.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() throws IOException {
+        Path file = folder.newFile().toPath();
+        MappedGraph.write(new Graph<String, String>(), file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+        byte[] bytes = Files.readAllBytes(file);
+        // the number of distinct labels is the sixth int of the header
+        bytes[20] = (byte) 0xFF;
+        Files.write(file, bytes);
+        MappedGraph.map(file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+    }
+}
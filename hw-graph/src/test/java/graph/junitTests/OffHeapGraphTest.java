@@ -0,0 +1,71 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.*;
+import org.junit.rules.Timeout;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains tests to ensure the OffHeapGraph class is correctly implemented
+ */
+public class OffHeapGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    //some nodes
+    Graph.Node<String> a = new Graph.Node<>("a");
+    Graph.Node<String> b = new Graph.Node<>("b");
+    Graph.Node<String> c = new Graph.Node<>("c");
+
+    /**
+     * Test an off-heap copy has the same nodes, ids and edges as the graph it was made from.
+     */
+    @Test
+    public void testSameAsGraph() {
+        Graph<String, String> graph = new Graph<>();
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addEdge(a, c, "e1");
+        graph.addEdge(a, b, "e2");
+        graph.addEdge(a, b, "e3");
+        graph.addEdge(b, b, "e1");
+        OffHeapGraph<String, String> offHeap = OffHeapGraph.from(graph);
+        assertEquals(offHeap.size(), 3);
+        assertEquals(offHeap.edgeCount(), 4);
+        assertEquals(offHeap.listNodes(), graph.listNodes());
+        for (Graph.Node<String> n : graph.listNodes()) {
+            assertEquals(offHeap.idOf(n.getData()), graph.idOf(n.getData()));
+            assertEquals(offHeap.listChildren(n), graph.listChildren(n));
+        }
+        assertArrayEquals(offHeap.childrenOf(0), new int[] {1, 2});
+        assertEquals(offHeap.labelsOf(0, 1), List.of("e2", "e3"));
+        assertEquals(offHeap.labelsOf(2, 0), List.of());
+        assertEquals(offHeap.listChildren(c).size(), 0);
+        assertEquals(offHeap.idOf("d"), -1);
+    }
+
+    /**
+     * Test the edges of an off-heap copy don't change when the graph it was made from changes.
+     */
+    @Test
+    public void testCopyIsIndependent() {
+        Graph<String, String> graph = new Graph<>();
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addEdge(a, b, "e1");
+        OffHeapGraph<String, String> offHeap = OffHeapGraph.from(graph);
+        graph.addEdge(b, a, "e2");
+        assertEquals(offHeap.listChildren(b).size(), 0);
+    }
+
+    /**
+     * Test childrenOf doesn't allow an id that no node has.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testChildrenOfUnknownId() {
+        OffHeapGraph.from(new Graph<String, String>()).childrenOf(0);
+    }
+}
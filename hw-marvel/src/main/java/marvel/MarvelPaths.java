@@ -1,8 +1,15 @@
 package marvel;
 
 import graph.Graph;
+import graph.GraphBuilder;
+import graph.GraphView;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * This class represents a directed, labeled graph that models the social network among characters
@@ -23,33 +30,151 @@ public class MarvelPaths {
      * @throws IllegalArgumentException if the fileName is null.
      */
     public static Graph<String, String> buildGraph(String fileName) {
-        Graph<String,String> graph = new Graph<>();
         if (fileName == null) {
             throw new IllegalArgumentException("File name cannot be null.");
         }
 
         Map<String, ArrayList<String>> container = MarvelParser.parseData(fileName);
+        // every pair of characters in a book is joined both ways, so the edge count is known up front
+        int edges = 0;
+        for (ArrayList<String> character : container.values()) {
+            edges += character.size() * (character.size() - 1);
+        }
+        GraphBuilder<String, String> builder = new GraphBuilder<>(0, edges);
         for (String bookName : container.keySet()) {
             ArrayList<String> character = container.get(bookName);
-            for (String s : character) {
-                Graph.Node<String> node = new Graph.Node<>(s);
-                if (!graph.containsNode(node)) {
-                    graph.addNode(node);
+            int[] ids = new int[character.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = builder.addNode(character.get(i));
+            }
+            for (int i = 0; i < ids.length; i++) {
+                for (int j = i + 1; j < ids.length; j++) {
+                    builder.addEdge(ids[i], ids[j], bookName);
+                    builder.addEdge(ids[j], ids[i], bookName);
                 }
             }
+        }
+        Graph<String, String> graph = builder.build();
+        // findShortestPath visits children by name, so they are sorted once here instead of on every visit
+        graph.sortChildren(Comparator.naturalOrder());
+        // and characters in different components are known to have no path without searching
+        graph.indexComponents();
+        return graph;
+    }
+
+    /**
+     * Construct the same Graph as buildGraph(fileName), making its edges on the given number of threads.
+     * The books are split among the threads, each making the edges of its books into its own list,
+     * and the lists are joined in book order, so the Graph is the same whatever the number of threads.
+     * @param fileName the file that want to be used to create the graph.
+     * @param threads the number of threads to use
+     * @return a directed labeled graph from the information of given file.
+     *         return empty graph if the graph is empty.
+     * @throws IllegalArgumentException if the fileName is null, or threads is less than 1.
+     */
+    public static Graph<String, String> buildGraph(String fileName, int threads) {
+        if (fileName == null) {
+            throw new IllegalArgumentException("File name cannot be null.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread.");
+        }
+
+        Map<String, ArrayList<String>> container = MarvelParser.parseData(fileName);
+        List<String> books = new ArrayList<>(container.keySet());
+        int[] edgesBefore = new int[books.size() + 1];
+        for (int b = 0; b < books.size(); b++) {
+            int n = container.get(books.get(b)).size();
+            edgesBefore[b + 1] = edgesBefore[b] + n * (n - 1);
+        }
+        // node ids are handed out in book order before the threads start, so they are the same
+        // as buildGraph(fileName) gives them
+        GraphBuilder<String, String> builder = new GraphBuilder<>(0, edgesBefore[books.size()]);
+        int[][] ids = new int[books.size()][];
+        for (int b = 0; b < books.size(); b++) {
+            ArrayList<String> character = container.get(books.get(b));
+            ids[b] = new int[character.size()];
             for (int i = 0; i < character.size(); i++) {
-                for (int j = i + 1; j < character.size(); j++) {
-                    graph.addEdge(new Graph.Node<>(character.get(i)), new Graph.Node<>(character.get(j)), bookName);
-                    graph.addEdge(new Graph.Node<>(character.get(j)), new Graph.Node<>(character.get(i)), bookName);
+                ids[b][i] = builder.addNode(character.get(i));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (GraphBuilder.EdgeList<String> edges : pool.invoke(new BookTask(books, ids, edgesBefore, 0, books.size()))) {
+                builder.addEdges(edges);
+            }
+            Graph<String, String> graph = builder.build(pool);
+            graph.sortChildren(Comparator.naturalOrder());
+            graph.indexComponents(pool);
+            return graph;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * <b>BookTask</b> makes the edges between every pair of characters in the books with indexes
+     * from lo (inclusive) to hi (exclusive), splitting into smaller tasks while there are many.
+     * It returns the edges as a list of edge lists, in book order.
+     */
+    private static class BookTask extends RecursiveTask<List<GraphBuilder.EdgeList<String>>> {
+        // once a task has fewer edges than this, it makes them itself
+        private static final int THRESHOLD = 1 << 15;
+
+        // the name of each book
+        private final List<String> books;
+
+        // the node ids of the characters in each book
+        private final int[][] ids;
+
+        // the number of edges made by the books before each book
+        private final int[] edgesBefore;
+
+        // the range of books this task makes edges for
+        private final int lo;
+        private final int hi;
+
+        BookTask(List<String> books, int[][] ids, int[] edgesBefore, int lo, int hi) {
+            this.books = books;
+            this.ids = ids;
+            this.edgesBefore = edgesBefore;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected List<GraphBuilder.EdgeList<String>> compute() {
+            if (hi - lo > 1 && edgesBefore[hi] - edgesBefore[lo] > THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                BookTask left = new BookTask(books, ids, edgesBefore, lo, mid);
+                left.fork();
+                List<GraphBuilder.EdgeList<String>> right = new BookTask(books, ids, edgesBefore, mid, hi).compute();
+                List<GraphBuilder.EdgeList<String>> result = left.join();
+                result.addAll(right);
+                return result;
+            }
+            GraphBuilder.EdgeList<String> edges = new GraphBuilder.EdgeList<>(edgesBefore[hi] - edgesBefore[lo]);
+            for (int b = lo; b < hi; b++) {
+                int[] book = ids[b];
+                for (int i = 0; i < book.length; i++) {
+                    for (int j = i + 1; j < book.length; j++) {
+                        edges.add(book[i], book[j], books.get(b));
+                        edges.add(book[j], book[i], books.get(b));
+                    }
                 }
             }
+            List<GraphBuilder.EdgeList<String>> result = new ArrayList<>();
+            result.add(edges);
+            return result;
         }
-        return graph;
     }
 
     /**
      * The method finds the shortest path between the given starting character and the ending character in the Graph
-     * using a BFS algorithm.
+     * using a BFS algorithm. If there are several shortest paths, the one returned is lexicographically least:
+     * each node's children are visited in increasing order of name, and of the edges between the same two
+     * characters the one with the least book name is used.
      * @param starting starting character which the search starts from
      * @param ending ending character which the search ends on
      * @param graph the graph we want to find the shortest path on
@@ -57,70 +182,397 @@ public class MarvelPaths {
      * @throws  IllegalArgumentException if the given starting or ending or the graph is null, or node to be
      * finding paths on doesn't exist in the graph.
      */
-    public static ArrayList<Graph.Edge<String, String>> findShortestPath(Graph.Node<String> starting, Graph.Node<String> ending, Graph<String, String> graph) {
+    public static ArrayList<Graph.Edge<String, String>> findShortestPath(Graph.Node<String> starting, Graph.Node<String> ending, GraphView<String, String> graph) {
         if (starting == null || ending == null || graph == null) {
             throw new IllegalArgumentException("starting/ending/graph cannot be null");
         }
 
-        if (!graph.containsNode(starting) || !graph.containsNode(ending)) {
+        if (graph.idOf(starting.getData()) < 0 || graph.idOf(ending.getData()) < 0) {
             throw new IllegalArgumentException("node must exist before finding the path");
         }
-        Graph.Node<String> start = starting;
-        Graph.Node<String> dest = ending;
-        Queue<Graph.Node<String>> queue = new LinkedList<>();
-        Map<Graph.Node<String>, ArrayList<Graph.Edge<String, String>>> map = new HashMap<>();
-
-        queue.add(start);
-        map.put(start, new ArrayList<>());
-        while (!queue.isEmpty()) {
-            Graph.Node<String> parent = queue.remove();
-            if (parent.equals(dest)) {
-                return map.get(parent);
-            }
-
-            Set<Graph.Edge<String, String>> sortedListChildren = new TreeSet<>(new edgeComparator());
-            sortedListChildren.addAll(graph.listChildren(parent));
-            for (Graph.Edge<String, String> e : sortedListChildren) {
-                Graph.Node<String> child = e.getChild();
-                if (!map.containsKey(child)) {
-                    ArrayList<Graph.Edge<String, String>> parentPath = new ArrayList<>(map.get(parent)); //no rep exposure
-                    map.put(child, parentPath);
-                    map.get(child).add(e);
-                    queue.add(child);
+        int start = graph.idOf(starting.getData());
+        int dest = graph.idOf(ending.getData());
+        if (!graph.mayReach(start, dest)) {
+            return null;
+        }
+
+        Frontier frontier = search(start, new int[] {dest}, graph);
+        return frontier.parentOf[dest] < 0 ? null : pathTo(dest, start, frontier.parentOf, frontier.labelOf, graph);
+    }
+
+    /**
+     * Finds the paths findShortestPath finds between each starting character and the ending character
+     * at the same place in the other list, all at once. The queries are grouped by starting character,
+     * and one search from each starting character, as far as its furthest ending character, answers
+     * all of its queries. The searches from different starting characters run at the same time on the
+     * given executor, and this waits for all of them to finish.
+     * @param starting the starting character of each query
+     * @param ending the ending character of each query, in the same order
+     * @param graph the graph we want to find the shortest paths on
+     * @param executor runs the search from each distinct starting character
+     * @return the shortest path of each query, in the same order as the queries, each null if there is
+     * no path between its two characters.
+     * @throws IllegalArgumentException if the given lists, graph or executor, or any character, is null,
+     * the two lists are of different sizes, or a character doesn't exist in the graph.
+     */
+    public static List<ArrayList<Graph.Edge<String, String>>> findShortestPaths(
+            List<Graph.Node<String>> starting, List<Graph.Node<String>> ending, GraphView<String, String> graph,
+            Executor executor) {
+        if (starting == null || ending == null || graph == null || executor == null) {
+            throw new IllegalArgumentException("starting/ending/graph/executor cannot be null");
+        }
+        if (starting.size() != ending.size()) {
+            throw new IllegalArgumentException("Every query needs a starting and an ending character");
+        }
+        int[] ends = new int[ending.size()];
+        // starting node id -> the indexes of its queries, in order
+        Map<Integer, List<Integer>> bySource = new LinkedHashMap<>();
+        for (int i = 0; i < ends.length; i++) {
+            if (starting.get(i) == null || ending.get(i) == null) {
+                throw new IllegalArgumentException("starting/ending cannot be null");
+            }
+            int start = graph.idOf(starting.get(i).getData());
+            ends[i] = graph.idOf(ending.get(i).getData());
+            if (start < 0 || ends[i] < 0) {
+                throw new IllegalArgumentException("node must exist before finding the path");
+            }
+            bySource.computeIfAbsent(start, k -> new ArrayList<>()).add(i);
+        }
+
+        Map<Integer, CompletableFuture<List<ArrayList<Graph.Edge<String, String>>>>> searches = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Integer>> source : bySource.entrySet()) {
+            int start = source.getKey();
+            int[] dests = new int[source.getValue().size()];
+            for (int j = 0; j < dests.length; j++) {
+                dests[j] = ends[source.getValue().get(j)];
+            }
+            searches.put(start, CompletableFuture.supplyAsync(() -> {
+                Frontier frontier = search(start, dests, graph);
+                List<ArrayList<Graph.Edge<String, String>>> paths = new ArrayList<>();
+                for (int dest : dests) {
+                    paths.add(frontier.parentOf[dest] < 0 ? null
+                            : pathTo(dest, start, frontier.parentOf, frontier.labelOf, graph));
+                }
+                return paths;
+            }, executor));
+        }
 
+        List<ArrayList<Graph.Edge<String, String>>> result = new ArrayList<>(Collections.nCopies(ends.length, null));
+        try {
+            for (Map.Entry<Integer, List<Integer>> source : bySource.entrySet()) {
+                List<ArrayList<Graph.Edge<String, String>>> paths = searches.get(source.getKey()).join();
+                for (int j = 0; j < paths.size(); j++) {
+                    result.set(source.getValue().get(j), paths.get(j));
                 }
             }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
+        return result;
+    }
 
-        return null;
+    /**
+     * Finds the same paths as findShortestPaths(starting, ending, graph, executor), running the searches
+     * on the given number of threads.
+     * @param starting the starting character of each query
+     * @param ending the ending character of each query, in the same order
+     * @param graph the graph we want to find the shortest paths on
+     * @param threads the number of threads to use
+     * @return the shortest path of each query, in the same order as the queries, each null if there is
+     * no path between its two characters.
+     * @throws IllegalArgumentException if the given lists or graph, or any character, is null, the two
+     * lists are of different sizes, a character doesn't exist in the graph, or threads is less than 1.
+     */
+    public static List<ArrayList<Graph.Edge<String, String>>> findShortestPaths(
+            List<Graph.Node<String>> starting, List<Graph.Node<String>> ending, GraphView<String, String> graph,
+            int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread.");
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return findShortestPaths(starting, ending, graph, pool);
+        } finally {
+            pool.shutdown();
+        }
     }
 
     /**
-     * Compares two edges for order. Returns a negative number if the edge is less lexicographical in childNode's name,
-     * returns a positive number if the edge is greater lexicographical in childNode's name.
-     * If childNode are the same, returns a negative number if the edge is less lexicographical in edge label
-     * returns positive if it is greater lexicographical in label. Returns 0 when two edges are same in both
-     * child's name and edge label.
+     * Runs the BFS of findShortestPath from start until every one of the given nodes has been reached,
+     * or every node that can be reached has been. Nodes keep the first parent they are reached from,
+     * so searching on for further nodes doesn't change the paths to nodes already reached.
+     * @param start the id of the node to search from
+     * @param dests the ids of the nodes to find paths to
+     * @param graph the graph to be searched
+     * @return the state of the finished search
      */
-    private static class edgeComparator implements Comparator<Graph.Edge<String, String>> {
-        /**
-         * compare two edges based on their child nodes and labels lexicographically.
-         * @param e1 the first edge to be compared.
-         * @param e2 the second edge to be compared.
-         * @return a negative integer, zero,or a positive integer as the first edge is lexicographically less than,
-         * equal to, or greater than the second.x
-         */
-        @Override
-        public int compare(Graph.Edge<String, String> e1, Graph.Edge<String, String> e2) {
-            //compare child node, if they are different, sort in increasing order
-            if (!e1.getChild().equals(e2.getChild())) {
-                return e1.getChild().getData().compareTo(e2.getChild().getData());
+    private static Frontier search(int start, int[] dests, GraphView<String, String> graph) {
+        // BFS over node ids. The edge that first reaches a node is remembered as its parent id
+        // and label, so each node is stored once and the paths are only built at the end.
+        Frontier frontier = new Frontier(graph.size());
+        frontier.wanted = new boolean[graph.size()];
+        for (int dest : dests) {
+            // a node the graph knows can't be reached isn't looked for, which would search everything reachable
+            if (!frontier.wanted[dest] && graph.mayReach(start, dest)) {
+                frontier.wanted[dest] = true;
+                frontier.remaining++;
+            }
+        }
+        boolean sorted = Comparator.naturalOrder().equals(graph.childOrder());
+        int head = 0;
+
+        frontier.queue[frontier.tail++] = start;
+        frontier.parentOf[start] = start;
+        if (frontier.wanted[start]) {
+            frontier.remaining--;
+        }
+        while (head < frontier.tail && frontier.remaining > 0) {
+            int parent = frontier.queue[head++];
+
+            // Children not reached yet are queued, lexicographically by name: already in order if
+            // the graph keeps its children sorted, otherwise only the new ones are sorted here.
+            int first = frontier.tail;
+            frontier.parent = parent;
+            graph.forEachChild(parent, frontier);
+            if (!sorted && frontier.tail - first > 1) {
+                sortByName(frontier.queue, first, frontier.tail, graph);
+            }
+        }
+        return frontier;
+    }
+
+    /**
+     * Finds the same path as findShortestPath, but searches from both characters at once, a level at
+     * a time, always growing the side whose last level is smaller, until the two searches meet.
+     * Each side only has to reach about half as far, so far fewer characters are visited.
+     * The path returned is the same lexicographically least one: of the characters where the two
+     * searches meet, the one the forward search reached first is used, and from there the path
+     * continues through the least named character one step closer to the end each time.
+     * The graph has to find the parents of a node, which a Graph does quickly once
+     * Graph#indexParents() has been called.
+     * @param starting starting character which the search starts from
+     * @param ending ending character which the search ends on
+     * @param graph the graph we want to find the shortest path on
+     * @return the shortest path between two characters, null if there is no path between two characters.
+     * @throws  IllegalArgumentException if the given starting or ending or the graph is null, or node to be
+     * finding paths on doesn't exist in the graph.
+     */
+    public static ArrayList<Graph.Edge<String, String>> findShortestPathBidirectional(
+            Graph.Node<String> starting, Graph.Node<String> ending, GraphView<String, String> graph) {
+        if (starting == null || ending == null || graph == null) {
+            throw new IllegalArgumentException("starting/ending/graph cannot be null");
+        }
+        if (graph.idOf(starting.getData()) < 0 || graph.idOf(ending.getData()) < 0) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        int start = graph.idOf(starting.getData());
+        int dest = graph.idOf(ending.getData());
+        if (start == dest) {
+            return new ArrayList<>();
+        }
+        if (!graph.mayReach(start, dest)) {
+            return null;
+        }
+
+        // forward: the same BFS as findShortestPath, whose levels are in lexicographic order
+        Frontier frontier = new Frontier(graph.size());
+        boolean sorted = Comparator.naturalOrder().equals(graph.childOrder());
+        frontier.queue[frontier.tail++] = start;
+        frontier.parentOf[start] = start;
+        int forwardLevel = 0;
+
+        // backward: a plain BFS along edges to parents, recording each node's distance to the end
+        BackFrontier back = new BackFrontier(graph.size(), frontier.parentOf);
+        back.queue[back.tail++] = dest;
+        back.distance[dest] = 0;
+        int backLevel = 0;
+
+        // Once a level reaches a node the other side reached, every node on a shortest path that
+        // the forward search has reached is in its last level, so that level is searched in order.
+        while (!back.met) {
+            int forwardSize = frontier.tail - forwardLevel;
+            int backSize = back.tail - backLevel;
+            if (forwardSize == 0 || backSize == 0) {
+                return null;
+            }
+            if (forwardSize <= backSize) {
+                int end = frontier.tail;
+                for (int head = forwardLevel; head < end; head++) {
+                    int parent = frontier.queue[head];
+                    int first = frontier.tail;
+                    frontier.parent = parent;
+                    graph.forEachChild(parent, frontier);
+                    if (!sorted && frontier.tail - first > 1) {
+                        sortByName(frontier.queue, first, frontier.tail, graph);
+                    }
+                }
+                forwardLevel = end;
+                for (int i = forwardLevel; i < frontier.tail && !back.met; i++) {
+                    back.met = back.distance[frontier.queue[i]] >= 0;
+                }
             } else {
-                return e1.getLabel().compareTo(e2.getLabel());
+                int end = back.tail;
+                back.depth++;
+                for (int head = backLevel; head < end; head++) {
+                    graph.forEachParent(back.queue[head], back);
+                }
+                backLevel = end;
+            }
+        }
+
+        int meet = -1;
+        for (int i = forwardLevel; meet < 0; i++) {
+            if (back.distance[frontier.queue[i]] >= 0) {
+                meet = frontier.queue[i];
+            }
+        }
+        int[] distance = back.distance;
+        ArrayList<Graph.Edge<String, String>> path = pathTo(meet, start, frontier.parentOf, frontier.labelOf, graph);
+        // from the meeting node on, take the least named child one step closer to the end
+        for (int node = meet; node != dest; ) {
+            int next = -1;
+            for (int child : graph.childrenOf(node)) {
+                if (distance[child] == distance[node] - 1
+                        && (next < 0 || graph.dataOf(child).compareTo(graph.dataOf(next)) < 0)) {
+                    next = child;
+                }
+            }
+            path.add(new Graph.Edge<>(new Graph.Node<>(graph.dataOf(node)), new Graph.Node<>(graph.dataOf(next)),
+                    Collections.min(graph.labelsOf(node, next))));
+            node = next;
+        }
+        return path;
+    }
+
+    // Sorts queue[from] to queue[to - 1] by the names of the nodes with those ids.
+    private static void sortByName(int[] queue, int from, int to, GraphView<String, String> graph) {
+        Integer[] ids = new Integer[to - from];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = queue[from + i];
+        }
+        Arrays.sort(ids, Comparator.comparing(graph::dataOf));
+        for (int i = 0; i < ids.length; i++) {
+            queue[from + i] = ids[i];
+        }
+    }
+
+    /**
+     * <b>Frontier</b> is the state of a BFS over node ids. As it is given the children of the node
+     * being visited, it queues every child not reached yet and remembers the lexicographically
+     * least of the (possibly many) labels leading to it.
+     */
+    private static class Frontier implements GraphView.ChildConsumer<String> {
+        // the id of the node each node was reached from, -1 if not reached yet
+        private final int[] parentOf;
+
+        // the label of the edge each node was reached by
+        private final String[] labelOf;
+
+        // the ids of reached nodes, in the order they were reached
+        private final int[] queue;
+
+        // the number of ids in queue
+        private int tail;
+
+        // the id of the node being visited
+        private int parent;
+
+        // the nodes the search is looking for, null if none, and how many of them aren't reached yet
+        private boolean[] wanted;
+        private int remaining;
+
+        Frontier(int size) {
+            parentOf = new int[size];
+            labelOf = new String[size];
+            queue = new int[size];
+            Arrays.fill(parentOf, -1);
+        }
+
+        @Override
+        public void accept(int child, List<String> labels) {
+            if (parentOf[child] < 0) {
+                String least = labels.get(0);
+                for (int i = 1; i < labels.size(); i++) {
+                    if (labels.get(i).compareTo(least) < 0) {
+                        least = labels.get(i);
+                    }
+                }
+                parentOf[child] = parent;
+                labelOf[child] = least;
+                queue[tail++] = child;
+                if (wanted != null && wanted[child]) {
+                    remaining--;
+                }
             }
         }
     }
 
+    /**
+     * <b>BackFrontier</b> is the state of a BFS from the end along edges to parents. As it is given
+     * the parents of the node being visited, it queues every parent not reached yet with its
+     * distance to the end, and notes when one was already reached by the forward search.
+     */
+    private static class BackFrontier implements GraphView.ChildConsumer<String> {
+        // the number of edges from each node to the end, -1 if not reached yet
+        private final int[] distance;
+
+        // the ids of reached nodes, in the order they were reached
+        private final int[] queue;
+
+        // the forward search's parent of each node, -1 if it hasn't reached the node
+        private final int[] forward;
+
+        // the number of ids in queue
+        private int tail;
+
+        // the distance of the nodes being queued
+        private int depth;
+
+        // true once a node reached by both searches has been found
+        private boolean met;
+
+        BackFrontier(int size, int[] forward) {
+            distance = new int[size];
+            queue = new int[size];
+            this.forward = forward;
+            Arrays.fill(distance, -1);
+        }
+
+        @Override
+        public void accept(int parent, List<String> labels) {
+            if (distance[parent] < 0) {
+                distance[parent] = depth;
+                queue[tail++] = parent;
+                met |= forward[parent] >= 0;
+            }
+        }
+    }
+
+    /**
+     * Builds the list of edges leading from start to end out of the parent ids and labels
+     * recorded by the BFS.
+     * @param end the id of the last node on the path
+     * @param start the id of the first node on the path
+     * @param parentOf the id of the node each node was reached from
+     * @param labelOf the label of the edge each node was reached by
+     * @param graph the graph the path is in
+     * @return the edges from start to end, in order
+     */
+    private static ArrayList<Graph.Edge<String, String>> pathTo(int end, int start, int[] parentOf, String[] labelOf,
+                                                                GraphView<String, String> graph) {
+        ArrayList<Graph.Edge<String, String>> path = new ArrayList<>();
+        for (int child = end; child != start; child = parentOf[child]) {
+            Graph.Node<String> parentNode = new Graph.Node<>(graph.dataOf(parentOf[child]));
+            Graph.Node<String> childNode = new Graph.Node<>(graph.dataOf(child));
+            path.add(new Graph.Edge<>(parentNode, childNode, labelOf[child]));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
     /**
      * Allows the user to find the shortest path between the two marvel character they entered.
      * If there isn't a path between two character, then will tell them no path found.
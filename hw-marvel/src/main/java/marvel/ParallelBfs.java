@@ -0,0 +1,420 @@
+package marvel;
+
+import graph.Graph;
+import graph.GraphView;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <b>ParallelBfs</b> is an immutable, compact copy of the nodes and edges of a graph, keeping only the
+ * least label of the edges from one node to another, that finds the same shortest paths as
+ * MarvelPaths.findShortestPath with a breadth first search run on several threads.
+ *
+ * <p>The search goes a level at a time, keeping the level being visited and the nodes reached so
+ * far as bitsets over node ids. While the level is small it is searched top-down: the children of
+ * every node in it are visited in parallel, and each child not reached yet is claimed with a
+ * compare-and-set on its bit. Once the edges out of the level outnumber the edges out of the nodes
+ * not reached yet by a wide margin it switches to bottom-up: every node not reached yet looks in
+ * parallel for any parent in the level, and stops at the first one (Beamer, Asanovic and Patterson's
+ * direction-optimizing BFS). It switches back once the level gets small again.</p>
+ *
+ * <p>Neither direction visits nodes in the order findShortestPath does, so the levels only give the
+ * distance of every node. The path is then picked out among the nodes on some shortest path, going
+ * through them a level at a time in the order findShortestPath would queue them, which gives the
+ * same lexicographically least path. Later changes to the graph the copy was made from are not
+ * reflected in it, and nodes added to it later can't be searched from or to.</p>
+ */
+public final class ParallelBfs {
+
+    // Abstract Function:
+    // ParallelBfs represents the graph with the nodes names[0] ... names[n - 1] and an edge labeled
+    // labels[k] from v to children[k] for every childStart[v] <= k < childStart[v + 1]. parents holds the
+    // same edges the other way: an edge from parents[k] to v for every parentStart[v] <= k < parentStart[v + 1].
+
+    // Rep Invariant:
+    // graph, names, childStart, children, labels, parentStart, parents != null, names.length == n.
+    // childStart.length == parentStart.length == n + 1, both start at 0 and are non-decreasing.
+    // childStart[n] == children.length == labels.length == parentStart[n] == parents.length, every id
+    // in children and parents is between 0 and n - 1.
+    // graph.idOf(names[v]) == v for every v, the first n nodes of graph being the ones copied.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // switch to bottom-up once the edges out of the level are more than 1 / ALPHA of the edges out
+    // of the nodes not reached yet, and back once the level has fewer than 1 / BETA of the nodes
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    // the fewest 64-node words of the bitsets that one task searches on its own
+    private static final int GRAIN = 8;
+
+    // the graph the copy was made from, which gives the ids of the nodes
+    private final GraphView<String, String> graph;
+
+    // id -> the name of the node
+    private final String[] names;
+
+    // the children of node v are children[childStart[v] ... childStart[v + 1] - 1], and the least label
+    // of the edges from v to children[k] is labels[k]
+    private final int[] childStart;
+    private final int[] children;
+    private final String[] labels;
+
+    // the parents of node v are parents[parentStart[v] ... parentStart[v + 1] - 1]
+    private final int[] parentStart;
+    private final int[] parents;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (childStart.length == parentStart.length) : "Both directions cover every node";
+        assert (children.length == parents.length && children.length == labels.length)
+                : "Both directions hold every edge";
+        assert (names.length == childStart.length - 1) : "One name per node";
+        if (DEBUG) {
+            int n = childStart.length - 1;
+            for (int k = 0; k < children.length; k++) {
+                assert (children[k] >= 0 && children[k] < n && parents[k] >= 0 && parents[k] < n) : "No such node";
+            }
+        }
+    }
+
+    private ParallelBfs(GraphView<String, String> graph, String[] names, int[] childStart, int[] children,
+                        String[] labels, int[] parentStart, int[] parents) {
+        this.graph = graph;
+        this.names = names;
+        this.childStart = childStart;
+        this.children = children;
+        this.labels = labels;
+        this.parentStart = parentStart;
+        this.parents = parents;
+        checkRep();
+    }
+
+    /**
+     * Copy the nodes of the given graph and its edges, both ways, for searching.
+     * @param graph the graph to be copied
+     * @return a compact copy of graph to search on
+     * @throws IllegalArgumentException if graph is null
+     */
+    public static ParallelBfs from(GraphView<String, String> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        int n = graph.size();
+        String[] names = new String[n];
+        int[] childStart = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            names[v] = graph.dataOf(v);
+            childStart[v + 1] = childStart[v] + graph.childrenOf(v).length;
+        }
+        int[] children = new int[childStart[n]];
+        String[] labels = new String[children.length];
+        RowFiller filler = new RowFiller(children, labels);
+        int[] parentStart = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            filler.next = childStart[v];
+            graph.forEachChild(v, filler);
+            for (int k = childStart[v]; k < childStart[v + 1]; k++) {
+                parentStart[children[k] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            parentStart[v + 1] += parentStart[v];
+        }
+        int[] parents = new int[children.length];
+        int[] next = Arrays.copyOf(parentStart, n);
+        for (int v = 0; v < n; v++) {
+            for (int k = childStart[v]; k < childStart[v + 1]; k++) {
+                parents[next[children[k]]++] = v;
+            }
+        }
+        return new ParallelBfs(graph, names, childStart, children, labels, parentStart, parents);
+    }
+
+    /**
+     * <b>RowFiller</b> writes every child of a node and the least label of the edges to it into the
+     * edge arrays, from position next on.
+     */
+    private static class RowFiller implements GraphView.ChildConsumer<String> {
+        // the edge arrays being filled
+        private final int[] children;
+        private final String[] labels;
+
+        // the position the next edge goes to
+        private int next;
+
+        RowFiller(int[] children, String[] labels) {
+            this.children = children;
+            this.labels = labels;
+        }
+
+        @Override
+        public void accept(int childId, List<String> edgeLabels) {
+            children[next] = childId;
+            labels[next] = Collections.min(edgeLabels);
+            next++;
+        }
+    }
+
+    /**
+     * Finds the same path as MarvelPaths.findShortestPath on the graph this was copied from, searching
+     * on the threads of the given pool.
+     * @param starting starting character which the search starts from
+     * @param ending ending character which the search ends on
+     * @param pool the pool to search on
+     * @return the lexicographically least shortest path between two characters, null if there is no
+     * path between two characters.
+     * @throws IllegalArgumentException if the given starting or ending is null or wasn't in the graph
+     * when it was copied, or pool is null
+     */
+    public ArrayList<Graph.Edge<String, String>> findShortestPath(Graph.Node<String> starting,
+                                                                  Graph.Node<String> ending, ForkJoinPool pool) {
+        checkRep();
+        if (starting == null || ending == null) {
+            throw new IllegalArgumentException("starting/ending cannot be null");
+        }
+        int start = idOf(starting.getData());
+        int dest = idOf(ending.getData());
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (start == dest) {
+            return new ArrayList<>();
+        }
+        // edges are only ever added to a graph, so nodes it knows to be apart were apart in the copy too
+        if (!graph.mayReach(start, dest)) {
+            return null;
+        }
+        List<long[]> levels = levels(start, dest, pool);
+        return levels == null ? null : pathAlong(levels, start, dest);
+    }
+
+    // Returns the id of the node with the given name, or throws an IllegalArgumentException if it isn't
+    // in the graph or was added to it after the copy was made.
+    private int idOf(String name) {
+        int id = graph.idOf(name);
+        if (id < 0 || id >= names.length) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        return id;
+    }
+
+    // Searches from start a level at a time until dest is reached, and returns the bitset of the nodes
+    // of every level, levels.get(d) holding the nodes d edges from start, or null if dest can't be reached.
+    private List<long[]> levels(int start, int dest, ForkJoinPool pool) {
+        int n = childStart.length - 1;
+        int words = (n + 63) >>> 6;
+        AtomicLongArray visited = new AtomicLongArray(words);
+        long[] frontier = new long[words];
+        frontier[start >>> 6] = 1L << start;
+        visited.set(start >>> 6, 1L << start);
+        List<long[]> levels = new ArrayList<>();
+        levels.add(frontier);
+
+        long frontierSize = 1;
+        long frontierEdges = degree(start);
+        long unvisitedEdges = children.length - frontierEdges;
+        boolean bottomUp = false;
+        while ((frontier[dest >>> 6] & (1L << dest)) == 0) {
+            if (frontierSize == 0) {
+                return null;
+            }
+            if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+            AtomicLongArray next = new AtomicLongArray(words);
+            long[] found = pool.invoke(new LevelTask(this, frontier, visited, next, bottomUp, 0, words));
+            frontier = new long[words];
+            for (int w = 0; w < words; w++) {
+                frontier[w] = next.get(w);
+            }
+            levels.add(frontier);
+            frontierSize = found[0];
+            frontierEdges = found[1];
+            unvisitedEdges -= frontierEdges;
+        }
+        return levels;
+    }
+
+    // Returns the number of children of the node with the given id.
+    private int degree(int v) {
+        return childStart[v + 1] - childStart[v];
+    }
+
+    /**
+     * <b>LevelTask</b> finds the nodes of the next level among the 64-node words lo (inclusive) to
+     * hi (exclusive) of the bitsets, top-down or bottom-up, splitting into smaller tasks while there
+     * are many. It returns the number of nodes it found and the number of edges out of them.
+     */
+    private static class LevelTask extends RecursiveTask<long[]> {
+        // the graph being searched
+        private final ParallelBfs bfs;
+
+        // the nodes of the level being visited, read only
+        private final long[] frontier;
+
+        // the nodes reached so far, and the nodes of the next level
+        private final AtomicLongArray visited;
+        private final AtomicLongArray next;
+
+        // true to look for parents of the nodes not reached yet, false to visit children of the level
+        private final boolean bottomUp;
+
+        // the range of words this task searches
+        private final int lo;
+        private final int hi;
+
+        LevelTask(ParallelBfs bfs, long[] frontier, AtomicLongArray visited, AtomicLongArray next,
+                  boolean bottomUp, int lo, int hi) {
+            this.bfs = bfs;
+            this.frontier = frontier;
+            this.visited = visited;
+            this.next = next;
+            this.bottomUp = bottomUp;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                LevelTask left = new LevelTask(bfs, frontier, visited, next, bottomUp, lo, mid);
+                left.fork();
+                long[] right = new LevelTask(bfs, frontier, visited, next, bottomUp, mid, hi).compute();
+                long[] result = left.join();
+                result[0] += right[0];
+                result[1] += right[1];
+                return result;
+            }
+            return bottomUp ? bottomUp() : topDown();
+        }
+
+        // Claims every child not reached yet of the level's nodes in this task's words.
+        private long[] topDown() {
+            long[] found = new long[2];
+            for (int w = lo; w < hi; w++) {
+                for (long bits = frontier[w]; bits != 0; bits &= bits - 1) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int k = bfs.childStart[u]; k < bfs.childStart[u + 1]; k++) {
+                        int v = bfs.children[k];
+                        if (claim(visited, v)) {
+                            claim(next, v);
+                            found[0]++;
+                            found[1] += bfs.degree(v);
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+
+        // Finds the nodes not reached yet in this task's words that have a parent in the level. Only
+        // this task writes these words, so no other thread races it for them.
+        private long[] bottomUp() {
+            int n = bfs.childStart.length - 1;
+            long[] found = new long[2];
+            for (int w = lo; w < hi; w++) {
+                long reached = 0;
+                for (long bits = ~visited.get(w); bits != 0; bits &= bits - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (v >= n) {
+                        break;
+                    }
+                    for (int k = bfs.parentStart[v]; k < bfs.parentStart[v + 1]; k++) {
+                        int u = bfs.parents[k];
+                        if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                            reached |= 1L << v;
+                            found[0]++;
+                            found[1] += bfs.degree(v);
+                            break;
+                        }
+                    }
+                }
+                if (reached != 0) {
+                    visited.set(w, visited.get(w) | reached);
+                    next.set(w, reached);
+                }
+            }
+            return found;
+        }
+    }
+
+    // Sets the bit of node v in the given bitset, and returns true if it was not set before.
+    private static boolean claim(AtomicLongArray bits, int v) {
+        int w = v >>> 6;
+        long bit = 1L << v;
+        long old = bits.get(w);
+        while ((old & bit) == 0) {
+            if (bits.compareAndSet(w, old, old | bit)) {
+                return true;
+            }
+            old = bits.get(w);
+        }
+        return false;
+    }
+
+    // Returns the path findShortestPath finds from start to dest, whose levels have been found. Only the
+    // nodes on some shortest path to dest are kept, and they are queued the way findShortestPath queues
+    // them: a level at a time, each node's children in the next level in increasing order of name.
+    // Every node reaching one of them along a shortest path is kept too, so their order is the same.
+    private ArrayList<Graph.Edge<String, String>> pathAlong(List<long[]> levels, int start, int dest) {
+        int n = childStart.length - 1;
+        int last = levels.size() - 1;
+        // node id -> its level if it is on a shortest path to dest, -1 otherwise
+        int[] onPath = new int[n];
+        Arrays.fill(onPath, -1);
+        onPath[dest] = last;
+        List<Integer> level = List.of(dest);
+        for (int d = last - 1; d >= 0; d--) {
+            long[] bits = levels.get(d);
+            List<Integer> before = new ArrayList<>();
+            for (int v : level) {
+                for (int k = parentStart[v]; k < parentStart[v + 1]; k++) {
+                    int u = parents[k];
+                    if (onPath[u] < 0 && (bits[u >>> 6] & (1L << u)) != 0) {
+                        onPath[u] = d;
+                        before.add(u);
+                    }
+                }
+            }
+            level = before;
+        }
+
+        // node id -> the node before it on the path, and the position of the edge between them
+        int[] parentOf = new int[n];
+        int[] edgeTo = new int[n];
+        Arrays.fill(parentOf, -1);
+        List<Integer> queue = List.of(start);
+        for (int d = 1; d <= last; d++) {
+            List<Integer> reached = new ArrayList<>();
+            for (int u : queue) {
+                int first = reached.size();
+                for (int k = childStart[u]; k < childStart[u + 1]; k++) {
+                    int v = children[k];
+                    if (onPath[v] == d && parentOf[v] < 0) {
+                        parentOf[v] = u;
+                        edgeTo[v] = k;
+                        reached.add(v);
+                    }
+                }
+                reached.subList(first, reached.size()).sort(Comparator.comparing(v -> names[v]));
+            }
+            queue = reached;
+        }
+
+        ArrayList<Graph.Edge<String, String>> path = new ArrayList<>();
+        for (int child = dest; child != start; child = parentOf[child]) {
+            path.add(new Graph.Edge<>(new Graph.Node<>(names[parentOf[child]]), new Graph.Node<>(names[child]),
+                    labels[edgeTo[child]]));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
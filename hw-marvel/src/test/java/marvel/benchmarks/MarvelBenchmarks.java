@@ -0,0 +1,382 @@
+package marvel.benchmarks;
+
+import graph.CompactGraph;
+import graph.Graph;
+import graph.GraphBuilder;
+import graph.GraphView;
+import graph.MappedGraph;
+import graph.OffHeapGraph;
+import marvel.MarvelParser;
+import marvel.MarvelPaths;
+import marvel.ParallelBfs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Rough timing and memory measurements of the marvel graph on the full marvel.csv data set.
+ * These are not JUnit tests; run them with "gradle :hw-marvel:runBenchmarks".
+ * Every benchmark warms up first and reports the average over several rounds.
+ */
+public class MarvelBenchmarks {
+    //This class is not an ADT
+
+    // the data set every benchmark is run on
+    private static final String FILE = "marvel.csv";
+
+    // how many start/end pairs the path benchmarks query
+    private static final int QUERIES = 200;
+
+    /**
+     * Runs every benchmark and prints the results.
+     * @param args an array of command-line arguments for the application
+     */
+    public static void main(String[] args) {
+        Graph<String, String> graph = MarvelPaths.buildGraph(FILE);
+        List<Graph.Node<String>[]> queries = randomPairs(graph, QUERIES);
+        System.out.println("marvel.csv: " + graph.size() + " nodes");
+
+        compareFrozen(graph, queries);
+        compareLoad();
+        parallelLoad();
+        compareMapped(graph, queries);
+        compareBidirectional(queries);
+        compareParallelBfs(graph, queries);
+        compareBatch(graph);
+        compareComponents();
+    }
+
+    /**
+     * Times indexing the components of the marvel graph on one thread and on 4, and compares
+     * findShortestPath between characters in different components without and with the index.
+     * Without it the search goes through the whole component of the start before giving up.
+     */
+    private static void compareComponents() {
+        Map<String, ArrayList<String>> books = MarvelParser.parseData(FILE);
+        Graph<String, String> graph = loadWithBuilder(books);
+        graph.sortChildren(Comparator.naturalOrder());
+        // time runs its work four times, and each run needs a graph not indexed yet
+        Deque<Graph<String, String>> fresh = new ArrayDeque<>();
+        for (int i = 0; i < 4; i++) {
+            fresh.push(loadWithBuilder(books));
+        }
+        System.out.printf("indexComponents: sequential %.2f ms", time(1, () -> fresh.pop().indexComponents()));
+        for (int i = 0; i < 4; i++) {
+            fresh.push(loadWithBuilder(books));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            System.out.printf(", 4 threads %.2f ms (%d processors)%n",
+                    time(1, () -> fresh.pop().indexComponents(pool)), Runtime.getRuntime().availableProcessors());
+        } finally {
+            pool.shutdown();
+        }
+
+        Graph<String, String> indexed = MarvelPaths.buildGraph(FILE);
+        int largest = indexed.componentSizes()[0];
+        List<Graph.Node<String>> big = new ArrayList<>();
+        List<Graph.Node<String>> small = new ArrayList<>();
+        for (int id = 0; id < indexed.size(); id++) {
+            Graph.Node<String> node = new Graph.Node<>(indexed.dataOf(id));
+            (indexed.componentSize(node) == largest ? big : small).add(node);
+        }
+        Random random = new Random(331);
+        List<Graph.Node<String>[]> apart = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            @SuppressWarnings("unchecked")
+            Graph.Node<String>[] q = new Graph.Node[] {big.get(random.nextInt(big.size())),
+                    small.get(random.nextInt(small.size()))};
+            apart.add(q);
+        }
+        System.out.printf("%d components; no path, unindexed: %.4f ms/query, indexed: %.4f ms/query%n",
+                indexed.componentCount(), bfs(graph, apart), bfs(indexed, apart));
+    }
+
+    /**
+     * Compares answering a batch of queries one findShortestPath at a time with findShortestPaths, which
+     * searches once per starting character, on 1, 2 and 4 threads, by queries per second. The batch has
+     * 5000 queries from 50 starting characters, like the distance jobs run over marvel.csv.
+     * @param graph the marvel graph
+     */
+    private static void compareBatch(Graph<String, String> graph) {
+        List<Graph.Node<String>[]> sources = randomPairs(graph, 50);
+        List<Graph.Node<String>[]> targets = randomPairs(graph, 5000);
+        List<Graph.Node<String>> starts = new ArrayList<>();
+        List<Graph.Node<String>> ends = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            starts.add(sources.get(i % sources.size())[0]);
+            ends.add(targets.get(i)[1]);
+        }
+        System.out.printf("one at a time:       %.0f queries/s%n", 1000 / time(starts.size(), () -> {
+            for (int i = 0; i < starts.size(); i++) {
+                MarvelPaths.findShortestPath(starts.get(i), ends.get(i), graph);
+            }
+        }));
+        for (int threads : new int[] {1, 2, 4}) {
+            System.out.printf("batch, %d thread%s:     %.0f queries/s (%d processors)%n", threads,
+                    threads == 1 ? " " : "s", 1000 / time(starts.size(),
+                            () -> MarvelPaths.findShortestPaths(starts, ends, graph, threads)),
+                    Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /**
+     * Compares BFS from the start with the direction-optimizing BFS of ParallelBfs on 1, 2 and 4
+     * threads, and the time to make the copy it searches.
+     * @param graph the marvel graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareParallelBfs(Graph<String, String> graph, List<Graph.Node<String>[]> queries) {
+        ParallelBfs bfs = ParallelBfs.from(graph);
+        System.out.printf("ParallelBfs copy:    %.1f ms (%d processors)%n", time(1, () -> ParallelBfs.from(graph)),
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("BFS from start:      %.3f ms/query%n", bfs(graph, queries));
+        for (int threads : new int[] {1, 2, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                System.out.printf("ParallelBfs, %d thread%s: %.3f ms/query%n", threads, threads == 1 ? " " : "s",
+                        time(queries.size(), () -> {
+                            for (Graph.Node<String>[] q : queries) {
+                                bfs.findShortestPath(q[0], q[1], pool);
+                            }
+                        }));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Compares BFS from the start only with the bidirectional BFS, and the memory the index of
+     * parents the bidirectional BFS needs takes.
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareBidirectional(List<Graph.Node<String>[]> queries) {
+        Graph<String, String> graph = MarvelPaths.buildGraph(FILE);
+        long before = usedHeap();
+        graph.indexParents();
+        long indexBytes = usedHeap() - before;
+
+        System.out.printf("parent index: %d MB%n", indexBytes >> 20);
+        System.out.printf("BFS from start:      %.3f ms/query%n", bfs(graph, queries));
+        System.out.printf("Bidirectional BFS:   %.3f ms/query%n", time(queries.size(), () -> {
+            for (Graph.Node<String>[] q : queries) {
+                MarvelPaths.findShortestPathBidirectional(q[0], q[1], graph);
+            }
+        }));
+    }
+
+    /**
+     * Compares loading the marvel graph from a memory-mapped graph file with building it from the CSV,
+     * and BFS time on the mapped graph.
+     * @param graph the marvel graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareMapped(Graph<String, String> graph, List<Graph.Node<String>[]> queries) {
+        try {
+            Path file = Files.createTempFile("marvel", ".graph");
+            file.toFile().deleteOnExit();
+            MappedGraph.write(graph, file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+            long before = usedHeap();
+            MappedGraph<String, String> mapped = MappedGraph.map(file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+            long mappedBytes = usedHeap() - before;
+            System.out.printf("graph file: %d MB, map %.3f ms, heap %d KB, first idOf %s%n",
+                    Files.size(file) >> 20, time(1, () -> {
+                        try {
+                            MappedGraph.map(file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }), mappedBytes >> 10, mapped.idOf("CAPTAIN-AMERICA"));
+            System.out.printf("BFS on MappedGraph:  %.3f ms/query%n", bfs(mapped, queries));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Times MarvelPaths.buildGraph, parsing included, on one thread and on a growing number of threads,
+     * up to at least 4 and at least the number of processors.
+     */
+    private static void parallelLoad() {
+        System.out.printf("buildGraph: sequential %.1f ms%n", time(1, () -> MarvelPaths.buildGraph(FILE)));
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+            int t = threads;
+            System.out.printf("buildGraph: %2d threads %.1f ms (%d processors)%n", threads,
+                    time(1, () -> MarvelPaths.buildGraph(FILE, t)), cores);
+        }
+    }
+
+    /**
+     * Compares the time to build the marvel graph one addEdge at a time and with a GraphBuilder.
+     * Parsing the file is timed on its own and left out of both.
+     */
+    private static void compareLoad() {
+        Map<String, ArrayList<String>> books = MarvelParser.parseData(FILE);
+        System.out.printf("load: parse %.1f ms, Graph.addEdge %.1f ms, GraphBuilder %.1f ms, GraphBuilder + sortChildren %.1f ms%n",
+                time(1, () -> MarvelParser.parseData(FILE)),
+                time(1, () -> loadWithAddEdge(books)),
+                time(1, () -> loadWithBuilder(books)),
+                time(1, () -> loadWithBuilder(books).sortChildren(Comparator.naturalOrder())));
+    }
+
+    /**
+     * Builds the marvel graph the way MarvelPaths used to, checking for and adding each node and edge on the Graph.
+     * @param books the characters in each book
+     * @return the marvel graph
+     */
+    private static Graph<String, String> loadWithAddEdge(Map<String, ArrayList<String>> books) {
+        Graph<String, String> graph = new Graph<>();
+        for (String bookName : books.keySet()) {
+            ArrayList<String> character = books.get(bookName);
+            for (String s : character) {
+                Graph.Node<String> node = new Graph.Node<>(s);
+                if (!graph.containsNode(node)) {
+                    graph.addNode(node);
+                }
+            }
+            for (int i = 0; i < character.size(); i++) {
+                for (int j = i + 1; j < character.size(); j++) {
+                    graph.addEdge(new Graph.Node<>(character.get(i)), new Graph.Node<>(character.get(j)), bookName);
+                    graph.addEdge(new Graph.Node<>(character.get(j)), new Graph.Node<>(character.get(i)), bookName);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Builds the marvel graph with a GraphBuilder sized for its edges, like MarvelPaths.buildGraph
+     * but without sorting the children.
+     * @param books the characters in each book
+     * @return the marvel graph
+     */
+    private static Graph<String, String> loadWithBuilder(Map<String, ArrayList<String>> books) {
+        int edges = 0;
+        for (ArrayList<String> character : books.values()) {
+            edges += character.size() * (character.size() - 1);
+        }
+        GraphBuilder<String, String> builder = new GraphBuilder<>(0, edges);
+        for (String bookName : books.keySet()) {
+            ArrayList<String> character = books.get(bookName);
+            int[] ids = new int[character.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = builder.addNode(character.get(i));
+            }
+            for (int i = 0; i < ids.length; i++) {
+                for (int j = i + 1; j < ids.length; j++) {
+                    builder.addEdge(ids[i], ids[j], bookName);
+                    builder.addEdge(ids[j], ids[i], bookName);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compares memory and BFS time of the mutable graph and its frozen CSR copy.
+     * @param graph the marvel graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareFrozen(Graph<String, String> graph, List<Graph.Node<String>[]> queries) {
+        long before = usedHeap();
+        Graph<String, String> mutable = MarvelPaths.buildGraph(FILE);
+        long mutableBytes = usedHeap() - before;
+
+        before = usedHeap();
+        CompactGraph<String, String> frozen = graph.freeze();
+        long frozenBytes = usedHeap() - before;
+
+        before = usedHeap();
+        long directBefore = usedDirect();
+        OffHeapGraph<String, String> offHeap = OffHeapGraph.from(graph);
+        long offHeapBytes = usedHeap() - before;
+        long offHeapDirect = usedDirect() - directBefore;
+
+        System.out.printf("heap: Graph %d MB, CompactGraph %d MB, OffHeapGraph %d MB + %d MB direct (%d edges)%n",
+                mutableBytes >> 20, frozenBytes >> 20, offHeapBytes >> 20, offHeapDirect >> 20, frozen.edgeCount());
+        System.out.printf("BFS on Graph:        %.3f ms/query%n", bfs(mutable, queries));
+        System.out.printf("BFS on CompactGraph: %.3f ms/query%n", bfs(frozen, queries));
+        System.out.printf("BFS on OffHeapGraph: %.3f ms/query%n", bfs(offHeap, queries));
+    }
+
+    /**
+     * @return the number of bytes of direct buffers in use.
+     */
+    static long usedDirect() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Times MarvelPaths.findShortestPath over the given queries.
+     * @param graph the graph to be searched
+     * @param queries the start/end pairs to be searched
+     * @return the average milliseconds per query
+     */
+    private static double bfs(GraphView<String, String> graph, List<Graph.Node<String>[]> queries) {
+        return time(queries.size(), () -> {
+            for (Graph.Node<String>[] q : queries) {
+                MarvelPaths.findShortestPath(q[0], q[1], graph);
+            }
+        });
+    }
+
+    /**
+     * Runs the given work once to warm up, then several more times, and returns the
+     * average milliseconds per operation.
+     * @param operations the number of operations one run of work performs
+     * @param work the work to be timed
+     * @return the average milliseconds per operation
+     */
+    static double time(int operations, Runnable work) {
+        work.run();
+        int rounds = 3;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            work.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / rounds / operations;
+    }
+
+    /**
+     * @return the number of bytes in use on the heap after a garbage collection.
+     */
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /**
+     * Picks random start/end pairs from the nodes of the given graph, with a fixed seed
+     * so every run queries the same pairs.
+     * @param graph the graph to pick nodes from
+     * @param count the number of pairs
+     * @return count pairs of nodes, each as a two-element array
+     */
+    @SuppressWarnings("unchecked")
+    static List<Graph.Node<String>[]> randomPairs(GraphView<String, String> graph, int count) {
+        List<Graph.Node<String>> nodes = new ArrayList<>(graph.listNodes());
+        nodes.sort(Comparator.comparing(Graph.Node::getData));
+        Random random = new Random(331);
+        List<Graph.Node<String>[]> pairs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pairs.add(new Graph.Node[] {nodes.get(random.nextInt(nodes.size())), nodes.get(random.nextInt(nodes.size()))});
+        }
+        return pairs;
+    }
+}
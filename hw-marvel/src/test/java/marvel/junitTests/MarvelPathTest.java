@@ -1,12 +1,27 @@
 package marvel.junitTests;
 
 import graph.Graph;
+import graph.GraphView;
+import graph.MappedGraph;
+import graph.OffHeapGraph;
 import marvel.MarvelPaths;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.Timeout;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
 /**
  * This class contains tests to ensure the MarvelPath class is correctly implemented
  */
@@ -14,6 +29,9 @@ public class MarvelPathTest {
     @Rule
     public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     //this graph
     private Graph<String, String> graph;
     @Before
@@ -56,4 +74,181 @@ public class MarvelPathTest {
         Graph.Node<String> start = new Graph.Node<>("Ri.Anderson");
         MarvelPaths.findShortestPath(start, null, graph);
     }
+
+    /**
+     * Test paths are the same on a graph that keeps its children sorted and on copies that don't
+     */
+    @Test
+    public void testSortedAndUnsortedChildren() {
+        GraphView<String, String> frozen = graph.freeze();
+        GraphView<String, String> offHeap = OffHeapGraph.from(graph);
+        for (Graph.Node<String> start : graph.listNodes()) {
+            for (Graph.Node<String> end : graph.listNodes()) {
+                assertEquals(MarvelPaths.findShortestPath(start, end, graph),
+                        MarvelPaths.findShortestPath(start, end, frozen));
+                assertEquals(MarvelPaths.findShortestPath(start, end, graph),
+                        MarvelPaths.findShortestPath(start, end, offHeap));
+            }
+        }
+    }
+
+    /**
+     * Test the bidirectional search finds the same path as the search from the start, with and
+     * without the graph's parents indexed, and on a copy that doesn't keep its children sorted
+     */
+    @Test
+    public void testBidirectional() {
+        GraphView<String, String> frozen = graph.freeze();
+        for (int pass = 0; pass < 2; pass++) {
+            for (Graph.Node<String> start : graph.listNodes()) {
+                for (Graph.Node<String> end : graph.listNodes()) {
+                    assertEquals(MarvelPaths.findShortestPath(start, end, graph),
+                            MarvelPaths.findShortestPathBidirectional(start, end, graph));
+                    assertEquals(MarvelPaths.findShortestPath(start, end, graph),
+                            MarvelPaths.findShortestPathBidirectional(start, end, frozen));
+                }
+            }
+            graph.indexParents();
+        }
+    }
+
+    /**
+     * Test the bidirectional search follows edges one way only, and picks the least named path
+     */
+    @Test
+    public void testBidirectionalDirected() {
+        Graph<String, String> g = new Graph<>();
+        for (String name : new String[] {"s", "b", "a", "c", "t"}) {
+            g.addNode(new Graph.Node<>(name));
+        }
+        Graph.Node<String> s = new Graph.Node<>("s");
+        Graph.Node<String> t = new Graph.Node<>("t");
+        g.addEdge(s, new Graph.Node<>("b"), "1");
+        g.addEdge(s, new Graph.Node<>("a"), "2");
+        g.addEdge(new Graph.Node<>("b"), t, "3");
+        g.addEdge(new Graph.Node<>("a"), t, "5");
+        g.addEdge(new Graph.Node<>("a"), t, "4");
+        g.addEdge(t, new Graph.Node<>("c"), "6");
+        g.indexParents();
+        assertEquals(MarvelPaths.findShortestPath(s, t, g), MarvelPaths.findShortestPathBidirectional(s, t, g));
+        assertEquals(MarvelPaths.findShortestPathBidirectional(s, t, g).get(0).getChild().getData(), "a");
+        assertEquals(MarvelPaths.findShortestPathBidirectional(s, t, g).get(1).getLabel(), "4");
+        assertNull(MarvelPaths.findShortestPathBidirectional(t, s, g));
+        assertEquals(MarvelPaths.findShortestPathBidirectional(t, t, g).size(), 0);
+    }
+
+    /**
+     * Test building the graph on many threads gives the same graph, with the same ids, as on one
+     */
+    @Test
+    public void testParallelBuild() {
+        for (int threads = 1; threads <= 4; threads++) {
+            Graph<String, String> parallel = MarvelPaths.buildGraph("UWProfessorsCustom.csv", threads);
+            assertEquals(parallel.size(), graph.size());
+            for (int id = 0; id < graph.size(); id++) {
+                assertEquals(parallel.dataOf(id), graph.dataOf(id));
+                assertArrayEquals(parallel.childrenOf(id), graph.childrenOf(id));
+                for (int child : graph.childrenOf(id)) {
+                    assertEquals(parallel.labelsOf(id, child), graph.labelsOf(id, child));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test building the graph doesn't allow fewer than one thread
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testNoThreads() {
+        MarvelPaths.buildGraph("UWProfessorsCustom.csv", 0);
+    }
+
+    /**
+     * Test the graph saved to a graph file and mapped back in has the same nodes, edges and paths
+     */
+    @Test
+    public void testMappedRoundTrip() throws IOException {
+        Path file = folder.newFile().toPath();
+        MappedGraph.write(graph, file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+        MappedGraph<String, String> mapped = MappedGraph.map(file, MappedGraph.Codec.STRING, MappedGraph.Codec.STRING);
+        assertEquals(mapped.listNodes(), graph.listNodes());
+        for (Graph.Node<String> start : graph.listNodes()) {
+            assertEquals(mapped.idOf(start.getData()), graph.idOf(start.getData()));
+            assertEquals(mapped.listChildren(start), graph.listChildren(start));
+            for (Graph.Node<String> end : graph.listNodes()) {
+                assertEquals(MarvelPaths.findShortestPath(start, end, mapped),
+                        MarvelPaths.findShortestPath(start, end, graph));
+            }
+        }
+    }
+
+    /**
+     * Test the paths found in one batch, on a thread pool and on a given number of threads, are the
+     * ones found one at a time, in the order of the queries
+     */
+    @Test
+    public void testBatch() {
+        List<Graph.Node<String>> starts = new ArrayList<>();
+        List<Graph.Node<String>> ends = new ArrayList<>();
+        for (Graph.Node<String> start : graph.listNodes()) {
+            for (Graph.Node<String> end : graph.listNodes()) {
+                starts.add(start);
+                ends.add(end);
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<ArrayList<Graph.Edge<String, String>>> paths = MarvelPaths.findShortestPaths(starts, ends, graph, executor);
+            assertEquals(paths, MarvelPaths.findShortestPaths(starts, ends, graph, 2));
+            assertEquals(starts.size(), paths.size());
+            for (int i = 0; i < starts.size(); i++) {
+                assertEquals(MarvelPaths.findShortestPath(starts.get(i), ends.get(i), graph), paths.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test a batch with more starting characters than ending characters
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testBatchDifferentSizes() {
+        MarvelPaths.findShortestPaths(List.of(new Graph.Node<>("Schafer")), List.of(), graph, 1);
+    }
+
+    /**
+     * Test a batch with a character doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testBatchNotExist() {
+        MarvelPaths.findShortestPaths(List.of(new Graph.Node<>("Schafer")), List.of(new Graph.Node<>("Nobody")),
+                graph, 1);
+    }
+
+    /**
+     * Test the graph is built with its components indexed, and characters in different components
+     * have no path between them, one at a time, both ways and in a batch
+     */
+    @Test
+    public void testComponents() {
+        assertEquals(graph.componentSizes().length, graph.componentCount());
+        Graph<String, String> g = new Graph<>();
+        for (String name : new String[] {"a", "b", "c", "d"}) {
+            g.addNode(new Graph.Node<>(name));
+        }
+        g.indexComponents();
+        g.addEdge(new Graph.Node<>("a"), new Graph.Node<>("b"), "1");
+        g.addEdge(new Graph.Node<>("c"), new Graph.Node<>("d"), "2");
+        g.indexParents();
+        Graph.Node<String> a = new Graph.Node<>("a");
+        Graph.Node<String> d = new Graph.Node<>("d");
+        assertEquals(g.componentSize(a), 2);
+        assertNull(MarvelPaths.findShortestPath(a, d, g));
+        assertNull(MarvelPaths.findShortestPathBidirectional(a, d, g));
+        List<ArrayList<Graph.Edge<String, String>>> paths = MarvelPaths.findShortestPaths(List.of(a, a), List.of(d,
+                new Graph.Node<>("b")), g, 1);
+        assertNull(paths.get(0));
+        assertEquals(MarvelPaths.findShortestPath(a, new Graph.Node<>("b"), g), paths.get(1));
+    }
 }
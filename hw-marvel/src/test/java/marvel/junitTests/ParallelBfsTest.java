@@ -0,0 +1,139 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import marvel.MarvelPaths;
+import marvel.ParallelBfs;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class contains tests to ensure the ParallelBfs class is correctly implemented
+ */
+public class ParallelBfsTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * Test for copying a null Graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void copyNullGraph() {
+        ParallelBfs.from(null);
+    }
+
+    /**
+     * Test for path finding on a node doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void endNotExist() {
+        Graph<String, String> graph = MarvelPaths.buildGraph("UWProfessorsCustom.csv");
+        ParallelBfs.from(graph).findShortestPath(new Graph.Node<>("Schafer"), new Graph.Node<>("Nobody"),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Test for path finding to a node added to the graph after it was copied
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void endAddedLater() {
+        Graph<String, String> graph = MarvelPaths.buildGraph("UWProfessorsCustom.csv");
+        ParallelBfs bfs = ParallelBfs.from(graph);
+        graph.addNode(new Graph.Node<>("Nobody"));
+        bfs.findShortestPath(new Graph.Node<>("Schafer"), new Graph.Node<>("Nobody"), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Test for path finding with no pool
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void searchOnNoPool() {
+        Graph<String, String> graph = MarvelPaths.buildGraph("UWProfessorsCustom.csv");
+        ParallelBfs.from(graph).findShortestPath(new Graph.Node<>("Schafer"), new Graph.Node<>("Schafer"), null);
+    }
+
+    /**
+     * Test edges added to the graph after it was copied, with a lesser label, don't change the paths
+     */
+    @Test
+    public void findAfterEdgeAdded() {
+        Graph<String, String> graph = new Graph<>();
+        Graph.Node<String> a = new Graph.Node<>("a");
+        Graph.Node<String> b = new Graph.Node<>("b");
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addEdge(a, b, "y");
+        graph.addEdge(a, b, "x");
+        ParallelBfs bfs = ParallelBfs.from(graph);
+        graph.addEdge(a, b, "w");
+        assertEquals(List.of(new Graph.Edge<>(a, b, "x")), bfs.findShortestPath(a, b, ForkJoinPool.commonPool()));
+    }
+
+    /**
+     * Test the paths between every pair of characters are the ones findShortestPath finds
+     */
+    @Test
+    public void findSameAsBfs() {
+        Graph<String, String> graph = MarvelPaths.buildGraph("staffSuperheroes.csv");
+        ParallelBfs bfs = ParallelBfs.from(graph);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int a = 0; a < graph.size(); a++) {
+                for (int b = 0; b < graph.size(); b++) {
+                    Graph.Node<String> start = new Graph.Node<>(graph.dataOf(a));
+                    Graph.Node<String> end = new Graph.Node<>(graph.dataOf(b));
+                    assertEquals(MarvelPaths.findShortestPath(start, end, graph),
+                            bfs.findShortestPath(start, end, pool));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test the paths on random directed graphs, whose children are in no particular order and some of
+     * which are searched bottom-up, are the ones findShortestPath finds
+     */
+    @Test
+    public void findOnRandomGraphs() {
+        ForkJoinPool[] pools = {new ForkJoinPool(1), new ForkJoinPool(2), new ForkJoinPool(3)};
+        try {
+            findOnRandomGraphs(pools);
+        } finally {
+            for (ForkJoinPool pool : pools) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Compares the paths on random graphs, searching on each of the given pools in turn.
+    private void findOnRandomGraphs(ForkJoinPool[] pools) {
+        Random random = new Random(331);
+        for (int round = 0; round < 20; round++) {
+            Graph<String, String> graph = new Graph<>();
+            int n = 300;
+            for (int i = 0; i < n; i++) {
+                graph.addNode(new Graph.Node<>("c" + random.nextInt(1000) + "-" + i));
+            }
+            int edges = (round % 4 + 1) * 2 * n;
+            for (int i = 0; i < edges; i++) {
+                graph.addEdge(new Graph.Node<>(graph.dataOf(random.nextInt(n))),
+                        new Graph.Node<>(graph.dataOf(random.nextInt(n))), "b" + random.nextInt(5));
+            }
+            ParallelBfs bfs = ParallelBfs.from(graph);
+            for (int q = 0; q < 20; q++) {
+                Graph.Node<String> start = new Graph.Node<>(graph.dataOf(random.nextInt(n)));
+                Graph.Node<String> end = new Graph.Node<>(graph.dataOf(random.nextInt(n)));
+                assertEquals(MarvelPaths.findShortestPath(start, end, graph),
+                        bfs.findShortestPath(start, end, pools[q % pools.length]));
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package pathfinder;
+
+import graph.GraphView;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+/**
+ * A* Algorithm Class implements the A* search that finds the minimum-cost path between two nodes
+ * with a type of D in a graph with all non-negative edge weights with a type of Double. It works like
+ * Dijkstra's algorithm, but uses a Heuristic to settle nodes that lead towards the end first, so it
+ * usually settles far fewer nodes before reaching it.
+ */
+public class AStarAlgorithm {
+    //This class is not an ADT
+
+    /**
+     * Returns the minimum-cost path between two given nodes (starting and ending) on a graph
+     * using the A* algorithm with the given heuristic.
+     * @param starting the start node to find path from
+     * @param ending the end node to find path to
+     * @param graph the graph that we want to find the shortest path on
+     * @param heuristic the estimate of the cost between two nodes
+     * @return a shortest path between the starting and ending node, return null if no path found.
+     * @param <D> the type of the node
+     * @spec.requires heuristic is consistent: it is never negative, and for every edge from a to b
+     * with cost c, heuristic.estimate(a, ending) &lt;= c + heuristic.estimate(b, ending)
+     * @throws IllegalArgumentException if the starting/ending/graph/heuristic is null, or the given
+     * starting or ending nodes is not exist in the graph.
+     */
+    public static <D> Path<D> aStarPath(D starting, D ending, GraphView<D, Double> graph,
+                                        Heuristic<? super D> heuristic) {
+        if (starting == null || ending == null || graph == null || heuristic == null) {
+            throw new IllegalArgumentException("starting/ending/graph/heuristic cannot be null");
+        }
+
+        int startId = graph.idOf(starting);
+        int destId = graph.idOf(ending);
+        if (startId < 0 || destId < 0) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        if (!graph.mayReach(startId, destId)) {
+            return null;
+        }
+
+        Relaxer<D> search = new Relaxer<>(graph, heuristic);
+        try {
+            return search.search(startId, destId);
+        } finally {
+            search.release();
+        }
+    }
+
+    /**
+     * Returns the straight-line distance between two points, times the given scale. It is a
+     * consistent heuristic for a graph of points whenever no edge costs less than scale times
+     * the distance between its ends.
+     * @param scale the least cost of an edge per unit of distance between its ends
+     * @return the scaled straight-line distance heuristic
+     * @throws IllegalArgumentException if scale is negative, infinite or NaN
+     */
+    public static Heuristic<Point> euclidean(double scale) {
+        if (!(scale >= 0) || Double.isInfinite(scale)) {
+            throw new IllegalArgumentException("Scale must be a non-negative number");
+        }
+        return (a, b) -> scale * Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+
+    /**
+     * <b>Heuristic</b> estimates the cost of the cheapest path between two nodes without searching.
+     * D is the node type.
+     */
+    @FunctionalInterface
+    public interface Heuristic<D> {
+        /**
+         * @param from the node the path starts at
+         * @param to the node the path ends at
+         * @return a lower bound on the cost of any path from from to to
+         */
+        double estimate(D from, D to);
+    }
+}
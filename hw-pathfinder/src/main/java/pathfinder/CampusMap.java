@@ -36,6 +36,11 @@ public class CampusMap implements ModelAPI {
     //campusMap != null
     //all entities of buildings cannot be null, including short names/long names/ and coordinates cannot be null.
     //the distance between two buildings (the distance between two nodes) should be non-negative.
+    //engine != null
+    //hierarchy != null if and only if engine is CONTRACTION_HIERARCHY, and it was built from campusMap.
+    //routes != null if and only if engine is ROUTE_TABLE, and it was built from campusMap with every
+    //building on campusMap as a source.
+    //no path costs less than scale times the straight-line distance between its ends.
 
     List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");;
     List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
@@ -43,14 +48,43 @@ public class CampusMap implements ModelAPI {
     Map<String, String> names = new HashMap<>();
     public static final boolean DEBUG = false;
 
+    //the search used to find shortest paths
+    private final Engine engine;
+
+    //the least distance of a path per unit of straight-line distance between its ends
+    private double scale = Double.POSITIVE_INFINITY;
+
+    //the preprocessed campus map, only built for the CONTRACTION_HIERARCHY engine
+    private ContractionHierarchy<Point> hierarchy;
+
+    //the paths from every building, only built for the ROUTE_TABLE engine
+    private RouteTable<Point> routes;
+
 
     /**
-     * Construct a campus map using the buildings' name and path data from the given file
+     * Construct a campus map using the buildings' name and path data from the given file,
+     * which finds paths using Dijkstra's algorithm
      */
     public CampusMap() {
+        this(Engine.DIJKSTRA);
+    }
+
+    /**
+     * Construct a campus map using the buildings' name and path data from the given file,
+     * which finds paths using the given search
+     * @param engine the search used to find shortest paths
+     * @throws IllegalArgumentException if engine is null
+     */
+    public CampusMap(Engine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("engine cannot be null");
+        }
+        this.engine = engine;
         for (CampusBuilding building : buildings) {
             names.put(building.getShortName(), building.getLongName());
         }
+        // kept up to date as the paths are added, so searches between parts of campus no path joins end at once
+        campusMap.indexComponents();
         for (CampusPath p : paths) {
             Graph.Node<Point> building1 = new Graph.Node<>(new Point(p.getX1(), p.getY1()));
             Graph.Node<Point> building2 = new Graph.Node<>(new Point(p.getX2(), p.getY2()));
@@ -58,6 +92,26 @@ public class CampusMap implements ModelAPI {
             campusMap.addNode(building2);
             campusMap.addEdge(building1, building2, p.getDistance());
             campusMap.addEdge(building2, building1, p.getDistance());
+            double straight = Math.hypot(p.getX1() - p.getX2(), p.getY1() - p.getY2());
+            if (straight > 0) {
+                scale = Math.min(scale, p.getDistance() / straight);
+            }
+        }
+        if (scale == Double.POSITIVE_INFINITY) {
+            scale = 0;
+        }
+        if (engine == Engine.CONTRACTION_HIERARCHY) {
+            hierarchy = ContractionHierarchy.from(campusMap);
+        }
+        if (engine == Engine.ROUTE_TABLE) {
+            List<Point> sources = new ArrayList<>();
+            for (CampusBuilding building : buildings) {
+                Point point = new Point(building.getX(), building.getY());
+                if (campusMap.idOf(point) >= 0) {
+                    sources.add(point);
+                }
+            }
+            routes = RouteTable.build(campusMap, sources, Runtime.getRuntime().availableProcessors());
         }
         checkRep();
     }
@@ -71,6 +125,9 @@ public class CampusMap implements ModelAPI {
     public void checkRep() {
         assert (this.campusMap != null);
         assert (this.names != null);
+        assert (this.engine != null);
+        assert ((this.hierarchy != null) == (this.engine == Engine.CONTRACTION_HIERARCHY));
+        assert ((this.routes != null) == (this.engine == Engine.ROUTE_TABLE));
         if (DEBUG) {
             assert (!buildings.contains(null));
             for (Graph.Node<Point> node : campusMap.listNodes()) {
@@ -118,6 +175,124 @@ public class CampusMap implements ModelAPI {
             }
         }
         checkRep();
-        return DijkstrasAlgorithm.dijkstraPath(startPoint, endPoint, campusMap);
+        if (engine == Engine.CONTRACTION_HIERARCHY) {
+            return hierarchy.shortestPath(startPoint, endPoint);
+        }
+        if (engine == Engine.ROUTE_TABLE && routes.hasSource(startPoint)) {
+            return routes.shortestPath(startPoint, endPoint);
+        }
+        if (engine == Engine.A_STAR) {
+            return AStarAlgorithm.aStarPath(startPoint, endPoint, campusMap, AStarAlgorithm.euclidean(scale));
+        }
+        return DijkstrasAlgorithm.indexedDijkstraPath(startPoint, endPoint, campusMap);
+    }
+
+    @Override
+    public List<Path<Point>> findShortestPaths(String startShortName, String endShortName, int k) {
+        checkRep();
+        if (startShortName == null || endShortName == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!shortNameExists(startShortName) || !shortNameExists(endShortName)) {
+            throw new IllegalArgumentException();
+        }
+        checkRep();
+        return KShortestPaths.kShortestPaths(pointOf(startShortName), pointOf(endShortName), k, campusMap);
+    }
+
+    // Returns the point of the building with the given short name, which exists.
+    private Point pointOf(String shortName) {
+        Point point = null;
+        for (CampusBuilding building : buildings) {
+            if (building.getShortName().equals(shortName)) {
+                point = new Point(building.getX(), building.getY());
+            }
+        }
+        return point;
+    }
+
+    /**
+     * Finds the shortest path from any entrance of one building to any entrance of another, in one
+     * search. The entrances of a building are the buildings whose short names are its short name,
+     * or its short name followed by a note in parentheses, like "BAG" and "BAG (NE)". Either short
+     * name of an entrance stands for the whole building.
+     * @param startShortName the short name of the building, or of one of its entrances, to start from
+     * @param endShortName the short name of the building, or of one of its entrances, to go to
+     * @return the shortest of the paths from an entrance of the start building to an entrance of the
+     * end building, or null if none exists
+     * @throws IllegalArgumentException if startShortName or endShortName is null, or not a valid short
+     * name of a building in this campus map
+     */
+    public Path<Point> findShortestPathBetweenEntrances(String startShortName, String endShortName) {
+        checkRep();
+        if (startShortName == null || endShortName == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!shortNameExists(startShortName) || !shortNameExists(endShortName)) {
+            throw new IllegalArgumentException();
+        }
+        checkRep();
+        return DijkstrasAlgorithm.multiSourcePath(entrancesOf(startShortName), entrancesOf(endShortName), campusMap);
+    }
+
+    // Returns the points of every entrance of the building with the given short name that is on a path.
+    private List<Point> entrancesOf(String shortName) {
+        int note = shortName.indexOf(" (");
+        String base = note < 0 ? shortName : shortName.substring(0, note);
+        List<Point> result = new ArrayList<>();
+        for (CampusBuilding building : buildings) {
+            String name = building.getShortName();
+            Point point = new Point(building.getX(), building.getY());
+            if ((name.equals(base) || name.startsWith(base + " (")) && campusMap.idOf(point) >= 0) {
+                result.add(point);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds every building that can be reached from the given building by walking at most the given
+     * distance, without searching the parts of the map further away than that.
+     * @param shortName the short name of the building to start from
+     * @param distance the greatest distance to walk, may be infinite
+     * @return the short name of every building within distance of the given one -> the shortest path
+     * to it, in increasing order of distance. The given building itself is included.
+     * @throws IllegalArgumentException if shortName is null or not the short name of a building, or
+     * distance is negative or NaN
+     */
+    public Map<String, Path<Point>> buildingsWithin(String shortName, double distance) {
+        checkRep();
+        if (shortName == null || !shortNameExists(shortName)) {
+            throw new IllegalArgumentException("The short name provided doesn't exist");
+        }
+        Map<Point, Path<Point>> reached = DijkstrasAlgorithm.pathsWithin(pointOf(shortName), distance, campusMap);
+        List<Map.Entry<String, Path<Point>>> found = new ArrayList<>();
+        for (CampusBuilding building : buildings) {
+            Path<Point> path = reached.get(new Point(building.getX(), building.getY()));
+            if (path != null) {
+                found.add(Map.entry(building.getShortName(), path));
+            }
+        }
+        found.sort(Comparator.comparingDouble(e -> e.getValue().getCost()));
+        Map<String, Path<Point>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Path<Point>> e : found) {
+            result.put(e.getKey(), e.getValue());
+        }
+        checkRep();
+        return result;
+    }
+
+    /**
+     * The searches a CampusMap can find shortest paths with.
+     */
+    public enum Engine {
+        /** Dijkstra's algorithm, settling nodes in order of their distance from the start. */
+        DIJKSTRA,
+        /** A*, settling nodes in order of their distance from the start plus their straight-line distance to the end. */
+        A_STAR,
+        /** A contraction hierarchy, preprocessing the map when it is built so each query only searches a few nodes. */
+        CONTRACTION_HIERARCHY,
+        /** A table of the paths from every building, built on several threads when the map is built so each query only reads out its path. */
+        ROUTE_TABLE
     }
 }
@@ -0,0 +1,523 @@
+package pathfinder;
+
+import graph.GraphView;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/**
+ * <b>ContractionHierarchy</b> is an immutable index of a graph with non-negative Double edge costs
+ * that answers shortest path queries much faster than Dijkstra's algorithm, in exchange for
+ * preprocessing the graph once.
+ *
+ * <p>Preprocessing contracts the nodes one at a time, least important first: a node is taken out
+ * of the graph, and wherever a cheapest path between two of its neighbours went through it, a
+ * shortcut edge is added between them with the cost of that path. Each node's rank is the order it
+ * was contracted in. A query then only has to search upwards, towards higher ranked nodes, from
+ * both ends at once, which settles a few dozen nodes instead of a large part of the graph. The
+ * shortcuts on the path found are unpacked back into the edges of the original graph.</p>
+ *
+ * <p>Later changes to the graph the hierarchy was built from are not reflected in it.</p>
+ * D is the node type.
+ */
+public final class ContractionHierarchy<D> {
+
+    // Abstract Function:
+    // A ContractionHierarchy represents the graph whose nodes are nodes.get(0) ... nodes.get(n - 1),
+    // with an edge of cost weight[e] from nodes.get(from[e]) to nodes.get(to[e]) for every edge id e
+    // with first[e] == -1. An edge e with first[e] != -1 is a shortcut, standing for edge first[e]
+    // followed by edge second[e]. rank[v] is the position node v was contracted in.
+    // The edges from v to higher ranked nodes are upEdges[upOffsets[v] ... upOffsets[v + 1] - 1], and
+    // the edges to v from higher ranked nodes are downEdges[downOffsets[v] ... downOffsets[v + 1] - 1].
+
+    // Rep Invariant:
+    // nodes, ids, rank, from, to, first, second, weight, upOffsets, upEdges, downOffsets, downEdges != null.
+    // ids.get(nodes.get(v)) == v for every id v, rank is a permutation of 0 ... n - 1.
+    // from, to, first, second, weight all have the same length, and every weight is >= 0.
+    // For every shortcut e: to[first[e]] == from[second[e]], from[first[e]] == from[e],
+    // to[second[e]] == to[e], weight[e] == weight[first[e]] + weight[second[e]], and both first[e]
+    // and second[e] are less than e.
+    // Every edge in up of v goes from v to a higher ranked node, every edge in down of v goes to v
+    // from a higher ranked node.
+    // For every pair of nodes with a path between them, some cheapest path between them goes up
+    // through edges in up and then down through edges in down.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // id -> node data
+    private final List<D> nodes;
+
+    // node data -> id
+    private final Map<D, Integer> ids;
+
+    // id -> the position the node was contracted in
+    private final int[] rank;
+
+    // edge id -> its ends, cost, and for a shortcut the two edges it stands for (-1 for an original edge)
+    private final int[] from;
+    private final int[] to;
+    private final int[] first;
+    private final int[] second;
+    private final double[] weight;
+
+    // the edges from each node to higher ranked nodes, in compressed sparse row form
+    private final int[] upOffsets;
+    private final int[] upEdges;
+
+    // the edges to each node from higher ranked nodes, in compressed sparse row form
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (nodes.size() == rank.length) : "One rank per node";
+        assert (upOffsets.length == rank.length + 1 && downOffsets.length == rank.length + 1)
+                : "One offset per node plus the end offset";
+        if (DEBUG) {
+            for (int e = 0; e < from.length; e++) {
+                assert (weight[e] >= 0) : "Costs cannot be negative";
+                if (first[e] >= 0) {
+                    assert (first[e] < e && second[e] < e) : "Shortcuts are made of earlier edges";
+                    assert (to[first[e]] == from[second[e]]) : "Shortcut halves must meet";
+                }
+            }
+            for (int v = 0; v < rank.length; v++) {
+                for (int k = upOffsets[v]; k < upOffsets[v + 1]; k++) {
+                    assert (rank[to[upEdges[k]]] > rank[v]) : "Up edges must go up";
+                }
+                for (int k = downOffsets[v]; k < downOffsets[v + 1]; k++) {
+                    assert (rank[from[downEdges[k]]] > rank[v]) : "Down edges must come from above";
+                }
+            }
+        }
+    }
+
+    private ContractionHierarchy(List<D> nodes, Map<D, Integer> ids, Contractor c) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.rank = c.rank;
+        this.from = Arrays.copyOf(c.from, c.edges);
+        this.to = Arrays.copyOf(c.to, c.edges);
+        this.first = Arrays.copyOf(c.first, c.edges);
+        this.second = Arrays.copyOf(c.second, c.edges);
+        this.weight = Arrays.copyOf(c.weight, c.edges);
+        this.upOffsets = new int[rank.length + 1];
+        this.downOffsets = new int[rank.length + 1];
+        for (int v = 0; v < rank.length; v++) {
+            upOffsets[v + 1] = upOffsets[v] + c.up[v].length;
+            downOffsets[v + 1] = downOffsets[v] + c.down[v].length;
+        }
+        this.upEdges = new int[upOffsets[rank.length]];
+        this.downEdges = new int[downOffsets[rank.length]];
+        for (int v = 0; v < rank.length; v++) {
+            System.arraycopy(c.up[v], 0, upEdges, upOffsets[v], c.up[v].length);
+            System.arraycopy(c.down[v], 0, downEdges, downOffsets[v], c.down[v].length);
+        }
+        checkRep();
+    }
+
+    /**
+     * Preprocess the given graph into a contraction hierarchy. Of several parallel edges between the
+     * same two nodes only the cheapest is kept, since only it can be on a cheapest path.
+     * @param graph the graph to be preprocessed
+     * @param <D> the node type
+     * @return a contraction hierarchy of graph
+     * @spec.requires no edge of graph has a negative, infinite or NaN cost
+     * @throws IllegalArgumentException if graph is null
+     */
+    public static <D> ContractionHierarchy<D> from(GraphView<D, Double> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        int n = graph.size();
+        List<D> nodes = new ArrayList<>(n);
+        Map<D, Integer> ids = new HashMap<>();
+        for (int v = 0; v < n; v++) {
+            nodes.add(graph.dataOf(v));
+            ids.put(graph.dataOf(v), v);
+        }
+        Contractor c = new Contractor(n);
+        for (int u = 0; u < n; u++) {
+            int parent = u;
+            graph.forEachChild(u, (child, labels) -> {
+                if (child != parent) {
+                    c.addEdge(parent, child, Collections.min(labels), -1, -1);
+                }
+            });
+        }
+        c.contractAll();
+        return new ContractionHierarchy<>(Collections.unmodifiableList(nodes), ids, c);
+    }
+
+    /**
+     * Returns the minimum-cost path between two given nodes, made of edges of the graph this
+     * hierarchy was built from.
+     * @param starting the start node to find path from
+     * @param ending the end node to find path to
+     * @return a shortest path between the starting and ending node, return null if no path found.
+     * @throws IllegalArgumentException if the starting/ending is null, or the given starting or
+     * ending nodes is not exist in the graph.
+     */
+    public Path<D> shortestPath(D starting, D ending) {
+        checkRep();
+        if (starting == null || ending == null) {
+            throw new IllegalArgumentException("starting/ending cannot be null");
+        }
+        Integer s = ids.get(starting);
+        Integer t = ids.get(ending);
+        if (s == null || t == null) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        if (s.equals(t)) {
+            return new Path<>(starting);
+        }
+
+        // the two searches reuse this thread's workspaces, so a query only costs time for the few
+        // nodes it reaches; parent holds the edge each node was reached by, -1 if not reached
+        Workspace forward = Workspace.acquire(rank.length);
+        Workspace backward = Workspace.acquire(rank.length);
+        try {
+            return search(s, t, forward, backward);
+        } finally {
+            forward.release();
+            backward.release();
+        }
+    }
+
+    // Returns the minimum-cost path from s to t, searching up from s in forward and up from t in
+    // backward, or null if there is none.
+    private Path<D> search(int s, int t, Workspace forward, Workspace backward) {
+        forward.touch(s);
+        backward.touch(t);
+        forward.dist[s] = 0.0;
+        backward.dist[t] = 0.0;
+        forward.active.offer(s, 0.0);
+        backward.active.offer(t, 0.0);
+
+        // Both searches only go up, and each stops once its nearest queued node is no nearer
+        // than the cheapest path through a node both have reached.
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        while (true) {
+            boolean goForward = !forward.active.isEmpty() && forward.active.keyOf(forward.active.peek()) < best;
+            boolean goBackward = !backward.active.isEmpty() && backward.active.keyOf(backward.active.peek()) < best;
+            if (!goForward && !goBackward) {
+                break;
+            }
+            if (goForward) {
+                int u = forward.active.removeMin();
+                if (forward.dist[u] + backward.dist[u] < best) {
+                    best = forward.dist[u] + backward.dist[u];
+                    meet = u;
+                }
+                for (int k = upOffsets[u]; k < upOffsets[u + 1]; k++) {
+                    int e = upEdges[k];
+                    double d = forward.dist[u] + weight[e];
+                    if (d < forward.dist[to[e]]) {
+                        if (forward.dist[to[e]] == Double.POSITIVE_INFINITY) {
+                            forward.touch(to[e]);
+                        }
+                        forward.dist[to[e]] = d;
+                        forward.parent[to[e]] = e;
+                        forward.active.offer(to[e], d);
+                    }
+                }
+            }
+            if (goBackward) {
+                int u = backward.active.removeMin();
+                if (forward.dist[u] + backward.dist[u] < best) {
+                    best = forward.dist[u] + backward.dist[u];
+                    meet = u;
+                }
+                for (int k = downOffsets[u]; k < downOffsets[u + 1]; k++) {
+                    int e = downEdges[k];
+                    double d = backward.dist[u] + weight[e];
+                    if (d < backward.dist[from[e]]) {
+                        if (backward.dist[from[e]] == Double.POSITIVE_INFINITY) {
+                            backward.touch(from[e]);
+                        }
+                        backward.dist[from[e]] = d;
+                        backward.parent[from[e]] = e;
+                        backward.active.offer(from[e], d);
+                    }
+                }
+            }
+        }
+        if (meet < 0) {
+            return null;
+        }
+
+        // the edges of the path in the hierarchy, from the start up to meet and down to the end
+        List<Integer> edges = new ArrayList<>();
+        for (int v = meet; v != s; v = from[forward.parent[v]]) {
+            edges.add(forward.parent[v]);
+        }
+        Collections.reverse(edges);
+        for (int v = meet; v != t; v = to[backward.parent[v]]) {
+            edges.add(backward.parent[v]);
+        }
+
+        Path<D> path = new Path<>(nodes.get(s));
+        Deque<Integer> unpack = new ArrayDeque<>();
+        for (int e : edges) {
+            unpack.push(e);
+            while (!unpack.isEmpty()) {
+                int next = unpack.pop();
+                if (first[next] < 0) {
+                    path = path.extend(nodes.get(to[next]), weight[next]);
+                } else {
+                    unpack.push(second[next]);
+                    unpack.push(first[next]);
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * @return the number of shortcut edges preprocessing added.
+     */
+    public int shortcutCount() {
+        int count = 0;
+        for (int f : first) {
+            if (f >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * <b>Contractor</b> holds the graph while it is being contracted: every edge ever made, and for
+     * each node not contracted yet its edges to and from other such nodes.
+     */
+    private static class Contractor {
+        // a witness search gives up after settling this many nodes, which at worst adds a shortcut
+        // that wasn't needed
+        private static final int WITNESS_LIMIT = 64;
+
+        // the number of nodes
+        private final int n;
+
+        // edge id -> its ends, cost and halves, for the first edges ids
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private int[] first = new int[16];
+        private int[] second = new int[16];
+        private double[] weight = new double[16];
+        private int edges;
+
+        // node -> ids of its edges to and from nodes not contracted yet, while it isn't contracted itself
+        private final EdgeIds[] out;
+        private final EdgeIds[] in;
+
+        // node -> true once contracted, and its rank
+        private final boolean[] contracted;
+        private final int[] rank;
+
+        // node -> the number of its neighbours contracted so far
+        private final int[] contractedNeighbours;
+
+        // node -> its edges to and from higher ranked nodes, set when it is contracted
+        private final int[][] up;
+        private final int[][] down;
+
+        // the state of witness searches, reset after each one
+        private final double[] witness;
+        private final IndexedMinHeap witnessQueue;
+        private final EdgeIds touched = new EdgeIds();
+
+        Contractor(int n) {
+            this.n = n;
+            out = new EdgeIds[n];
+            in = new EdgeIds[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new EdgeIds();
+                in[v] = new EdgeIds();
+            }
+            contracted = new boolean[n];
+            rank = new int[n];
+            contractedNeighbours = new int[n];
+            up = new int[n][];
+            down = new int[n][];
+            witness = new double[n];
+            Arrays.fill(witness, Double.POSITIVE_INFINITY);
+            witnessQueue = new IndexedMinHeap(n);
+        }
+
+        // Adds an edge from u to x and returns its id.
+        int addEdge(int u, int x, double w, int firstHalf, int secondHalf) {
+            if (edges == from.length) {
+                int size = edges * 2;
+                from = Arrays.copyOf(from, size);
+                to = Arrays.copyOf(to, size);
+                first = Arrays.copyOf(first, size);
+                second = Arrays.copyOf(second, size);
+                weight = Arrays.copyOf(weight, size);
+            }
+            from[edges] = u;
+            to[edges] = x;
+            weight[edges] = w;
+            first[edges] = firstHalf;
+            second[edges] = secondHalf;
+            out[u].add(edges);
+            in[x].add(edges);
+            return edges++;
+        }
+
+        // Contracts every node, least important first.
+        void contractAll() {
+            IndexedMinHeap order = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                order.offer(v, priority(v));
+            }
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.removeMin();
+                // priorities change as neighbours are contracted, so they are only brought up to
+                // date when a node comes to the front
+                double p = priority(v);
+                if (!order.isEmpty() && p > order.keyOf(order.peek())) {
+                    order.offer(v, p);
+                    continue;
+                }
+                shortcuts(v, true);
+                up[v] = out[v].toArray();
+                down[v] = in[v].toArray();
+                for (int e : up[v]) {
+                    in[to[e]].remove(e);
+                    contractedNeighbours[to[e]]++;
+                }
+                for (int e : down[v]) {
+                    out[from[e]].remove(e);
+                    contractedNeighbours[from[e]]++;
+                }
+                contracted[v] = true;
+                rank[v] = next++;
+            }
+        }
+
+        // Returns how much contracting v would grow the graph, plus how many of its neighbours
+        // are contracted already, which spreads contraction evenly over the graph.
+        private double priority(int v) {
+            return shortcuts(v, false) - out[v].size - in[v].size + contractedNeighbours[v];
+        }
+
+        // Finds the shortcuts contracting v needs, adds them if add, and returns how many there are.
+        private int shortcuts(int v, boolean add) {
+            int count = 0;
+            int[] ins = in[v].toArray();
+            int[] outs = out[v].toArray();
+            for (int e1 : ins) {
+                int u = from[e1];
+                double limit = -1;
+                for (int e2 : outs) {
+                    if (to[e2] != u) {
+                        limit = Math.max(limit, weight[e1] + weight[e2]);
+                    }
+                }
+                if (limit < 0) {
+                    continue;
+                }
+                searchWitnesses(u, v, limit);
+                for (int e2 : outs) {
+                    int x = to[e2];
+                    double through = weight[e1] + weight[e2];
+                    if (x == u || witness[x] <= through) {
+                        continue;
+                    }
+                    count++;
+                    if (add) {
+                        // a dearer edge from u to x is replaced, it can't be on a cheapest path
+                        int old = out[u].find(x, to);
+                        if (old >= 0) {
+                            out[u].remove(old);
+                            in[x].remove(old);
+                        }
+                        addEdge(u, x, through, e1, e2);
+                    }
+                }
+                resetWitnesses();
+            }
+            return count;
+        }
+
+        // Finds the cost of the cheapest paths from u that don't go through v, up to the given cost.
+        private void searchWitnesses(int u, int v, double limit) {
+            witness[u] = 0.0;
+            touched.add(u);
+            witnessQueue.offer(u, 0.0);
+            int settled = 0;
+            while (!witnessQueue.isEmpty() && settled++ < WITNESS_LIMIT) {
+                int w = witnessQueue.removeMin();
+                if (witness[w] > limit) {
+                    break;
+                }
+                for (int k = 0; k < out[w].size; k++) {
+                    int e = out[w].ids[k];
+                    int x = to[e];
+                    double d = witness[w] + weight[e];
+                    if (x != v && d < witness[x]) {
+                        if (witness[x] == Double.POSITIVE_INFINITY) {
+                            touched.add(x);
+                        }
+                        witness[x] = d;
+                        witnessQueue.offer(x, d);
+                    }
+                }
+            }
+        }
+
+        // Clears the state of the last witness search.
+        private void resetWitnesses() {
+            for (int k = 0; k < touched.size; k++) {
+                witness[touched.ids[k]] = Double.POSITIVE_INFINITY;
+            }
+            touched.size = 0;
+            witnessQueue.clear();
+        }
+    }
+
+    /**
+     * <b>EdgeIds</b> is a growable, unordered list of ints.
+     */
+    private static class EdgeIds {
+        // the ints, in positions 0 to size - 1
+        private int[] ids = new int[4];
+        private int size;
+
+        // Adds id at the end.
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        // Removes id, moving the last int into its place.
+        void remove(int id) {
+            for (int k = 0; k < size; k++) {
+                if (ids[k] == id) {
+                    ids[k] = ids[--size];
+                    return;
+                }
+            }
+        }
+
+        // Returns the id e in this list with target[e] == x, or -1 if there is none.
+        int find(int x, int[] target) {
+            for (int k = 0; k < size; k++) {
+                if (target[ids[k]] == x) {
+                    return ids[k];
+                }
+            }
+            return -1;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package pathfinder;
+
+import graph.GraphView;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <b>DeltaStepping</b> is an immutable, compact copy of a graph with non-negative Double edge costs
+ * that finds the cost of the cheapest path from one node to every node on several threads, with
+ * the delta-stepping algorithm of Meyer and Sanders.
+ *
+ * <p>Nodes are kept in buckets of width delta by their distance so far. The nearest bucket that
+ * isn't empty is emptied in phases: every node in it has its light edges, those costing at most
+ * delta, relaxed at once, in parallel, which may put nodes back into the same bucket for another
+ * phase. Once it stays empty, the heavy edges of every node that was in it are relaxed once. A
+ * small delta does little wasted work but has many small phases, a large one the other way round.</p>
+ *
+ * <p>The copy keeps the edges in compressed sparse row form, with only the cheapest of several
+ * parallel edges, as an int child id and a double cost, light edges first in each row. Later
+ * changes to the graph it was copied from are not reflected in it.</p>
+ * D is the node type.
+ */
+public final class DeltaStepping<D> {
+
+    // Abstract Function:
+    // DeltaStepping represents the graph whose nodes are graph.dataOf(0) ... graph.dataOf(n - 1), with
+    // an edge of cost costs[k] from v to targets[k] for every offsets[v] <= k < offsets[v + 1].
+    // The edges of v at positions before lightEnd[v] are light, the rest heavy.
+
+    // Rep Invariant:
+    // graph, offsets, lightEnd, targets, costs != null, offsets.length == lightEnd.length + 1 == n + 1.
+    // offsets[0] == 0, offsets is non-decreasing, offsets[n] == targets.length == costs.length.
+    // 0 <= targets[k] < n and costs[k] >= 0 for every k.
+    // offsets[v] <= lightEnd[v] <= offsets[v + 1], costs[k] <= delta for k < lightEnd[v], and
+    // costs[k] > delta for lightEnd[v] <= k < offsets[v + 1].
+    // delta > 0 and finite.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // the fewest nodes in a frontier that one task relaxes on its own
+    private static final int GRAIN = 256;
+
+    // the graph the nodes come from
+    private final GraphView<D, Double> graph;
+
+    // the width of a bucket
+    private final double delta;
+
+    // the edges of node v are at positions offsets[v] (inclusive) to offsets[v + 1] (exclusive)
+    private final int[] offsets;
+
+    // node v -> the position after its last light edge
+    private final int[] lightEnd;
+
+    // the child and the cost of every edge
+    private final int[] targets;
+    private final double[] costs;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (offsets.length == lightEnd.length + 1) : "One offset per node plus the end offset";
+        assert (targets.length == costs.length) : "One cost per edge";
+        assert (delta > 0 && delta < Double.POSITIVE_INFINITY) : "Bucket width out of range";
+        if (DEBUG) {
+            for (int v = 0; v < lightEnd.length; v++) {
+                for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                    assert (costs[k] >= 0) : "Costs cannot be negative";
+                    assert ((k < lightEnd[v]) == (costs[k] <= delta)) : "Light edges come first";
+                }
+            }
+        }
+    }
+
+    private DeltaStepping(GraphView<D, Double> graph, double delta, int[] offsets, int[] lightEnd, int[] targets,
+                          double[] costs) {
+        this.graph = graph;
+        this.delta = delta;
+        this.offsets = offsets;
+        this.lightEnd = lightEnd;
+        this.targets = targets;
+        this.costs = costs;
+        checkRep();
+    }
+
+    /**
+     * Copy the given graph for delta-stepping with a bucket width of the greatest edge cost over
+     * the average number of edges per node, the width Meyer and Sanders suggest for graphs with
+     * random costs.
+     * @param graph the graph to be copied, whose edge costs are all non-negative
+     * @param <D> the node type
+     * @return a compact copy of graph to search from
+     * @throws IllegalArgumentException if graph is null, or has a negative or NaN edge cost
+     */
+    public static <D> DeltaStepping<D> from(GraphView<D, Double> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        return copy(graph, Double.NaN);
+    }
+
+    /**
+     * Copy the given graph for delta-stepping with the given bucket width.
+     * @param graph the graph to be copied, whose edge costs are all non-negative
+     * @param delta the width of a bucket
+     * @param <D> the node type
+     * @return a compact copy of graph to search from
+     * @throws IllegalArgumentException if graph is null, has a negative or NaN edge cost, or delta is
+     * not positive and finite
+     */
+    public static <D> DeltaStepping<D> from(GraphView<D, Double> graph, double delta) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        if (!(delta > 0 && delta < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("delta must be positive and finite");
+        }
+        return copy(graph, delta);
+    }
+
+    // Copies the given graph with the given bucket width, or with the suggested one if delta is NaN.
+    private static <D> DeltaStepping<D> copy(GraphView<D, Double> graph, double delta) {
+        int n = graph.size();
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + graph.childrenOf(v).length;
+        }
+        int[] targets = new int[offsets[n]];
+        double[] costs = new double[offsets[n]];
+        RowFiller filler = new RowFiller(targets, costs);
+        for (int v = 0; v < n; v++) {
+            filler.next = offsets[v];
+            graph.forEachChild(v, filler);
+        }
+
+        if (Double.isNaN(delta)) {
+            double greatest = 0;
+            for (double cost : costs) {
+                greatest = Math.max(greatest, cost);
+            }
+            double degree = n == 0 ? 1 : Math.max(1.0, (double) targets.length / n);
+            delta = greatest > 0 ? greatest / degree : 1.0;
+        }
+
+        // each row is split in place, light edges to the front
+        int[] lightEnd = new int[n];
+        for (int v = 0; v < n; v++) {
+            int light = offsets[v];
+            for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                if (costs[k] <= delta) {
+                    int t = targets[k];
+                    double c = costs[k];
+                    targets[k] = targets[light];
+                    costs[k] = costs[light];
+                    targets[light] = t;
+                    costs[light] = c;
+                    light++;
+                }
+            }
+            lightEnd[v] = light;
+        }
+        return new DeltaStepping<>(graph, delta, offsets, lightEnd, targets, costs);
+    }
+
+    /**
+     * <b>RowFiller</b> writes the cheapest edge to each child of a node into the edge arrays,
+     * from position next on.
+     */
+    private static class RowFiller implements GraphView.ChildConsumer<Double> {
+        // the edge arrays being filled
+        private final int[] targets;
+        private final double[] costs;
+
+        // the position the next edge goes to
+        private int next;
+
+        RowFiller(int[] targets, double[] costs) {
+            this.targets = targets;
+            this.costs = costs;
+        }
+
+        @Override
+        public void accept(int childId, List<Double> labels) {
+            double cost = Double.POSITIVE_INFINITY;
+            for (Double label : labels) {
+                if (!(label >= 0)) {
+                    throw new IllegalArgumentException("Edge costs must be non-negative numbers");
+                }
+                cost = Math.min(cost, label);
+            }
+            targets[next] = childId;
+            costs[next] = cost;
+            next++;
+        }
+    }
+
+    /**
+     * @return the width of a bucket.
+     */
+    public double delta() {
+        return delta;
+    }
+
+    /**
+     * Finds the cost of the cheapest path from the given source to every node, relaxing edges on
+     * the given number of threads. The common pool is used when it has that many threads, otherwise
+     * a pool is made for this search alone, so a caller making many searches on some other number of
+     * threads should give its own pool to distances(source, pool) instead.
+     * @param source the start node to find the costs from
+     * @param threads the number of threads to use
+     * @return node id -> the cost of the cheapest path from source to that node, infinite if there is
+     * none. The costs are the ones indexedDijkstraPath finds, up to rounding when several paths
+     * cost about the same.
+     * @throws IllegalArgumentException if source is null or not a node of the graph copied, or
+     * threads is less than 1
+     */
+    public double[] distances(D source, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread.");
+        }
+        if (threads == ForkJoinPool.getCommonPoolParallelism()) {
+            return distances(source, ForkJoinPool.commonPool());
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return distances(source, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Finds the cost of the cheapest path from the given source to every node, relaxing edges on
+     * the threads of the given pool.
+     * @param source the start node to find the costs from
+     * @param pool the pool to relax edges on
+     * @return node id -> the cost of the cheapest path from source to that node, infinite if there is
+     * none. The costs are the ones indexedDijkstraPath finds, up to rounding when several paths
+     * cost about the same.
+     * @throws IllegalArgumentException if source is null or not a node of the graph copied, or pool
+     * is null
+     */
+    public double[] distances(D source, ForkJoinPool pool) {
+        checkRep();
+        int sourceId = source == null ? -1 : graph.idOf(source);
+        // a node added to the graph after it was copied has an id past the end of the copy
+        if (sourceId < 0 || sourceId >= lightEnd.length) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        int n = lightEnd.length;
+        // costs are non-negative, and the bits of non-negative doubles order the same as the doubles
+        AtomicLongArray dist = new AtomicLongArray(n);
+        long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) {
+            dist.set(v, infinity);
+        }
+        dist.set(sourceId, Double.doubleToLongBits(0.0));
+
+        // bucket number -> the nodes put in it, some of which may since have moved to a nearer bucket
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        buckets.put(0L, IntList.of(sourceId));
+        // node id -> the last phase it was in the frontier of, and the last bucket it was emptied from
+        int[] phaseOf = new int[n];
+        long[] emptiedFrom = new long[n];
+        Arrays.fill(phaseOf, -1);
+        Arrays.fill(emptiedFrom, -1);
+        int phase = 0;
+
+        while (!buckets.isEmpty()) {
+            long b = buckets.firstKey();
+            IntList emptied = new IntList();
+            while (buckets.containsKey(b)) {
+                IntList frontier = new IntList();
+                for (int i = 0, size = buckets.get(b).size; i < size; i++) {
+                    int v = buckets.get(b).items[i];
+                    if (bucketOf(dist, v) == b && phaseOf[v] != phase) {
+                        phaseOf[v] = phase;
+                        frontier.add(v);
+                        if (emptiedFrom[v] != b) {
+                            emptiedFrom[v] = b;
+                            emptied.add(v);
+                        }
+                    }
+                }
+                buckets.remove(b);
+                phase++;
+                place(buckets, dist, pool.invoke(new RelaxTask(this, dist, frontier, 0, frontier.size, true)));
+            }
+            place(buckets, dist, pool.invoke(new RelaxTask(this, dist, emptied, 0, emptied.size, false)));
+        }
+
+        double[] result = new double[n];
+        for (int v = 0; v < n; v++) {
+            result[v] = Double.longBitsToDouble(dist.get(v));
+        }
+        return result;
+    }
+
+    // Returns the number of the bucket the node with the given id is in, by its distance so far.
+    private long bucketOf(AtomicLongArray dist, int v) {
+        return (long) (Double.longBitsToDouble(dist.get(v)) / delta);
+    }
+
+    // Puts each of the given nodes, whose distances have just been lowered, into its bucket.
+    private void place(Map<Long, IntList> buckets, AtomicLongArray dist, IntList lowered) {
+        for (int i = 0; i < lowered.size; i++) {
+            int v = lowered.items[i];
+            buckets.computeIfAbsent(bucketOf(dist, v), k -> new IntList()).add(v);
+        }
+    }
+
+    /**
+     * <b>RelaxTask</b> relaxes the light or the heavy edges of the nodes at positions lo (inclusive)
+     * to hi (exclusive) of a list, splitting into smaller tasks while there are many. It returns the
+     * nodes whose distances it lowered, a node once for every time it lowered it.
+     */
+    private static class RelaxTask extends RecursiveTask<IntList> {
+        // the graph being searched
+        private final DeltaStepping<?> graph;
+
+        // node id -> the bits of its distance so far
+        private final AtomicLongArray dist;
+
+        // the nodes whose edges are relaxed, and the range of them this task relaxes
+        private final IntList nodes;
+        private final int lo;
+        private final int hi;
+
+        // true to relax the light edges, false for the heavy ones
+        private final boolean light;
+
+        RelaxTask(DeltaStepping<?> graph, AtomicLongArray dist, IntList nodes, int lo, int hi, boolean light) {
+            this.graph = graph;
+            this.dist = dist;
+            this.nodes = nodes;
+            this.lo = lo;
+            this.hi = hi;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                RelaxTask left = new RelaxTask(graph, dist, nodes, lo, mid, light);
+                left.fork();
+                IntList right = new RelaxTask(graph, dist, nodes, mid, hi, light).compute();
+                IntList result = left.join();
+                result.addAll(right);
+                return result;
+            }
+            IntList lowered = new IntList();
+            for (int i = lo; i < hi; i++) {
+                int v = nodes.items[i];
+                double d = Double.longBitsToDouble(dist.get(v));
+                int from = light ? graph.offsets[v] : graph.lightEnd[v];
+                int to = light ? graph.lightEnd[v] : graph.offsets[v + 1];
+                for (int k = from; k < to; k++) {
+                    int child = graph.targets[k];
+                    long bits = Double.doubleToLongBits(d + graph.costs[k]);
+                    long old = dist.get(child);
+                    while (bits < old) {
+                        if (dist.compareAndSet(child, old, bits)) {
+                            lowered.add(child);
+                            break;
+                        }
+                        old = dist.get(child);
+                    }
+                }
+            }
+            return lowered;
+        }
+    }
+
+    /**
+     * <b>IntList</b> is a growable list of ints.
+     */
+    private static class IntList {
+        // items[0 ... size - 1] are the ints in the list
+        private int[] items = new int[8];
+        private int size;
+
+        // Returns a list of the given int.
+        static IntList of(int item) {
+            IntList list = new IntList();
+            list.add(item);
+            return list;
+        }
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > items.length) {
+                items = Arrays.copyOf(items, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+    }
+}
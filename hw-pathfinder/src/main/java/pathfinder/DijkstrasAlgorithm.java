@@ -1,6 +1,7 @@
 package pathfinder;
 
 import graph.Graph;
+import graph.GraphView;
 import pathfinder.datastructures.Path;
 
 import java.util.*;
@@ -23,39 +24,41 @@ public class DijkstrasAlgorithm {
      * @throws IllegalArgumentException if the starting/ending/graph is null, or the given starting or
      * ending nodes is not exist in the graph.
      */
-    public static <D> Path<D> dijkstraPath (D starting, D ending, Graph<D, Double> graph) {
+    public static <D> Path<D> dijkstraPath (D starting, D ending, GraphView<D, Double> graph) {
         if (starting == null || ending == null || graph == null) {
             throw new IllegalArgumentException("starting/ending/graph cannot be null");
         }
 
-        if (!graph.containsNode(new Graph.Node<>(starting)) || !graph.containsNode(new Graph.Node<>(ending))) {
+        int destId = graph.idOf(ending);
+        if (graph.idOf(starting) < 0 || destId < 0) {
             throw new IllegalArgumentException("node must exist before finding the path");
         }
+        if (!graph.mayReach(graph.idOf(starting), destId)) {
+            return null;
+        }
 
-        Graph.Node<D> dest = new Graph.Node<>(ending);
         Queue<Path<D>> active = new PriorityQueue<>(new pathComparator());
-        Set<Graph.Node<D>> finished = new HashSet<>();
+        boolean[] finished = new boolean[graph.size()];
 
         active.add(new Path<>(starting));
 
         while (!active.isEmpty()) {
             Path<D> minPath = active.remove();
             D minDest = minPath.getEnd();
+            int minDestId = graph.idOf(minDest);
 
-            Graph.Node<D> minDestNode = new Graph.Node<>(minDest);
-
-            if (minDestNode.equals(dest)) {
+            if (minDestId == destId) {
                 return minPath;
             }
 
-            if (!finished.contains(minDestNode)) {
-                for (Graph.Edge<D, Double> e: graph.listChildren(minDestNode)) {
-                    if (!finished.contains(e.getChild())) {
+            if (!finished[minDestId]) {
+                for (Graph.Edge<D, Double> e: graph.listChildren(new Graph.Node<>(minDest))) {
+                    if (!finished[graph.idOf(e.getChild().getData())]) {
                         Path<D> newPath = minPath.extend(e.getChild().getData(), e.getLabel());
                         active.add(newPath);
                     }
-                    finished.add(minDestNode);
                 }
+                finished[minDestId] = true;
             }
 
         }
@@ -63,6 +66,185 @@ public class DijkstrasAlgorithm {
         return null;
     }
 
+    /**
+     * Returns the minimum-cost path between two given nodes (starting and ending) on a graph, like
+     * dijkstraPath, but keeps one queue entry per node in an IndexedMinHeap and lowers its
+     * distance in place, instead of queueing a whole new Path every time an edge is relaxed.
+     * Only the cost and the parent of each node are kept while searching, and the Path is
+     * built once, when the end is reached.
+     * @param starting the start node to find path from
+     * @param ending the end node to find path to
+     * @param graph the graph that we want to find the shortest path on
+     * @return a shortest path between the starting and ending node, return null if no path found.
+     * @param <D> the type of the node
+     * @throws IllegalArgumentException if the starting/ending/graph is null, or the given starting or
+     * ending nodes is not exist in the graph.
+     */
+    public static <D> Path<D> indexedDijkstraPath(D starting, D ending, GraphView<D, Double> graph) {
+        if (starting == null || ending == null || graph == null) {
+            throw new IllegalArgumentException("starting/ending/graph cannot be null");
+        }
+
+        int startId = graph.idOf(starting);
+        int destId = graph.idOf(ending);
+        if (startId < 0 || destId < 0) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        if (!graph.mayReach(startId, destId)) {
+            return null;
+        }
+
+        Relaxer<D> search = new Relaxer<>(graph, null);
+        try {
+            return search.search(startId, destId);
+        } finally {
+            search.release();
+        }
+    }
+
+    /**
+     * Returns the minimum-cost path from any of the given starts to any of the given ends in one run
+     * of Dijkstra's algorithm, instead of one run per pair: every start is queued at no cost, and
+     * the search stops at the first end it settles.
+     * @param starting the start nodes to find path from
+     * @param ending the end nodes to find path to
+     * @param graph the graph that we want to find the shortest path on
+     * @return the shortest of the paths from a node in starting to a node in ending, return null if
+     * no path found.
+     * @param <D> the type of the node
+     * @throws IllegalArgumentException if the starting/ending/graph is null, starting or ending is empty
+     * or contains null, or a node in them does not exist in the graph.
+     */
+    public static <D> Path<D> multiSourcePath(Collection<D> starting, Collection<D> ending, GraphView<D, Double> graph) {
+        if (starting == null || ending == null || graph == null) {
+            throw new IllegalArgumentException("starting/ending/graph cannot be null");
+        }
+        if (starting.isEmpty() || ending.isEmpty()) {
+            throw new IllegalArgumentException("starting/ending cannot be empty");
+        }
+
+        int[] startIds = idsOf(starting, graph);
+        int[] destIds = idsOf(ending, graph);
+        Arrays.sort(destIds);
+
+        Relaxer<D> search = new Relaxer<>(graph, null);
+        try {
+            return search.searchMany(startIds, destIds);
+        } finally {
+            search.release();
+        }
+    }
+
+    // Returns the ids of the given nodes, or throws an IllegalArgumentException if one is null or
+    // not in the graph.
+    private static <D> int[] idsOf(Collection<D> nodes, GraphView<D, Double> graph) {
+        int[] ids = new int[nodes.size()];
+        int i = 0;
+        for (D node : nodes) {
+            ids[i] = node == null ? -1 : graph.idOf(node);
+            if (ids[i] < 0) {
+                throw new IllegalArgumentException("node must exist before finding the path");
+            }
+            i++;
+        }
+        return ids;
+    }
+
+    /**
+     * Finds the minimum-cost paths from the given source to every node it can reach in one run of
+     * Dijkstra's algorithm, so the paths and distances to many ends can be read out of the result
+     * without searching again.
+     * @param source the start node to find paths from
+     * @param graph the graph that we want to find the shortest paths on
+     * @return the shortest paths from source, the same ones indexedDijkstraPath finds
+     * @param <D> the type of the node
+     * @throws IllegalArgumentException if the source/graph is null, or the given source node does not
+     * exist in the graph.
+     */
+    public static <D> ShortestPathTree<D> shortestPathTree(D source, GraphView<D, Double> graph) {
+        if (source == null || graph == null) {
+            throw new IllegalArgumentException("source/graph cannot be null");
+        }
+
+        int sourceId = graph.idOf(source);
+        if (sourceId < 0) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+
+        Relaxer<D> search = new Relaxer<>(graph, null);
+        try {
+            search.searchAll(sourceId);
+            return search.tree();
+        } finally {
+            search.release();
+        }
+    }
+
+    /**
+     * Finds the minimum-cost paths from the given source to every node whose path costs at most the
+     * given radius. The search stops as soon as every node left to settle is further than that, so
+     * a small radius only settles the nodes near the source, not the whole graph.
+     * @param source the start node to find paths from
+     * @param radius the greatest cost of a path to be found, may be infinite
+     * @param graph the graph that we want to find the shortest paths on
+     * @return every node at most radius from source -> the shortest path to it, the same one
+     * indexedDijkstraPath finds, in increasing order of cost. source itself is first.
+     * @param <D> the type of the node
+     * @throws IllegalArgumentException if the source/graph is null, radius is negative or NaN, or the
+     * given source node does not exist in the graph.
+     */
+    public static <D> Map<D, Path<D>> pathsWithin(D source, double radius, GraphView<D, Double> graph) {
+        if (source == null || graph == null) {
+            throw new IllegalArgumentException("source/graph cannot be null");
+        }
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("radius must be a non-negative number");
+        }
+
+        int sourceId = graph.idOf(source);
+        if (sourceId < 0) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+
+        Relaxer<D> search = new Relaxer<>(graph, null);
+        try {
+            return search.searchWithin(sourceId, radius);
+        } finally {
+            search.release();
+        }
+    }
+
+    /**
+     * Returns the minimum-cost path between two given nodes (starting and ending) on a graph, like
+     * indexedDijkstraPath, but searches from both ends at once, following edges backwards from the
+     * end, and stops when the two searches meet. Each search only has to reach about half as far,
+     * which on most graphs settles far fewer nodes. The graph has to find the parents of a node,
+     * which a Graph does quickly once Graph#indexParents() has been called.
+     * @param starting the start node to find path from
+     * @param ending the end node to find path to
+     * @param graph the graph that we want to find the shortest path on
+     * @return a shortest path between the starting and ending node, return null if no path found.
+     * @param <D> the type of the node
+     * @throws IllegalArgumentException if the starting/ending/graph is null, or the given starting or
+     * ending nodes is not exist in the graph.
+     */
+    public static <D> Path<D> bidirectionalDijkstraPath(D starting, D ending, GraphView<D, Double> graph) {
+        if (starting == null || ending == null || graph == null) {
+            throw new IllegalArgumentException("starting/ending/graph cannot be null");
+        }
+
+        int startId = graph.idOf(starting);
+        int destId = graph.idOf(ending);
+        if (startId < 0 || destId < 0) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        if (!graph.mayReach(startId, destId)) {
+            return null;
+        }
+
+        return Relaxer.searchBothWays(graph, startId, destId);
+    }
+
     /**
      * Implement a comparator to two path of unknown type by their cost.
      */
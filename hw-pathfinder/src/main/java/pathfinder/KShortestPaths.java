@@ -0,0 +1,152 @@
+package pathfinder;
+
+import graph.GraphView;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/**
+ * K Shortest Paths Class implements Yen's algorithm, which finds the k cheapest loopless paths
+ * between two nodes with a type of D in a graph with all non-negative edge weights with a type of
+ * Double. Each path after the first is found by taking a path already found, keeping it up to some
+ * node (the root), and searching from that node (the spur) for the cheapest way on that neither
+ * goes back through the root nor leaves the spur the way a path already found with the same root
+ * does.
+ *
+ * <p>A path only needs spur searches from the node where it left the path it was derived from
+ * onwards (Lawler's improvement), since the spurs before it were already searched for that path,
+ * and every root is the previous one extended by one step, so no root is built twice.</p>
+ */
+public class KShortestPaths {
+    //This class is not an ADT
+
+    /**
+     * Returns the k minimum-cost paths between two given nodes (starting and ending) on a graph
+     * that visit no node twice, cheapest first. Two paths that differ only in which of several
+     * parallel edges they take are the same path, and only the cheapest of those edges is taken.
+     * @param starting the start node to find paths from
+     * @param ending the end node to find paths to
+     * @param k the number of paths wanted
+     * @param graph the graph that we want to find the shortest paths on
+     * @return the k shortest loopless paths from starting to ending, in increasing order of cost, or
+     * all of them if there are fewer than k. The first is the path indexedDijkstraPath finds, and
+     * the list is empty if there is no path.
+     * @param <D> the type of the node
+     * @throws IllegalArgumentException if the starting/ending/graph is null, k is less than 1, or the
+     * given starting or ending nodes is not exist in the graph.
+     */
+    public static <D> List<Path<D>> kShortestPaths(D starting, D ending, int k, GraphView<D, Double> graph) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        List<Path<D>> result = new ArrayList<>();
+        Path<D> first = DijkstrasAlgorithm.indexedDijkstraPath(starting, ending, graph);
+        if (first == null) {
+            return result;
+        }
+
+        int destId = graph.idOf(ending);
+        // the node ids of every path in result, in the same order
+        List<int[]> found = new ArrayList<>();
+        Queue<Candidate<D>> candidates = new PriorityQueue<>();
+        Set<Path<D>> seen = new HashSet<>();
+        candidates.add(new Candidate<>(first, 0, 0));
+        seen.add(first);
+
+        while (result.size() < k && !candidates.isEmpty()) {
+            Candidate<D> next = candidates.remove();
+            result.add(next.path);
+            if (result.size() == k) {
+                // the paths derived from the last one would never be used
+                break;
+            }
+            int[] nodes = idsOf(next.path, graph);
+            found.add(nodes);
+
+            Path<D> root = new Path<>(starting);
+            int i = 0;
+            for (Path<D>.Segment segment : next.path) {
+                if (i >= next.deviation) {
+                    Path<D> spur = spurPath(nodes, i, destId, found, graph);
+                    if (spur != null) {
+                        Path<D> path = root;
+                        for (Path<D>.Segment step : spur) {
+                            path = path.extend(step.getEnd(), step.getCost());
+                        }
+                        if (seen.add(path)) {
+                            candidates.add(new Candidate<>(path, i, seen.size()));
+                        }
+                    }
+                }
+                root = root.extend(segment.getEnd(), segment.getCost());
+                i++;
+            }
+        }
+
+        return result;
+    }
+
+    // Returns the cheapest path from nodes[spur] to the end that goes through none of nodes[0 ... spur - 1],
+    // and does not go on to the node after nodes[spur] on any found path that starts with nodes[0 ... spur],
+    // or null if there is none.
+    private static <D> Path<D> spurPath(int[] nodes, int spur, int destId, List<int[]> found,
+                                        GraphView<D, Double> graph) {
+        int[] banned = Arrays.copyOf(nodes, spur);
+        int[] skipped = new int[found.size()];
+        int count = 0;
+        for (int[] other : found) {
+            if (other.length > spur + 1 && Arrays.equals(other, 0, spur + 1, nodes, 0, spur + 1)) {
+                skipped[count++] = other[spur + 1];
+            }
+        }
+
+        Relaxer<D> search = new Relaxer<>(graph, null);
+        try {
+            return search.searchAvoiding(nodes[spur], destId, banned, Arrays.copyOf(skipped, count));
+        } finally {
+            search.release();
+        }
+    }
+
+    // Returns the ids of the nodes of the given path, in order.
+    private static <D> int[] idsOf(Path<D> path, GraphView<D, Double> graph) {
+        List<Integer> ids = new ArrayList<>();
+        ids.add(graph.idOf(path.getStart()));
+        for (Path<D>.Segment segment : path) {
+            ids.add(graph.idOf(segment.getEnd()));
+        }
+        int[] result = new int[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * <b>Candidate</b> is a path that may be one of the k shortest, with the index of its spur node,
+     * where it leaves the path it was found from. Candidates are ordered by cost, and equal costs by
+     * the order they were found in.
+     */
+    private static class Candidate<D> implements Comparable<Candidate<D>> {
+        // the path
+        private final Path<D> path;
+
+        // the index in path of the node where it leaves the path it was found from
+        private final int deviation;
+
+        // how many candidates were found before this one
+        private final int order;
+
+        Candidate(Path<D> path, int deviation, int order) {
+            this.path = path;
+            this.deviation = deviation;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Candidate<D> other) {
+            int byCost = Double.compare(path.getCost(), other.path.getCost());
+            return byCost != 0 ? byCost : Integer.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package pathfinder;
+
+import graph.GraphView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>Landmarks</b> is an immutable A* heuristic for any graph with non-negative Double edge costs,
+ * made by preprocessing the graph (ALT: A*, landmarks and the triangle inequality). A few nodes
+ * are picked as landmarks, far apart from each other, and the cost of the cheapest path from every
+ * landmark to every node and from every node to every landmark is stored. For any landmark L, the
+ * cost of a path from v to t is at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L), and the
+ * estimate is the greatest of these bounds. It is consistent, so it can be given to
+ * AStarAlgorithm.aStarPath, and it needs nothing of the nodes, unlike AStarAlgorithm.euclidean.
+ *
+ * <p>Finding the costs to each landmark searches the graph backwards, which is much faster on a
+ * Graph once Graph#indexParents() has been called. Later changes to the graph are not reflected
+ * in the estimates, which may then be too high.</p>
+ * D is the node type.
+ */
+public final class Landmarks<D> implements AStarAlgorithm.Heuristic<D> {
+
+    // Abstract Function:
+    // Landmarks represents the heuristic whose estimate from v to t is the greatest of 0 and, for every
+    // landmark i, fromLandmark[t * count + i] - fromLandmark[v * count + i] and
+    // toLandmark[v * count + i] - toLandmark[t * count + i], leaving out the differences that are NaN.
+    // fromLandmark[v * count + i] is the cost of the cheapest path from landmark i to v, and
+    // toLandmark[v * count + i] the cost of the cheapest path from v to landmark i, infinite if none.
+
+    // Rep Invariant:
+    // graph, landmarks, fromLandmark, toLandmark != null, landmarks.size() == count >= 1.
+    // fromLandmark.length == toLandmark.length == count times the number of nodes graph had when the
+    // landmarks were picked, and every entry is >= 0.
+    // fromLandmark[graph.idOf(landmarks.get(i)) * count + i] == 0 for every landmark i.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // the graph the costs are on
+    private final GraphView<D, Double> graph;
+
+    // the number of landmarks
+    private final int count;
+
+    // landmark index -> node
+    private final List<D> landmarks;
+
+    // node id * count + landmark index -> the cost of the cheapest path from the landmark to the node
+    private final double[] fromLandmark;
+
+    // node id * count + landmark index -> the cost of the cheapest path from the node to the landmark
+    private final double[] toLandmark;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (fromLandmark.length == toLandmark.length) : "Both tables cover every node";
+        assert (landmarks.size() == count) : "One column per landmark";
+        if (DEBUG) {
+            for (int i = 0; i < count; i++) {
+                assert (fromLandmark[graph.idOf(landmarks.get(i)) * count + i] == 0.0) : "A landmark is at no cost from itself";
+            }
+            for (int j = 0; j < fromLandmark.length; j++) {
+                assert (fromLandmark[j] >= 0 && toLandmark[j] >= 0) : "Costs cannot be negative";
+            }
+        }
+    }
+
+    private Landmarks(GraphView<D, Double> graph, List<D> landmarks, double[] fromLandmark, double[] toLandmark) {
+        this.graph = graph;
+        this.count = landmarks.size();
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+        checkRep();
+    }
+
+    /**
+     * Picks landmarks in the given graph and finds the costs between them and every node. The first
+     * landmark is the node furthest from the node with id 0, and each one after it is the node whose
+     * cost from the nearest landmark already picked is greatest, so they end up around the edges
+     * of the graph, where they give the best estimates. While there are nodes no landmark picked
+     * so far reaches, such as those in other parts of a disconnected graph, the least of their ids
+     * is picked instead, so every part gets a landmark. No node is picked twice.
+     * @param graph the graph to be searched, whose edge costs are all non-negative
+     * @param count the number of landmarks, fewer are picked if the graph has fewer nodes
+     * @param <D> the node type
+     * @return a heuristic for A* searches on graph
+     * @throws IllegalArgumentException if graph is null or empty, or count is less than 1
+     */
+    public static <D> Landmarks<D> from(GraphView<D, Double> graph, int count) {
+        if (graph == null || graph.size() == 0) {
+            throw new IllegalArgumentException("Graph cannot be null or empty");
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("Need at least one landmark");
+        }
+        int n = graph.size();
+        count = Math.min(count, n);
+        double[] fromLandmark = new double[n * count];
+        double[] toLandmark = new double[n * count];
+        // node id -> the cost from the nearest landmark picked so far, to pick the next one by
+        double[] nearest = new double[n];
+        distances(graph, 0, false, nearest, 0, 1);
+
+        // node id -> true if it is already a landmark
+        boolean[] picked = new boolean[n];
+
+        List<D> landmarks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // a node no landmark reaches gets no bound from any of them, so it is picked before the furthest
+            int landmark = i == 0 ? -1 : unreached(nearest, picked);
+            if (landmark < 0) {
+                landmark = furthest(nearest, picked);
+            }
+            picked[landmark] = true;
+            landmarks.add(graph.dataOf(landmark));
+            distances(graph, landmark, false, fromLandmark, i, count);
+            distances(graph, landmark, true, toLandmark, i, count);
+            for (int v = 0; v < n; v++) {
+                double cost = fromLandmark[v * count + i];
+                nearest[v] = i == 0 ? cost : Math.min(nearest[v], cost);
+            }
+        }
+        return new Landmarks<>(graph, Collections.unmodifiableList(landmarks), fromLandmark, toLandmark);
+    }
+
+    // Fills table[v * stride + offset] with the cost of the cheapest path from the node with the given
+    // id to v, or from v to it if backward, for every node v.
+    private static <D> void distances(GraphView<D, Double> graph, int id, boolean backward, double[] table,
+                                      int offset, int stride) {
+        Relaxer<D> search = new Relaxer<>(graph, null, backward);
+        try {
+            search.searchAll(id);
+            for (int v = 0; v < graph.size(); v++) {
+                table[v * stride + offset] = search.distanceTo(v);
+            }
+        } finally {
+            search.release();
+        }
+    }
+
+    // Returns the id of the node not picked yet with the greatest cost in the given table, the least
+    // such id if there are several, preferring reached nodes. Some node must not be picked yet.
+    private static int furthest(double[] cost, boolean[] picked) {
+        int result = -1;
+        for (int v = 0; v < cost.length; v++) {
+            if (!picked[v] && (result < 0 || (cost[v] != Double.POSITIVE_INFINITY
+                    && (cost[result] == Double.POSITIVE_INFINITY || cost[v] > cost[result])))) {
+                result = v;
+            }
+        }
+        return result;
+    }
+
+    // Returns the least id of a node not picked yet that is not reached in the given table, or -1 if
+    // there is none.
+    private static int unreached(double[] cost, boolean[] picked) {
+        for (int v = 0; v < cost.length; v++) {
+            if (!picked[v] && cost[v] == Double.POSITIVE_INFINITY) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the landmarks, in the order they were picked.
+     */
+    public List<D> landmarks() {
+        return landmarks;
+    }
+
+    /**
+     * @param from the node the path starts at
+     * @param to the node the path ends at
+     * @return a lower bound on the cost of any path from from to to, which may be infinite if there is none
+     * @throws IllegalArgumentException if from or to is not a node of the graph, or was added to it
+     * after the landmarks were picked
+     */
+    @Override
+    public double estimate(D from, D to) {
+        int v = idOf(from) * count;
+        int t = idOf(to) * count;
+        double best = 0.0;
+        for (int i = 0; i < count; i++) {
+            // a NaN difference, of two infinite costs, tells nothing and fails both comparisons
+            double forward = fromLandmark[t + i] - fromLandmark[v + i];
+            if (forward > best) {
+                best = forward;
+            }
+            double backward = toLandmark[v + i] - toLandmark[t + i];
+            if (backward > best) {
+                best = backward;
+            }
+        }
+        return best;
+    }
+
+    // Returns the id of the given node, or throws an IllegalArgumentException if it isn't in the graph
+    // or has no costs in the tables, having been added after they were made.
+    private int idOf(D node) {
+        int id = node == null ? -1 : graph.idOf(node);
+        if (id < 0 || id >= fromLandmark.length / count) {
+            throw new IllegalArgumentException("No such node " + node);
+        }
+        return id;
+    }
+}
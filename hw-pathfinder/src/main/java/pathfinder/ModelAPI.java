@@ -14,6 +14,7 @@ package pathfinder;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.List;
 import java.util.Map;
 
 /*
@@ -71,4 +72,19 @@ public interface ModelAPI {
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic.
 
+    /**
+     * Finds the k shortest paths, by distance, between the two provided buildings that do not
+     * visit any point twice, to offer alternatives to the shortest one.
+     *
+     * @param startShortName The short name of the building at the beginning of these paths.
+     * @param endShortName   The short name of the building at the end of these paths.
+     * @param k              The number of paths wanted.
+     * @return Up to k paths between {@code startBuilding} and {@code endBuilding}, shortest first,
+     * fewer if there aren't that many, or none if no path exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map, or k is less than 1.
+     */
+    public List<Path<Point>> findShortestPaths(String startShortName, String endShortName, int k);
+
 }
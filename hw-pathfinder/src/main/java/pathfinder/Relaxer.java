@@ -0,0 +1,446 @@
+package pathfinder;
+
+import graph.GraphView;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <b>Relaxer</b> holds the state of one search for a cheapest path from one node to another, and
+ * relaxes the edges from one finished node to each of its children. Nodes are queued once, in an
+ * IndexedMinHeap, by their cost from the start plus an estimate of their cost to the end; with no
+ * estimate this is Dijkstra's algorithm, with one it is A*. A Relaxer can also search backwards,
+ * along edges to parents, which a bidirectional search runs alongside a forward one.
+ * The per-node state is kept in a Workspace borrowed from the thread running the search, which
+ * has to be given back with release() once the search is done.
+ * D is the node type.
+ */
+class Relaxer<D> implements GraphView.ChildConsumer<Double> {
+
+    // Abstract Function:
+    // For every id v that has been reached, dist[v] is the cost of the cheapest path found so far
+    // from the start to v, and that path is the path to parent[v] followed by an edge of cost step[v].
+    // finished[v] is true once that path is known to be a cheapest one.
+    // If backward, the paths are from v to the start instead, following the edges the other way,
+    // and parent[v] is the node after v.
+    // If other != null, best is the cost of the cheapest path found so far made of a path in this
+    // search to meetFrom, an edge of cost meetCost between meetFrom and meetTo, and a path in other
+    // from meetTo.
+
+    // Rep Invariant:
+    // graph, workspace, active, dist, parent, step, finished, estimate != null, all arrays have at
+    // least graph.size() entries, and are the ones in workspace.
+    // every id that has been reached has been touched in workspace.
+    // parent[v] == -1 for every start and for every node not reached.
+    // every queued id has key dist[id] + estimate[id], and no finished id is queued.
+
+    // the graph being searched
+    private final GraphView<D, Double> graph;
+
+    // true if this search follows edges from child to parent
+    private final boolean backward;
+
+    // the lower bound on the cost from a node to the end, or null for none
+    private final AStarAlgorithm.Heuristic<? super D> heuristic;
+
+    // where the per-node state below is kept
+    private final Workspace workspace;
+
+    // the nodes whose distance is known but not yet final, keyed by distance plus estimate
+    private final IndexedMinHeap active;
+
+    // id -> the least cost found so far from the start, infinite if not reached
+    private final double[] dist;
+
+    // id -> the id of the node before it on the cheapest path found so far, -1 for the start
+    private final int[] parent;
+
+    // id -> the cost of the edge from parent[id] to it
+    private final double[] step;
+
+    // id -> true once its distance is final
+    private final boolean[] finished;
+
+    // id -> the heuristic's estimate of its cost to the end, NaN until it is first needed
+    private final double[] estimate;
+
+    // the end node's data, which the heuristic estimates the cost to
+    private D target;
+
+    // the id of the node the search started from, -1 before it starts
+    private int start = -1;
+
+    // the id of the node whose children are being relaxed
+    private int from;
+
+    // the ids of the children of the start whose edges from it are not followed, empty for none
+    private int[] skipped = new int[0];
+
+    // the search running the other way, or null if there is none
+    private Relaxer<D> other;
+
+    // the cheapest path through both searches found so far, see the abstract function
+    private double best = Double.POSITIVE_INFINITY;
+    private int meetFrom = -1;
+    private int meetTo = -1;
+    private double meetCost;
+
+    /**
+     * Constructs the state for a search on the given graph, in a workspace of this thread.
+     * @param graph the graph to be searched
+     * @param heuristic a lower bound on the cost between two nodes, or null to search without one
+     */
+    Relaxer(GraphView<D, Double> graph, AStarAlgorithm.Heuristic<? super D> heuristic) {
+        this(graph, heuristic, false);
+    }
+
+    /**
+     * Constructs the state for a search on the given graph, in a workspace of this thread.
+     * @param graph the graph to be searched
+     * @param heuristic a lower bound on the cost between two nodes, or null to search without one
+     * @param backward true to follow edges from child to parent, finding paths to the start instead of from it
+     */
+    Relaxer(GraphView<D, Double> graph, AStarAlgorithm.Heuristic<? super D> heuristic, boolean backward) {
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.backward = backward;
+        workspace = Workspace.acquire(graph.size());
+        active = workspace.active;
+        dist = workspace.dist;
+        parent = workspace.parent;
+        step = workspace.step;
+        finished = workspace.finished;
+        estimate = workspace.estimate;
+    }
+
+    /**
+     * Gives the workspace of this search back to its thread.
+     * @spec.requires this Relaxer is not used again
+     */
+    void release() {
+        workspace.release();
+    }
+
+    /**
+     * Searches for a cheapest path between the nodes with the given ids.
+     * @param startId the id of the start node
+     * @param destId the id of the end node
+     * @return a cheapest path from the start to the end, or null if there is none
+     * @spec.requires both ids are ids of nodes in the graph, and search has not been called before
+     */
+    Path<D> search(int startId, int destId) {
+        target = graph.dataOf(destId);
+        begin(startId);
+
+        while (!active.isEmpty()) {
+            int minId = active.removeMin();
+            if (minId == destId) {
+                return pathTo(destId);
+            }
+            settle(minId);
+        }
+
+        return null;
+    }
+
+    /**
+     * Searches for a cheapest path from any of the nodes with the given start ids to any of the
+     * nodes with the given end ids, starting from all the starts at once at no cost and stopping
+     * at the first end settled.
+     * @param startIds the ids of the start nodes
+     * @param destIds the ids of the end nodes, sorted
+     * @return a cheapest path from a start to an end, or null if there is none
+     * @spec.requires every id is the id of a node in the graph, no heuristic was given, and no search
+     * has been run before
+     */
+    Path<D> searchMany(int[] startIds, int[] destIds) {
+        for (int startId : startIds) {
+            if (dist[startId] != 0.0) {
+                begin(startId);
+            }
+        }
+
+        while (!active.isEmpty()) {
+            int minId = active.removeMin();
+            if (Arrays.binarySearch(destIds, minId) >= 0) {
+                return pathTo(minId);
+            }
+            settle(minId);
+        }
+
+        return null;
+    }
+
+    /**
+     * Searches for a cheapest path between the nodes with the given ids that goes through none of
+     * the given nodes, and does not take the edges from the start to any of the given children.
+     * @param startId the id of the start node
+     * @param destId the id of the end node
+     * @param bannedIds the ids of the nodes the path may not go through, without duplicates
+     * @param skippedIds the ids of the children of the start the path may not go to first
+     * @return a cheapest path from the start to the end avoiding the given nodes and edges, or null
+     * if there is none
+     * @spec.requires every id is the id of a node in the graph, neither the start nor the end is
+     * banned, and no search has been run before
+     */
+    Path<D> searchAvoiding(int startId, int destId, int[] bannedIds, int[] skippedIds) {
+        for (int id : bannedIds) {
+            // a banned node counts as settled, so no edge to it is ever relaxed
+            workspace.touch(id);
+            finished[id] = true;
+        }
+        skipped = skippedIds;
+        return search(startId, destId);
+    }
+
+    /**
+     * Searches for a cheapest path from the node with the given id to every node it can reach,
+     * settling every one of them.
+     * @param startId the id of the start node
+     * @spec.requires startId is the id of a node in the graph, no heuristic was given, and no search
+     * has been run before
+     */
+    void searchAll(int startId) {
+        begin(startId);
+        while (!active.isEmpty()) {
+            settle(active.removeMin());
+        }
+    }
+
+    /**
+     * Searches for a cheapest path from the node with the given id to every node at most the given
+     * cost away, and stops as soon as the nearest node not yet settled is further than that.
+     * @param startId the id of the start node
+     * @param radius the greatest cost of a path to be found
+     * @return the node at the end of each path found -> that path, in increasing order of cost
+     * @spec.requires startId is the id of a node in the graph, no heuristic was given, and no search
+     * has been run before
+     */
+    Map<D, Path<D>> searchWithin(int startId, double radius) {
+        Map<D, Path<D>> result = new LinkedHashMap<>();
+        begin(startId);
+        while (!active.isEmpty() && nextKey() <= radius) {
+            int id = active.removeMin();
+            D data = graph.dataOf(id);
+            // the parent was settled first, so its path is only extended by one step
+            Path<D> path = parent[id] < 0 ? new Path<>(data)
+                    : result.get(graph.dataOf(parent[id])).extend(data, step[id]);
+            result.put(data, path);
+            settle(id);
+        }
+        return result;
+    }
+
+    /**
+     * @param id the id of a node in the graph
+     * @return the id of the node before the given one on the cheapest path found to it, or -1 if
+     * it is the start or has not been reached.
+     */
+    int parentOf(int id) {
+        return parent[id];
+    }
+
+    /**
+     * @param id the id of a node in the graph
+     * @return the cost of the edge from the node before the given one on the cheapest path found to
+     * it, meaningless if it is the start or has not been reached.
+     */
+    double stepOf(int id) {
+        return step[id];
+    }
+
+    /**
+     * @param id the id of a node in the graph
+     * @return the cost of the cheapest path found to the given node, infinite if it has not been reached.
+     */
+    double distanceTo(int id) {
+        return dist[id];
+    }
+
+    /**
+     * @return a copy of the cheapest paths found from the start to every node reached, which
+     * outlives this search.
+     * @spec.requires searchAll has been called
+     */
+    ShortestPathTree<D> tree() {
+        int size = graph.size();
+        return new ShortestPathTree<>(graph, start, Arrays.copyOf(dist, size), Arrays.copyOf(parent, size),
+                Arrays.copyOf(step, size));
+    }
+
+    /**
+     * Searches for a cheapest path between the nodes with the given ids from both ends at once:
+     * a forward search from the start and a backward search from the end take turns settling
+     * their nearest node, and stop once no path through nodes neither has settled can be cheaper
+     * than the cheapest path found joining the two.
+     * @param graph the graph to be searched
+     * @param startId the id of the start node
+     * @param destId the id of the end node
+     * @param <D> the node type
+     * @return a cheapest path from the start to the end, or null if there is none
+     * @spec.requires both ids are ids of nodes in the graph
+     */
+    static <D> Path<D> searchBothWays(GraphView<D, Double> graph, int startId, int destId) {
+        if (startId == destId) {
+            return new Path<>(graph.dataOf(startId));
+        }
+        Relaxer<D> forward = new Relaxer<>(graph, null, false);
+        Relaxer<D> backward = new Relaxer<>(graph, null, true);
+        try {
+            return meet(forward, backward, startId, destId);
+        } finally {
+            forward.release();
+            backward.release();
+        }
+    }
+
+    // Runs the given forward and backward searches from the given ends until they meet, see searchBothWays.
+    private static <D> Path<D> meet(Relaxer<D> forward, Relaxer<D> backward, int startId, int destId) {
+        forward.other = backward;
+        backward.other = forward;
+        forward.begin(startId);
+        backward.begin(destId);
+
+        while (!forward.active.isEmpty() && !backward.active.isEmpty()) {
+            double best = Math.min(forward.best, backward.best);
+            if (forward.nextKey() + backward.nextKey() >= best) {
+                break;
+            }
+            // the side with fewer queued nodes goes next, keeping the two searches about the same size
+            Relaxer<D> side = forward.active.size() <= backward.active.size() ? forward : backward;
+            side.settle(side.active.removeMin());
+        }
+
+        if (forward.best <= backward.best) {
+            return forward.best == Double.POSITIVE_INFINITY ? null : forward.joinedPath();
+        }
+        return backward.joinedPath();
+    }
+
+    // Queues the node with the given id as the one the search starts from.
+    private void begin(int startId) {
+        start = startId;
+        workspace.touch(startId);
+        dist[startId] = 0.0;
+        active.offer(startId, estimateOf(startId));
+    }
+
+    // Returns the least key queued, or infinity if none are.
+    private double nextKey() {
+        return active.isEmpty() ? Double.POSITIVE_INFINITY : active.keyOf(active.peek());
+    }
+
+    // Marks the node with the given id, just removed from the queue, finished and relaxes its edges.
+    private void settle(int id) {
+        finished[id] = true;
+        from = id;
+        if (backward) {
+            graph.forEachParent(id, this);
+        } else {
+            graph.forEachChild(id, this);
+        }
+    }
+
+    @Override
+    public void accept(int childId, List<Double> labels) {
+        if (finished[childId] && other == null) {
+            return;
+        }
+        if (from == start) {
+            for (int id : skipped) {
+                if (id == childId) {
+                    return;
+                }
+            }
+        }
+        // of several parallel edges only the cheapest can be on a shortest path
+        double cost = labels.get(0);
+        for (int i = 1; i < labels.size(); i++) {
+            cost = Math.min(cost, labels.get(i));
+        }
+        double d = dist[from] + cost;
+        // every edge to a node the other search has reached joins the two into a path
+        if (other != null && d + other.dist[childId] < best) {
+            best = d + other.dist[childId];
+            meetFrom = from;
+            meetTo = childId;
+            meetCost = cost;
+        }
+        if (!finished[childId] && d < dist[childId]) {
+            if (dist[childId] == Double.POSITIVE_INFINITY) {
+                workspace.touch(childId);
+            }
+            dist[childId] = d;
+            parent[childId] = from;
+            step[childId] = cost;
+            active.offer(childId, d + estimateOf(childId));
+        }
+    }
+
+    // Returns the heuristic's estimate of the cost from the node with the given id to the end.
+    private double estimateOf(int id) {
+        if (heuristic == null) {
+            return 0.0;
+        }
+        if (Double.isNaN(estimate[id])) {
+            estimate[id] = heuristic.estimate(graph.dataOf(id), target);
+        }
+        return estimate[id];
+    }
+
+    // Builds the cheapest path found through both searches, from the forward search's start to the
+    // backward search's start.
+    private Path<D> joinedPath() {
+        if (backward) {
+            // the meeting edge goes from meetTo, in the forward search, to meetFrom, in this one
+            return extendAlong(other.pathTo(meetTo).extend(graph.dataOf(meetFrom), meetCost), meetFrom);
+        }
+        return other.extendAlong(pathTo(meetFrom).extend(graph.dataOf(meetTo), meetCost), meetTo);
+    }
+
+    // Extends the given path, which ends at the node with the given id, along the parents this
+    // backward search recorded from that node to its start.
+    private Path<D> extendAlong(Path<D> path, int id) {
+        for (int v = id; parent[v] >= 0; v = parent[v]) {
+            path = path.extend(graph.dataOf(parent[v]), step[v]);
+        }
+        return path;
+    }
+
+    // Builds the Path from the start to the node with the given id by following the parents.
+    private Path<D> pathTo(int id) {
+        return pathTo(graph, parent, step, id);
+    }
+
+    /**
+     * Builds the path from a search's start to the node with the given id by following the parents
+     * the search recorded, in time proportional to its length.
+     * @param graph the graph that was searched
+     * @param parent the id of the node before each node on its cheapest path, -1 for the start
+     * @param step the cost of the edge from each node's parent to it
+     * @param id the id of a node the search reached
+     * @param <D> the node type
+     * @return the path from the start to the node with the given id
+     */
+    static <D> Path<D> pathTo(GraphView<D, ?> graph, int[] parent, double[] step, int id) {
+        int length = 0;
+        for (int v = id; parent[v] >= 0; v = parent[v]) {
+            length++;
+        }
+        int[] order = new int[length + 1];
+        int v = id;
+        for (int i = length; i >= 0; i--) {
+            order[i] = v;
+            v = parent[v] < 0 ? v : parent[v];
+        }
+        Path<D> path = new Path<>(graph.dataOf(order[0]));
+        for (int i = 1; i <= length; i++) {
+            path = path.extend(graph.dataOf(order[i]), step[order[i]]);
+        }
+        return path;
+    }
+}
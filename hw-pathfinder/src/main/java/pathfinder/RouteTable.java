@@ -0,0 +1,253 @@
+package pathfinder;
+
+import graph.GraphView;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <b>RouteTable</b> is an immutable table of the cheapest paths from each of a fixed set of source
+ * nodes to every node of a graph with non-negative Double edge costs. It is built by running
+ * Dijkstra's algorithm to completion from every source, the sources split among several threads,
+ * and keeps only the predecessor of every node on its cheapest path from each source, plus the
+ * costs between the sources. A path from a source is then read out of the table in time
+ * proportional to its length, without searching the graph at all.
+ *
+ * <p>The paths are the same ones DijkstrasAlgorithm.indexedDijkstraPath returns. Later changes to
+ * the graph the table was built from are not reflected in it.</p>
+ * D is the node type.
+ */
+public final class RouteTable<D> {
+
+    // Abstract Function:
+    // A RouteTable represents, for each source sources.get(r), the cheapest path from it to every node v
+    // of graph it can reach: the cheapest path to parent[r][v] followed by an edge of cost step[r][v]
+    // from parent[r][v] to v. distance[r][c] is the cost of the cheapest path from sources.get(r) to
+    // sources.get(c), infinite if there is none.
+
+    // Rep Invariant:
+    // graph, sources, rows, sourceIds, parent, step, distance != null, sources contains no nulls or duplicates.
+    // rows.get(sources.get(r)) == r and sourceIds[r] == graph.idOf(sources.get(r)) >= 0 for every row r.
+    // parent, step and distance have sources.size() rows, each parent and step row has as many entries
+    // as graph had nodes when the table was built, and each distance row has sources.size() entries.
+    // parent[r][sourceIds[r]] == -1, and following parent[r] from any node ends at sourceIds[r] or at a
+    // node that is not reached.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // the graph the paths are on
+    private final GraphView<D, Double> graph;
+
+    // row -> source node
+    private final List<D> sources;
+
+    // source node -> row
+    private final Map<D, Integer> rows;
+
+    // row -> the graph id of its source
+    private final int[] sourceIds;
+
+    // row -> node id -> the id of the node before it on the cheapest path from the source, -1 for none
+    private final int[][] parent;
+
+    // row -> node id -> the cost of the edge from parent[row][id] to it
+    private final double[][] step;
+
+    // row -> column -> the cost of the cheapest path between the two sources
+    private final double[][] distance;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (parent.length == sources.size() && step.length == sources.size()
+                && distance.length == sources.size()) : "One row per source";
+        if (DEBUG) {
+            for (int r = 0; r < sources.size(); r++) {
+                assert (rows.get(sources.get(r)) == r) : "Row table is inconsistent";
+                assert (parent[r][sourceIds[r]] == -1) : "A source has no parent";
+                assert (distance[r][r] == 0.0) : "A source is at no cost from itself";
+            }
+        }
+    }
+
+    private RouteTable(GraphView<D, Double> graph, List<D> sources, Map<D, Integer> rows, int[] sourceIds,
+                       int[][] parent, double[][] step, double[][] distance) {
+        this.graph = graph;
+        this.sources = sources;
+        this.rows = rows;
+        this.sourceIds = sourceIds;
+        this.parent = parent;
+        this.step = step;
+        this.distance = distance;
+        checkRep();
+    }
+
+    /**
+     * Build the table of cheapest paths from each of the given sources, searching from the sources
+     * on the given number of threads. The graph must not be changed while the table is built.
+     * @param graph the graph the paths are on, whose edge costs are all non-negative
+     * @param sources the nodes the table has paths from, duplicates are only counted once
+     * @param threads the number of threads to use
+     * @param <D> the node type
+     * @return a table of the cheapest paths from every source to every node of graph
+     * @throws IllegalArgumentException if graph or sources is null, sources contains null or a node
+     * not in graph, or threads is less than 1
+     */
+    public static <D> RouteTable<D> build(GraphView<D, Double> graph, Collection<D> sources, int threads) {
+        if (graph == null || sources == null) {
+            throw new IllegalArgumentException("graph/sources cannot be null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread.");
+        }
+        List<D> list = new ArrayList<>();
+        Map<D, Integer> rows = new HashMap<>();
+        for (D source : sources) {
+            if (source == null || graph.idOf(source) < 0) {
+                throw new IllegalArgumentException("Every source must be a node of the graph");
+            }
+            if (!rows.containsKey(source)) {
+                rows.put(source, list.size());
+                list.add(source);
+            }
+        }
+        int[] sourceIds = new int[list.size()];
+        for (int r = 0; r < sourceIds.length; r++) {
+            sourceIds[r] = graph.idOf(list.get(r));
+        }
+
+        int[][] parent = new int[sourceIds.length][];
+        double[][] step = new double[sourceIds.length][];
+        double[][] distance = new double[sourceIds.length][];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new SourceTask<>(graph, sourceIds, parent, step, distance, 0, sourceIds.length));
+        } finally {
+            pool.shutdown();
+        }
+        return new RouteTable<>(graph, Collections.unmodifiableList(list), rows, sourceIds, parent, step, distance);
+    }
+
+    /**
+     * <b>SourceTask</b> fills the rows of the table from lo (inclusive) to hi (exclusive), splitting
+     * until each task searches from a single source.
+     */
+    private static class SourceTask<D> extends RecursiveAction {
+        // the graph being searched
+        private final GraphView<D, Double> graph;
+
+        // row -> the graph id of its source
+        private final int[] sourceIds;
+
+        // the rows of the table being filled
+        private final int[][] parent;
+        private final double[][] step;
+        private final double[][] distance;
+
+        // the range of rows this task fills
+        private final int lo;
+        private final int hi;
+
+        SourceTask(GraphView<D, Double> graph, int[] sourceIds, int[][] parent, double[][] step,
+                   double[][] distance, int lo, int hi) {
+            this.graph = graph;
+            this.sourceIds = sourceIds;
+            this.parent = parent;
+            this.step = step;
+            this.distance = distance;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SourceTask<>(graph, sourceIds, parent, step, distance, lo, mid),
+                        new SourceTask<>(graph, sourceIds, parent, step, distance, mid, hi));
+                return;
+            }
+            for (int r = lo; r < hi; r++) {
+                Relaxer<D> search = new Relaxer<>(graph, null);
+                try {
+                    search.searchAll(sourceIds[r]);
+                    int[] row = new int[graph.size()];
+                    double[] steps = new double[row.length];
+                    for (int v = 0; v < row.length; v++) {
+                        row[v] = search.parentOf(v);
+                        steps[v] = search.stepOf(v);
+                    }
+                    double[] costs = new double[sourceIds.length];
+                    for (int c = 0; c < costs.length; c++) {
+                        costs[c] = search.distanceTo(sourceIds[c]);
+                    }
+                    parent[r] = row;
+                    step[r] = steps;
+                    distance[r] = costs;
+                } finally {
+                    search.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param source the node to look for
+     * @return true if the table has paths from the given node.
+     */
+    public boolean hasSource(D source) {
+        return rows.containsKey(source);
+    }
+
+    /**
+     * @return the nodes the table has paths from, in the order they were first given.
+     */
+    public List<D> sources() {
+        return sources;
+    }
+
+    /**
+     * Returns the cost of the cheapest path between two sources.
+     * @param starting the source the path is from
+     * @param ending the source the path is to
+     * @return the cost of the cheapest path from starting to ending, infinite if there is none.
+     * @throws IllegalArgumentException if starting or ending is not a source of this table
+     */
+    public double distance(D starting, D ending) {
+        checkRep();
+        return distance[rowOf(starting)][rowOf(ending)];
+    }
+
+    /**
+     * Returns the minimum-cost path from a source to a node, read out of the table in time
+     * proportional to its length.
+     * @param starting the source to find path from
+     * @param ending the node to find path to
+     * @return a shortest path between the starting and ending node, return null if no path found.
+     * @throws IllegalArgumentException if starting is not a source of this table, or ending is null,
+     * not a node of the graph the table was built from, or added to it after the table was built.
+     */
+    public Path<D> shortestPath(D starting, D ending) {
+        checkRep();
+        int r = rowOf(starting);
+        int destId = ending == null ? -1 : graph.idOf(ending);
+        if (destId < 0 || destId >= parent[r].length) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        if (parent[r][destId] < 0) {
+            return destId == sourceIds[r] ? new Path<>(starting) : null;
+        }
+        return Relaxer.pathTo(graph, parent[r], step[r], destId);
+    }
+
+    // Returns the row of the given source, or throws an IllegalArgumentException if it isn't one.
+    private int rowOf(D source) {
+        Integer r = source == null ? null : rows.get(source);
+        if (r == null) {
+            throw new IllegalArgumentException("The table has no paths from " + source);
+        }
+        return r;
+    }
+}
@@ -0,0 +1,126 @@
+package pathfinder;
+
+import graph.GraphView;
+import pathfinder.datastructures.Path;
+
+/**
+ * <b>ShortestPathTree</b> is an immutable record of the cheapest paths from one source node to
+ * every node of a graph it can reach, as found by one run of Dijkstra's algorithm. Any number of
+ * paths and distances can be read out of it, each in time proportional to the length of its path,
+ * without searching the graph again.
+ *
+ * <p>The paths are the same ones DijkstrasAlgorithm.indexedDijkstraPath returns. Later changes to
+ * the graph the tree was built from are not reflected in it.</p>
+ * D is the node type.
+ */
+public final class ShortestPathTree<D> {
+
+    // Abstract Function:
+    // A ShortestPathTree represents, for every node v of graph with dist[v] finite, the cheapest path
+    // from graph.dataOf(source) to v: the cheapest path to parent[v] followed by an edge of cost step[v].
+    // dist[v] is the cost of that path, and is infinite for every node that cannot be reached.
+
+    // Rep Invariant:
+    // graph, dist, parent, step != null, dist, parent and step have at least graph.size() entries.
+    // dist[source] == 0, parent[source] == -1.
+    // for every reached v != source: parent[v] is reached and dist[v] == dist[parent[v]] + step[v].
+    // parent[v] == -1 for every v that is not reached.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // the graph the paths are on
+    private final GraphView<D, Double> graph;
+
+    // the id of the node every path starts from
+    private final int source;
+
+    // id -> the cost of the cheapest path to it, infinite if not reached
+    private final double[] dist;
+
+    // id -> the id of the node before it on its cheapest path, -1 for the source and nodes not reached
+    private final int[] parent;
+
+    // id -> the cost of the edge from parent[id] to it
+    private final double[] step;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (dist[source] == 0.0 && parent[source] == -1) : "The source is at no cost from itself";
+        if (DEBUG) {
+            for (int v = 0; v < graph.size(); v++) {
+                if (v != source && dist[v] < Double.POSITIVE_INFINITY) {
+                    assert (dist[v] == dist[parent[v]] + step[v]) : "Distances must follow the parents";
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs a tree from the state of a finished search, which it takes ownership of.
+     * @param graph the graph that was searched
+     * @param source the id of the node the search started from
+     * @param dist the cost of the cheapest path to each node, infinite if not reached
+     * @param parent the node before each node on its cheapest path, -1 for the source and nodes not reached
+     * @param step the cost of the edge from each node's parent to it
+     */
+    ShortestPathTree(GraphView<D, Double> graph, int source, double[] dist, int[] parent, double[] step) {
+        this.graph = graph;
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+        this.step = step;
+        checkRep();
+    }
+
+    /**
+     * @return the node every path in this tree starts from.
+     */
+    public D getSource() {
+        return graph.dataOf(source);
+    }
+
+    /**
+     * @param ending the node to look for
+     * @return true if there is a path from the source to the given node.
+     * @throws IllegalArgumentException if ending is null or not a node of the graph
+     */
+    public boolean reaches(D ending) {
+        return dist[idOf(ending)] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param ending the node to find the distance to
+     * @return the cost of the cheapest path from the source to the given node, infinite if there is none.
+     * @throws IllegalArgumentException if ending is null or not a node of the graph
+     */
+    public double distanceTo(D ending) {
+        return dist[idOf(ending)];
+    }
+
+    /**
+     * Returns the minimum-cost path from the source to a node, read out of the tree in time
+     * proportional to its length.
+     * @param ending the node to find path to
+     * @return a shortest path between the source and ending node, return null if no path found.
+     * @throws IllegalArgumentException if ending is null or not a node of the graph
+     */
+    public Path<D> pathTo(D ending) {
+        checkRep();
+        int id = idOf(ending);
+        if (dist[id] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return Relaxer.pathTo(graph, parent, step, id);
+    }
+
+    // Returns the id of the given node, or throws an IllegalArgumentException if it isn't in the graph
+    // or was added to it after the tree was built.
+    private int idOf(D node) {
+        int id = node == null ? -1 : graph.idOf(node);
+        if (id < 0 || id >= dist.length) {
+            throw new IllegalArgumentException("node must exist before finding the path");
+        }
+        return id;
+    }
+}
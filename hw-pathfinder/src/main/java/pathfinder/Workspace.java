@@ -0,0 +1,111 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * <b>Workspace</b> is the per-node state of one search, kept between searches so they don't
+ * allocate a queue and several arrays the size of the graph every time. Each thread keeps the
+ * workspaces it has released and hands them out again, so a search that reaches only a few nodes
+ * of a large graph costs time proportional to the nodes it reaches, not to the graph. A released
+ * workspace is cleared by resetting only the entries its search touched.
+ */
+final class Workspace {
+
+    // Abstract Function:
+    // A Workspace is the state of a search over ids 0 ... capacity - 1, see Relaxer: the queue active
+    // and, for every id, dist, parent, step, finished and estimate.
+    // touched[0 ... touchedCount - 1] are the ids whose entries may differ from a fresh workspace.
+
+    // Rep Invariant:
+    // active, dist, parent, step, finished, estimate, touched != null, all with capacity entries.
+    // 0 <= touchedCount <= capacity, and touched holds no id twice.
+    // every id not in touched[0 ... touchedCount - 1] has dist infinite, parent -1, finished false,
+    // estimate NaN, and is not queued.
+
+    // the most released workspaces a thread keeps, enough for the two searches of a bidirectional query
+    private static final int MAX_FREE = 2;
+
+    // the released workspaces of each thread, at most MAX_FREE
+    private static final ThreadLocal<ArrayDeque<Workspace>> FREE = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // the state of the search, see Relaxer
+    final IndexedMinHeap active;
+    final double[] dist;
+    final int[] parent;
+    final double[] step;
+    final boolean[] finished;
+    final double[] estimate;
+
+    // the ids whose entries have been changed since the workspace was last cleared
+    private final int[] touched;
+    private int touchedCount;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (touchedCount >= 0 && touchedCount <= touched.length) : "Touched count out of range";
+    }
+
+    // Constructs a fresh workspace for ids from 0 to capacity - 1.
+    private Workspace(int capacity) {
+        active = new IndexedMinHeap(capacity);
+        dist = new double[capacity];
+        parent = new int[capacity];
+        step = new double[capacity];
+        finished = new boolean[capacity];
+        estimate = new double[capacity];
+        touched = new int[capacity];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        Arrays.fill(estimate, Double.NaN);
+        checkRep();
+    }
+
+    /**
+     * Returns a fresh workspace for ids from 0 to size - 1, one this thread released before if it
+     * has one big enough. The workspace must be released once the search is done with it.
+     * @param size the number of nodes in the graph to be searched
+     * @return a workspace no one else is using
+     */
+    static Workspace acquire(int size) {
+        Workspace ws = FREE.get().poll();
+        if (ws == null || ws.touched.length < size) {
+            // a workspace too small for this graph is dropped, the new one takes its place
+            ws = new Workspace(size);
+        }
+        return ws;
+    }
+
+    /**
+     * Clears this workspace and keeps it for the next search on this thread, unless the thread
+     * already keeps as many as it needs.
+     * @spec.requires this was acquired on this thread and is not used again until acquired again
+     */
+    void release() {
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            dist[id] = Double.POSITIVE_INFINITY;
+            parent[id] = -1;
+            finished[id] = false;
+            estimate[id] = Double.NaN;
+        }
+        touchedCount = 0;
+        active.clear();
+        checkRep();
+        ArrayDeque<Workspace> free = FREE.get();
+        if (free.size() < MAX_FREE) {
+            free.push(this);
+        }
+    }
+
+    /**
+     * Records that the entries of the given id are about to change for the first time since the
+     * workspace was cleared, which is when its distance stops being infinite.
+     * @param id the id being reached
+     */
+    void touch(int id) {
+        touched[touchedCount++] = id;
+    }
+}
@@ -0,0 +1,216 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * <b>IndexedMinHeap</b> is a mutable priority queue of int ids from 0 to capacity - 1, each with
+ * a double key, where an id is in the queue at most once and its key can be lowered in place
+ * (decrease-key). It is a binary heap plus a table from id to heap position, so every operation
+ * takes O(log size) time and the queue never holds more entries than there are ids.
+ */
+public class IndexedMinHeap {
+
+    // Abstract Function:
+    // An IndexedMinHeap represents the set of pairs {(heap[i], keys[heap[i]]) | 0 <= i < size},
+    // and removeMin() takes the pair with the least key.
+
+    // Rep Invariant:
+    // heap, keys, position != null, heap.length == keys.length == position.length.
+    // 0 <= size <= heap.length.
+    // position[heap[i]] == i for every i < size, and position[id] == -1 for every id not in heap[0 ... size - 1].
+    // keys[heap[(i - 1) / 2]] <= keys[heap[i]] for every 0 < i < size.
+
+    // The switch for checkRep
+    private final static boolean DEBUG = false;
+
+    // heap[0 ... size - 1] are the ids in the queue, in heap order of their keys
+    private final int[] heap;
+
+    // id -> its position in heap, -1 if it isn't in the queue
+    private final int[] position;
+
+    // id -> its key, only meaningful while the id is in the queue
+    private final double[] keys;
+
+    // the number of ids in the queue
+    private int size;
+
+    // Throws an exception if the representation invariant is violated.
+    private void checkRep() {
+        assert (size >= 0 && size <= heap.length) : "Size out of range";
+        if (DEBUG) {
+            for (int i = 0; i < size; i++) {
+                assert (position[heap[i]] == i) : "Position table is inconsistent";
+                assert (i == 0 || keys[heap[(i - 1) / 2]] <= keys[heap[i]]) : "Heap order is violated";
+            }
+        }
+    }
+
+    /**
+     * Constructs an empty queue for ids from 0 to capacity - 1.
+     * @param capacity one more than the largest id the queue will hold
+     * @spec.effects Construct a new, empty IndexedMinHeap.
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public IndexedMinHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+        checkRep();
+    }
+
+    /**
+     * @return the number of ids in the queue.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no ids in the queue.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param id the id to look for
+     * @return true if id is in the queue.
+     * @throws IllegalArgumentException if id is not between 0 and capacity - 1
+     */
+    public boolean contains(int id) {
+        checkId(id);
+        return position[id] >= 0;
+    }
+
+    /**
+     * @param id an id in the queue
+     * @return the key of id.
+     * @throws IllegalArgumentException if id is not in the queue
+     */
+    public double keyOf(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the queue");
+        }
+        return keys[id];
+    }
+
+    /**
+     * Add id with the given key if it isn't in the queue, or lower its key to the given key if
+     * that is less than its key now.
+     * @param id the id to add or update
+     * @param key its new key
+     * @return true if the queue changed.
+     * @spec.modifies this
+     * @spec.effects id is in the queue with a key of at most key
+     * @throws IllegalArgumentException if id is not between 0 and capacity - 1, or key is NaN
+     */
+    public boolean offer(int id, double key) {
+        checkId(id);
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException("Key cannot be NaN");
+        }
+        int i = position[id];
+        if (i < 0) {
+            i = size++;
+        } else if (key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(i, id);
+        checkRep();
+        return true;
+    }
+
+    /**
+     * @return the id with the least key, without removing it.
+     * @throws IllegalStateException if the queue is empty
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("The queue is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Remove the id with the least key from the queue.
+     * @return the removed id
+     * @spec.modifies this
+     * @spec.effects the id with the least key is no longer in the queue
+     * @throws IllegalStateException if the queue is empty
+     */
+    public int removeMin() {
+        int min = peek();
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(0, heap[size]);
+        }
+        checkRep();
+        return min;
+    }
+
+    /**
+     * Remove every id from the queue, in time proportional to the number of ids in it.
+     * @spec.modifies this
+     * @spec.effects the queue is empty
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+        checkRep();
+    }
+
+    // Moves id up from position i, which is free, until its parent's key is no greater than its own.
+    private void siftUp(int i, int id) {
+        double key = keys[id];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) {
+                break;
+            }
+            heap[i] = parentId;
+            position[parentId] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    // Moves id down from position i, which is free, until its children's keys are no less than its own.
+    private void siftDown(int i, int id) {
+        double key = keys[id];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int childId = heap[child];
+            if (key <= keys[childId]) {
+                break;
+            }
+            heap[i] = childId;
+            position[childId] = i;
+            i = child;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    // Throws an IllegalArgumentException if id is not between 0 and capacity - 1.
+    private void checkId(int id) {
+        if (id < 0 || id >= heap.length) {
+            throw new IllegalArgumentException("Id " + id + " is out of range");
+        }
+    }
+}
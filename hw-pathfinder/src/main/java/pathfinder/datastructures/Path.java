@@ -12,6 +12,7 @@
 package pathfinder.datastructures;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -19,14 +20,17 @@ import java.util.List;
  * This represents an immutable path between two cartesian coordinate points, particularly
  * Path#getStart() and Path#getEnd(). Also contains a cached
  * version of the total cost along this path, for efficient repeated access.
+ * A path shares every segment but its last with the path it was extended from, so
+ * Path#extend(Object, double) takes constant time and memory however long the path is.
  */
 public class Path<T> implements Iterable<Path<T>.Segment> {
 
     // AF(this) =
     //      first point in the path => start
-    //      each "step" along the path between points => elements of list path, where
-    //          path.get(0) is the first step from the start point to an intermediate point, and
-    //          path.get(path.size() - 1) is the final step from an intermediate point to the end
+    //      each "step" along the path between points => the segments of prefix, in order,
+    //          followed by last; the first is the step from the start point to an intermediate
+    //          point, and last is the final step from an intermediate point to the end
+    //          (no steps if prefix == null)
     //      total cost along the path => cost
     //      the destination point in this path, opposite the start point => getEnd()
 
@@ -34,23 +38,36 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
     //      cost >= 0 &&
     //      Double.isFinite(cost) &&
     //      start != null &&
-    //      path != null &&
-    //      path does not contain null elements
+    //      (prefix == null) == (last == null) &&
+    //      prefix == null => length == 0 &&
+    //      prefix != null => prefix.start == start, length == prefix.length + 1,
+    //          last.getStart().equals(prefix.getEnd()), and cost == prefix.cost + last.getCost()
 
     /**
      * The total cost along all the segments in this path.
      */
-    private double cost;
+    private final double cost;
 
     /**
      * The point at the beginning of this path.
      */
-    private T start;
+    private final T start;
 
     /**
-     * The ordered sequence of segments representing a path between points.
+     * The path this one was extended from, which holds every segment but the last,
+     * or null if this path has no segments. Not serialized, as the chain nests once per segment.
      */
-    private List<Segment> path;
+    private final transient Path<T> prefix;
+
+    /**
+     * The final segment of this path, or null if it has no segments.
+     */
+    private final transient Segment last;
+
+    /**
+     * The number of segments in this path.
+     */
+    private final transient int length;
 
     /**
      * Creates a new, empty path containing a start point. Essentially this represents a path
@@ -61,7 +78,24 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
     public Path(T start) {
         this.start = start;
         this.cost = 0;
-        this.path = new ArrayList<>();
+        this.prefix = null;
+        this.last = null;
+        this.length = 0;
+        checkRep();
+    }
+
+    /**
+     * Creates the path made of the given path followed by one more segment.
+     *
+     * @param prefix The path before the new segment.
+     * @param last   The segment added at the end of prefix.
+     */
+    private Path(Path<T> prefix, Segment last) {
+        this.start = prefix.start;
+        this.cost = prefix.cost + last.getCost();
+        this.prefix = prefix;
+        this.last = last;
+        this.length = prefix.length + 1;
         checkRep();
     }
 
@@ -78,13 +112,9 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
      */
     public Path<T> extend(T newEnd, double segmentCost) {
         checkRep();
+        // the new path points back to this one instead of copying its segments
+        Path<T> extendedPath = new Path<>(this, new Segment(this.getEnd(), newEnd, segmentCost));
         //
-        Path<T> extendedPath = new Path<>(start);
-        extendedPath.path.addAll(this.path);
-        extendedPath.path.add(new Segment(this.getEnd(), newEnd, segmentCost));
-        extendedPath.cost = this.cost + segmentCost;
-        //
-        extendedPath.checkRep();
         checkRep();
         //
         return extendedPath;
@@ -109,10 +139,10 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
      * contains no segments (i.e. this path is from the start point to itself).
      */
     public T getEnd() {
-        if(path.size() == 0) {
+        if(last == null) {
             return start;
         }
-        return path.get(path.size() - 1).getEnd();
+        return last.getEnd();
     }
 
     /**
@@ -127,7 +157,7 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
         // Create a wrapping iterator to guarantee exceptional behavior on Iterator#remove.
         return new Iterator<Segment>() {
 
-            private Iterator<Segment> backingIterator = path.iterator();
+            private Iterator<Segment> backingIterator = segments().iterator();
 
             @Override
             public boolean hasNext() {
@@ -154,10 +184,31 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
         assert cost >= 0;
         assert Double.isFinite(cost);
         assert start != null;
-        assert path != null;
-        for(Segment segment : path) {
-            assert segment != null;
+        assert (prefix == null) == (last == null);
+        // prefix was checked when it was created, so only the step from it to this path is checked
+        if(prefix != null) {
+            assert prefix.start == start;
+            assert length == prefix.length + 1;
+            assert last.getStart().equals(prefix.getEnd());
+        } else {
+            assert length == 0;
+        }
+    }
+
+    /**
+     * @return A new list of the segments in this path, in order from the start point.
+     */
+    private List<Segment> segments() {
+        if(length == 0) {
+            return Collections.emptyList();
+        }
+        List<Segment> segments = new ArrayList<>(Collections.nCopies(length, null));
+        Path<T> p = this;
+        for(int i = length - 1; i >= 0; i--) {
+            segments.set(i, p.last);
+            p = p.prefix;
         }
+        return segments;
     }
 
     /**
@@ -177,30 +228,35 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
             return false;
         }
         Path<?> other = (Path<?>) obj;
-        if(this.path.size() != other.path.size()) {
+        if(this.length != other.length) {
             return false;
         }
-        if(this.path.size() == 0 && !this.start.equals(other.start)) {
+        if(this.length == 0 && !this.start.equals(other.start)) {
             return false;
         }
-        for(int i = 0; i < this.path.size(); i++) {
-            if(!this.path.get(i).equals(other.path.get(i))) {
+        // compare from the end, stopping early where both paths share the rest
+        Path<?> p = this;
+        Path<?> q = other;
+        while(p.length > 0 && p != q) {
+            if(!p.last.equals(q.last)) {
                 return false;
             }
+            p = p.prefix;
+            q = q.prefix;
         }
         return true;
     }
 
     @Override
     public int hashCode() {
-        return (31 * start.hashCode()) + path.hashCode();
+        return (31 * start.hashCode()) + segments().hashCode();
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(start.toString());
-        for(Segment segment : path) {
+        for(Segment segment : segments()) {
             sb.append(" =(");
             sb.append(String.format("%.3f", segment.getCost()));
             sb.append(")=> ");
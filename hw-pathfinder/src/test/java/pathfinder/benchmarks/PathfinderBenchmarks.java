@@ -0,0 +1,753 @@
+package pathfinder.benchmarks;
+
+import graph.CompactGraph;
+import graph.Graph;
+import graph.GraphBuilder;
+import graph.GraphView;
+import pathfinder.AStarAlgorithm;
+import pathfinder.CampusMap;
+import pathfinder.ContractionHierarchy;
+import pathfinder.DeltaStepping;
+import pathfinder.DijkstrasAlgorithm;
+import pathfinder.KShortestPaths;
+import pathfinder.Landmarks;
+import pathfinder.ShortestPathTree;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Rough timing and memory measurements of the path finding engines on the campus map.
+ * These are not JUnit tests; run them with "gradle :hw-pathfinder:runBenchmarks".
+ * Every benchmark warms up first and reports the average over several rounds.
+ */
+public class PathfinderBenchmarks {
+    //This class is not an ADT
+
+    // the number of rows and of columns of the synthetic grid
+    private static final int GRID = 500;
+
+    /**
+     * Runs every benchmark and prints the results.
+     * @param args an array of command-line arguments for the application
+     */
+    public static void main(String[] args) {
+        Graph<Point, Double> campus = campusGraph();
+        List<Point[]> queries = buildingPairs();
+        System.out.println("campus: " + campus.size() + " nodes, " + queries.size() + " building pairs");
+
+        compareFrozen(campus, queries);
+        compareHeaps(campus, queries);
+        compareHeapsOnGrid();
+        compareAStar(campus, queries);
+        compareBidirectional(campus, queries);
+        compareHierarchy(campus, queries);
+        compareRouteTable();
+        compareTree(campus, queries);
+        compareRadius(campus, queries);
+        compareEntrances(campus);
+        compareKShortest(campus, queries);
+        compareLandmarks(campus, queries);
+        compareDeltaStepping();
+    }
+
+    /**
+     * Compares one Dijkstra shortest path tree with delta-stepping on 1, 2 and 4 threads, on a random
+     * graph and on a grid, each with four million edges, by the time to find the cost from one node
+     * to every node.
+     */
+    private static void compareDeltaStepping() {
+        int nodes = 1_000_000;
+        Random random = new Random(331);
+        GraphBuilder<Integer, Double> builder = new GraphBuilder<>(nodes, 4 * nodes);
+        for (int i = 0; i < nodes; i++) {
+            builder.addNode(i);
+        }
+        for (int i = 0; i < 4 * nodes; i++) {
+            Double w = random.nextDouble();
+            builder.addEdge(random.nextInt(nodes), random.nextInt(nodes), w);
+        }
+        deltaStepping("random", builder.build(), 4 * nodes);
+
+        int size = 1000;
+        builder = new GraphBuilder<>(size * size, 4 * size * size);
+        for (int i = 0; i < size * size; i++) {
+            builder.addNode(i);
+        }
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int id = r * size + c;
+                if (c + 1 < size) {
+                    Double w = 1.0 + random.nextInt(100);
+                    builder.addEdge(id, id + 1, w);
+                    builder.addEdge(id + 1, id, w);
+                }
+                if (r + 1 < size) {
+                    Double w = 1.0 + random.nextInt(100);
+                    builder.addEdge(id, id + size, w);
+                    builder.addEdge(id + size, id, w);
+                }
+            }
+        }
+        deltaStepping("grid", builder.build(), 4 * size * (size - 1));
+    }
+
+    // Prints the times of a Dijkstra tree and of delta-stepping from node 0 of the given graph, which
+    // has the given number of edges.
+    private static void deltaStepping(String name, Graph<Integer, Double> graph, int edges) {
+        System.out.println(name + ": " + graph.size() + " nodes, " + edges + " edges");
+        System.out.printf("Dijkstra tree:            %.1f ms%n",
+                time(1, () -> DijkstrasAlgorithm.shortestPathTree(0, graph)));
+        double build = time(1, () -> DeltaStepping.from(graph));
+        DeltaStepping<Integer> search = DeltaStepping.from(graph);
+        for (int threads : new int[] {1, 2, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                System.out.printf("delta-stepping, %d thread%s: %.1f ms, delta %.3f, copied in %.1f ms%n",
+                        threads, threads == 1 ? " " : "s", time(1, () -> search.distances(0, pool)),
+                        search.delta(), build);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Compares indexedDijkstraPath with aStarPath using landmark (ALT) estimates, on the campus graph
+     * and on a road-like grid, by preprocessing time, nodes settled and time per query.
+     * @param campus the campus graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareLandmarks(Graph<Point, Double> campus, List<Point[]> queries) {
+        campus.indexParents();
+        for (int count : new int[] {4, 16}) {
+            double build = time(1, () -> Landmarks.from(campus, count));
+            Landmarks<Point> landmarks = Landmarks.from(campus, count);
+            SettleCounter<Point, Double> counted = new SettleCounter<>(campus);
+            for (Point[] q : queries) {
+                AStarAlgorithm.aStarPath(q[0], q[1], counted, landmarks);
+            }
+            System.out.printf("ALT on campus, %2d marks:  %.3f ms/query, %.1f nodes settled/query, built in %.1f ms%n",
+                    count, time(queries.size(), () -> {
+                        for (Point[] q : queries) {
+                            AStarAlgorithm.aStarPath(q[0], q[1], campus, landmarks);
+                        }
+                    }), (double) counted.reset() / queries.size(), build);
+        }
+
+        Graph<Integer, Double> roads = roads();
+        roads.indexParents();
+        Random random = new Random(331);
+        List<Integer[]> trips = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            trips.add(new Integer[] {random.nextInt(roads.size()), random.nextInt(roads.size())});
+        }
+        double build = time(1, () -> Landmarks.from(roads, 16));
+        Landmarks<Integer> landmarks = Landmarks.from(roads, 16);
+        SettleCounter<Integer, Double> counted = new SettleCounter<>(roads);
+        for (Integer[] q : trips) {
+            DijkstrasAlgorithm.indexedDijkstraPath(q[0], q[1], counted);
+        }
+        long dijkstraSettled = counted.reset();
+        for (Integer[] q : trips) {
+            AStarAlgorithm.aStarPath(q[0], q[1], counted, landmarks);
+        }
+        long altSettled = counted.reset();
+        System.out.println("roads: " + roads.size() + " nodes, " + trips.size() + " queries");
+        System.out.printf("Dijkstra on roads:        %.3f ms/query, %.1f nodes settled/query%n",
+                time(trips.size(), () -> {
+                    for (Integer[] q : trips) {
+                        DijkstrasAlgorithm.indexedDijkstraPath(q[0], q[1], roads);
+                    }
+                }), (double) dijkstraSettled / trips.size());
+        System.out.printf("ALT on roads, 16 marks:   %.3f ms/query, %.1f nodes settled/query, built in %.1f ms%n",
+                time(trips.size(), () -> {
+                    for (Integer[] q : trips) {
+                        AStarAlgorithm.aStarPath(q[0], q[1], roads, landmarks);
+                    }
+                }), (double) altSettled / trips.size(), build);
+    }
+
+    /**
+     * @return a road-like grid of 300 by 300 nodes joined both ways: every tenth row and column is a
+     * cheap arterial road, the rest are slower local streets, the same on every call.
+     */
+    private static Graph<Integer, Double> roads() {
+        int size = 300;
+        GraphBuilder<Integer, Double> builder = new GraphBuilder<>(size * size, 4 * size * size);
+        for (int i = 0; i < size * size; i++) {
+            builder.addNode(i);
+        }
+        Random random = new Random(331);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int id = r * size + c;
+                if (c + 1 < size) {
+                    Double w = r % 10 == 0 ? 1.0 + random.nextInt(5) : 10.0 + random.nextInt(20);
+                    builder.addEdge(id, id + 1, w);
+                    builder.addEdge(id + 1, id, w);
+                }
+                if (r + 1 < size) {
+                    Double w = c % 10 == 0 ? 1.0 + random.nextInt(5) : 10.0 + random.nextInt(20);
+                    builder.addEdge(id, id + size, w);
+                    builder.addEdge(id + size, id, w);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Times finding the k shortest loopless paths on the campus graph for a few values of k, with the
+     * number of spur searches each query runs, which is the number of nodes the search settles
+     * from a start other than the query's.
+     * @param campus the campus graph
+     * @param queries the start/end pairs, every 13th of which is searched
+     */
+    private static void compareKShortest(Graph<Point, Double> campus, List<Point[]> queries) {
+        List<Point[]> sample = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i += 13) {
+            sample.add(queries.get(i));
+        }
+        System.out.printf("Dijkstra, %d pairs:        %.4f ms/query%n", sample.size(), indexedDijkstra(campus, sample));
+        for (int k : new int[] {1, 3, 5, 10}) {
+            System.out.printf("%2d shortest paths:        %.4f ms/query%n", k, time(sample.size(), () -> {
+                for (Point[] q : sample) {
+                    KShortestPaths.kShortestPaths(q[0], q[1], k, campus);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Compares finding the shortest path between every pair of buildings with several entrances, like
+     * "BAG" and "BAG (NE)", as one multiSourcePath against one indexedDijkstraPath per pair of entrances.
+     * @param campus the campus graph
+     */
+    private static void compareEntrances(Graph<Point, Double> campus) {
+        Map<String, List<Point>> entrances = new LinkedHashMap<>();
+        for (CampusBuilding b : CampusPathsParser.parseCampusBuildings("campus_buildings.csv")) {
+            int note = b.getShortName().indexOf(" (");
+            String base = note < 0 ? b.getShortName() : b.getShortName().substring(0, note);
+            entrances.computeIfAbsent(base, k -> new ArrayList<>()).add(new Point(b.getX(), b.getY()));
+        }
+        entrances.values().removeIf(points -> points.size() < 2);
+        List<List<Point>> buildings = new ArrayList<>(entrances.values());
+        int pairs = buildings.size() * (buildings.size() - 1);
+        int searches = 0;
+        for (List<Point> start : buildings) {
+            for (List<Point> end : buildings) {
+                if (start != end) {
+                    searches += start.size() * end.size();
+                }
+            }
+        }
+
+        System.out.printf("Entrance pairs, %d buildings: %.4f ms/building pair (%.1f searches each)%n",
+                buildings.size(), time(pairs, () -> {
+                    for (List<Point> start : buildings) {
+                        for (List<Point> end : buildings) {
+                            if (start != end) {
+                                for (Point s : start) {
+                                    for (Point e : end) {
+                                        DijkstrasAlgorithm.indexedDijkstraPath(s, e, campus);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }), (double) searches / pairs);
+        System.out.printf("Multi-source, %d buildings:   %.4f ms/building pair%n",
+                buildings.size(), time(pairs, () -> {
+                    for (List<Point> start : buildings) {
+                        for (List<Point> end : buildings) {
+                            if (start != end) {
+                                DijkstrasAlgorithm.multiSourcePath(start, end, campus);
+                            }
+                        }
+                    }
+                }));
+    }
+
+    /**
+     * Compares finding everything within a walking distance of each building with pathsWithin
+     * against finding the paths to the whole campus with shortestPathTree.
+     * @param campus the campus graph
+     * @param queries the start/end pairs, whose distinct starts are searched from
+     */
+    private static void compareRadius(Graph<Point, Double> campus, List<Point[]> queries) {
+        Set<Point> starts = new LinkedHashSet<>();
+        for (Point[] q : queries) {
+            starts.add(q[0]);
+        }
+        SettleCounter<Point, Double> counted = new SettleCounter<>(campus);
+        for (Point start : starts) {
+            DijkstrasAlgorithm.shortestPathTree(start, counted);
+        }
+        System.out.printf("Whole campus tree:        %.4f ms/start, %.1f nodes settled/start%n",
+                time(starts.size(), () -> {
+                    for (Point start : starts) {
+                        DijkstrasAlgorithm.shortestPathTree(start, campus);
+                    }
+                }), (double) counted.reset() / starts.size());
+        for (double radius : new double[] {500, 2000}) {
+            for (Point start : starts) {
+                DijkstrasAlgorithm.pathsWithin(start, radius, counted);
+            }
+            System.out.printf("Within %4.0f feet:         %.4f ms/start, %.1f nodes settled/start%n", radius,
+                    time(starts.size(), () -> {
+                        for (Point start : starts) {
+                            DijkstrasAlgorithm.pathsWithin(start, radius, campus);
+                        }
+                    }), (double) counted.reset() / starts.size());
+        }
+    }
+
+    /**
+     * Compares finding the paths from each building to every other building one query at a time
+     * with reading them out of one shortest path tree per building, and times queries between
+     * nearby nodes of the grid, which reach few of its nodes.
+     * @param campus the campus graph
+     * @param queries the start/end pairs to be searched, grouped by start
+     */
+    private static void compareTree(Graph<Point, Double> campus, List<Point[]> queries) {
+        System.out.printf("One query per end:        %.4f ms/path%n", indexedDijkstra(campus, queries));
+        System.out.printf("One tree per start:       %.4f ms/path%n", time(queries.size(), () -> {
+            ShortestPathTree<Point> tree = null;
+            for (Point[] q : queries) {
+                if (tree == null || !tree.getSource().equals(q[0])) {
+                    tree = DijkstrasAlgorithm.shortestPathTree(q[0], campus);
+                }
+                tree.pathTo(q[1]);
+            }
+        }));
+
+        Graph<Integer, Double> grid = grid();
+        Random random = new Random(331);
+        List<Integer[]> nearby = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(GRID * (GRID - 5));
+            nearby.add(new Integer[] {start, start + 3 * GRID + 2});
+        }
+        System.out.printf("Nearby queries on grid:   %.4f ms/query%n", time(nearby.size(), () -> {
+            for (Integer[] q : nearby) {
+                DijkstrasAlgorithm.indexedDijkstraPath(q[0], q[1], grid);
+            }
+        }));
+    }
+
+    /**
+     * Compares the time to build a CampusMap, and the latency of CampusMap.findShortestPath with
+     * several threads calling it at once, the way the /find-path route of the server is, for each
+     * of the engines.
+     */
+    private static void compareRouteTable() {
+        List<String[]> names = buildingNamePairs();
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        for (CampusMap.Engine engine : CampusMap.Engine.values()) {
+            double build = time(1, () -> new CampusMap(engine));
+            CampusMap map = new CampusMap(engine);
+            long[] latencies = underLoad(map, names, threads);
+            System.out.printf("%-22s build %6.1f ms, %d threads: mean %.4f ms, p50 %.4f ms, p99 %.4f ms%n",
+                    engine, build, threads, Arrays.stream(latencies).average().orElse(0) / 1e6,
+                    latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6);
+        }
+    }
+
+    /**
+     * Runs every query once to warm up, then has each of the given number of threads run every
+     * query, timing each call.
+     * @param map the map to be queried
+     * @param names the start/end short names to be queried
+     * @param threads the number of threads querying at once
+     * @return the nanoseconds each timed call took, sorted
+     */
+    private static long[] underLoad(CampusMap map, List<String[]> names, int threads) {
+        for (String[] q : names) {
+            map.findShortestPath(q[0], q[1]);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    long[] latencies = new long[names.size()];
+                    for (int i = 0; i < latencies.length; i++) {
+                        long start = System.nanoTime();
+                        map.findShortestPath(names.get(i)[0], names.get(i)[1]);
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[threads * names.size()];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(results.get(t).get(), 0, all, t * names.size(), names.size());
+            }
+            Arrays.sort(all);
+            return all;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Measures the time and memory preprocessing the campus graph into a contraction hierarchy
+     * takes, and compares its query time with indexedDijkstraPath.
+     * @param campus the campus graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareHierarchy(Graph<Point, Double> campus, List<Point[]> queries) {
+        double build = time(1, () -> ContractionHierarchy.from(campus));
+        long before = usedHeap();
+        ContractionHierarchy<Point> hierarchy = ContractionHierarchy.from(campus);
+        long hierarchyBytes = usedHeap() - before;
+        before = usedHeap();
+        Graph<Point, Double> copy = campusGraph();
+        long graphBytes = usedHeap() - before;
+
+        System.out.printf("CH preprocessing:         %.1f ms, %d shortcuts, %d KB (Graph %d KB)%n",
+                build, hierarchy.shortcutCount(), hierarchyBytes >> 10, graphBytes >> 10);
+        System.out.printf("Dijkstra on campus:       %.4f ms/query%n", indexedDijkstra(copy, queries));
+        System.out.printf("CH on campus:             %.4f ms/query%n", time(queries.size(), () -> {
+            for (Point[] q : queries) {
+                hierarchy.shortestPath(q[0], q[1]);
+            }
+        }));
+    }
+
+    /**
+     * @return the number of bytes in use on the heap after a garbage collection.
+     */
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /**
+     * Compares Dijkstra's time on the mutable campus graph and its frozen CSR copy.
+     * @param campus the campus graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareFrozen(Graph<Point, Double> campus, List<Point[]> queries) {
+        CompactGraph<Point, Double> frozen = campus.freeze();
+        System.out.printf("Dijkstra on Graph:        %.3f ms/query%n", dijkstra(campus, queries));
+        System.out.printf("Dijkstra on CompactGraph: %.3f ms/query%n", dijkstra(frozen, queries));
+    }
+
+    /**
+     * Compares dijkstraPath, which queues a new Path per relaxed edge, with indexedDijkstraPath,
+     * which keeps one decrease-key heap entry per node, on the campus graph.
+     * @param campus the campus graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareHeaps(Graph<Point, Double> campus, List<Point[]> queries) {
+        System.out.printf("Path queue on campus:     %.3f ms/query%n", dijkstra(campus, queries));
+        System.out.printf("Indexed heap on campus:   %.3f ms/query%n", indexedDijkstra(campus, queries));
+    }
+
+    /**
+     * Compares the two Dijkstra variants on the synthetic grid, searching corner to corner and
+     * between random cells.
+     */
+    private static void compareHeapsOnGrid() {
+        GraphView<Integer, Double> frozen = grid().freeze();
+        List<Integer[]> queries = gridQueries();
+        System.out.println("grid: " + frozen.size() + " nodes, " + queries.size() + " queries");
+        System.out.printf("Path queue on grid:       %.1f ms/query%n", time(queries.size(), () -> {
+            for (Integer[] q : queries) {
+                DijkstrasAlgorithm.dijkstraPath(q[0], q[1], frozen);
+            }
+        }));
+        System.out.printf("Indexed heap on grid:     %.1f ms/query%n", time(queries.size(), () -> {
+            for (Integer[] q : queries) {
+                DijkstrasAlgorithm.indexedDijkstraPath(q[0], q[1], frozen);
+            }
+        }));
+    }
+
+    /**
+     * Compares indexedDijkstraPath with bidirectionalDijkstraPath on the campus graph and the grid,
+     * both with their parents indexed.
+     * @param campus the campus graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareBidirectional(Graph<Point, Double> campus, List<Point[]> queries) {
+        campus.indexParents();
+        System.out.printf("Dijkstra on campus:       %.3f ms/query%n", indexedDijkstra(campus, queries));
+        System.out.printf("Bidirectional on campus:  %.3f ms/query%n", time(queries.size(), () -> {
+            for (Point[] q : queries) {
+                DijkstrasAlgorithm.bidirectionalDijkstraPath(q[0], q[1], campus);
+            }
+        }));
+
+        Graph<Integer, Double> grid = grid();
+        grid.indexParents();
+        List<Integer[]> gridQueries = gridQueries();
+        System.out.printf("Dijkstra on grid:         %.1f ms/query%n", time(gridQueries.size(), () -> {
+            for (Integer[] q : gridQueries) {
+                DijkstrasAlgorithm.indexedDijkstraPath(q[0], q[1], grid);
+            }
+        }));
+        System.out.printf("Bidirectional on grid:    %.1f ms/query%n", time(gridQueries.size(), () -> {
+            for (Integer[] q : gridQueries) {
+                DijkstrasAlgorithm.bidirectionalDijkstraPath(q[0], q[1], grid);
+            }
+        }));
+    }
+
+    /**
+     * @return a GRID x GRID grid with an edge each way between neighbours and random weights,
+     * about a million edges, the same on every call.
+     */
+    private static Graph<Integer, Double> grid() {
+        GraphBuilder<Integer, Double> builder = new GraphBuilder<>(GRID * GRID, 4 * GRID * GRID);
+        for (int i = 0; i < GRID * GRID; i++) {
+            builder.addNode(i);
+        }
+        Random random = new Random(331);
+        for (int r = 0; r < GRID; r++) {
+            for (int c = 0; c < GRID; c++) {
+                int id = r * GRID + c;
+                if (c + 1 < GRID) {
+                    Double w = 1.0 + random.nextInt(100);
+                    builder.addEdge(id, id + 1, w);
+                    builder.addEdge(id + 1, id, w);
+                }
+                if (r + 1 < GRID) {
+                    Double w = 1.0 + random.nextInt(100);
+                    builder.addEdge(id, id + GRID, w);
+                    builder.addEdge(id + GRID, id, w);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the grid's corner to corner query and a few between random cells, the same on every call.
+     */
+    private static List<Integer[]> gridQueries() {
+        Random random = new Random(331);
+        List<Integer[]> queries = new ArrayList<>();
+        queries.add(new Integer[] {0, GRID * GRID - 1});
+        for (int i = 0; i < 4; i++) {
+            queries.add(new Integer[] {random.nextInt(GRID * GRID), random.nextInt(GRID * GRID)});
+        }
+        return queries;
+    }
+
+    /**
+     * Compares indexedDijkstraPath with aStarPath using the straight-line distance heuristic,
+     * by the number of nodes each settles and the time each takes per query.
+     * @param campus the campus graph
+     * @param queries the start/end pairs to be searched
+     */
+    private static void compareAStar(Graph<Point, Double> campus, List<Point[]> queries) {
+        // the heuristic is scaled down so that no edge costs less than its estimate
+        double scale = Double.POSITIVE_INFINITY;
+        for (Graph.Node<Point> node : campus.listNodes()) {
+            for (Graph.Edge<Point, Double> e : campus.listChildren(node)) {
+                Point a = e.getParent().getData();
+                Point b = e.getChild().getData();
+                double straight = Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+                if (straight > 0) {
+                    scale = Math.min(scale, e.getLabel() / straight);
+                }
+            }
+        }
+        AStarAlgorithm.Heuristic<Point> euclidean = AStarAlgorithm.euclidean(scale);
+
+        SettleCounter<Point, Double> counted = new SettleCounter<>(campus);
+        for (Point[] q : queries) {
+            DijkstrasAlgorithm.indexedDijkstraPath(q[0], q[1], counted);
+        }
+        long dijkstraSettled = counted.reset();
+        for (Point[] q : queries) {
+            AStarAlgorithm.aStarPath(q[0], q[1], counted, euclidean);
+        }
+        long aStarSettled = counted.reset();
+
+        System.out.printf("A* heuristic scale:       %.4f%n", scale);
+        System.out.printf("Dijkstra on campus:       %.3f ms/query, %.1f nodes settled/query%n",
+                indexedDijkstra(campus, queries), (double) dijkstraSettled / queries.size());
+        System.out.printf("A* on campus:             %.3f ms/query, %.1f nodes settled/query%n",
+                time(queries.size(), () -> {
+                    for (Point[] q : queries) {
+                        AStarAlgorithm.aStarPath(q[0], q[1], campus, euclidean);
+                    }
+                }), (double) aStarSettled / queries.size());
+    }
+
+    /**
+     * Times DijkstrasAlgorithm.indexedDijkstraPath over the given queries.
+     * @param graph the graph to be searched
+     * @param queries the start/end pairs to be searched
+     * @return the average milliseconds per query
+     */
+    private static double indexedDijkstra(GraphView<Point, Double> graph, List<Point[]> queries) {
+        return time(queries.size(), () -> {
+            for (Point[] q : queries) {
+                DijkstrasAlgorithm.indexedDijkstraPath(q[0], q[1], graph);
+            }
+        });
+    }
+
+    /**
+     * Times DijkstrasAlgorithm.dijkstraPath over the given queries.
+     * @param graph the graph to be searched
+     * @param queries the start/end pairs to be searched
+     * @return the average milliseconds per query
+     */
+    private static double dijkstra(GraphView<Point, Double> graph, List<Point[]> queries) {
+        return time(queries.size(), () -> {
+            for (Point[] q : queries) {
+                DijkstrasAlgorithm.dijkstraPath(q[0], q[1], graph);
+            }
+        });
+    }
+
+    /**
+     * Runs the given work once to warm up, then several more times, and returns the
+     * average milliseconds per operation.
+     * @param operations the number of operations one run of work performs
+     * @param work the work to be timed
+     * @return the average milliseconds per operation
+     */
+    static double time(int operations, Runnable work) {
+        work.run();
+        int rounds = 3;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            work.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / rounds / operations;
+    }
+
+    /**
+     * @return the campus graph built from campus_paths.csv, the same way CampusMap builds it.
+     */
+    static Graph<Point, Double> campusGraph() {
+        Graph<Point, Double> campus = new Graph<>();
+        for (CampusPath p : CampusPathsParser.parseCampusPaths("campus_paths.csv")) {
+            Graph.Node<Point> building1 = new Graph.Node<>(new Point(p.getX1(), p.getY1()));
+            Graph.Node<Point> building2 = new Graph.Node<>(new Point(p.getX2(), p.getY2()));
+            campus.addNode(building1);
+            campus.addNode(building2);
+            campus.addEdge(building1, building2, p.getDistance());
+            campus.addEdge(building2, building1, p.getDistance());
+        }
+        return campus;
+    }
+
+    /**
+     * @return every ordered pair of distinct buildings in campus_buildings.csv, as start/end points.
+     */
+    static List<Point[]> buildingPairs() {
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
+        List<Point[]> pairs = new ArrayList<>();
+        for (CampusBuilding start : buildings) {
+            for (CampusBuilding end : buildings) {
+                if (!start.equals(end)) {
+                    pairs.add(new Point[] {new Point(start.getX(), start.getY()), new Point(end.getX(), end.getY())});
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * @return every ordered pair of distinct buildings in campus_buildings.csv, as start/end short names.
+     */
+    static List<String[]> buildingNamePairs() {
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
+        List<String[]> pairs = new ArrayList<>();
+        for (CampusBuilding start : buildings) {
+            for (CampusBuilding end : buildings) {
+                if (!start.equals(end)) {
+                    pairs.add(new String[] {start.getShortName(), end.getShortName()});
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * A GraphView that passes every call on to another one, and counts the nodes a search
+     * settles, which is the number of times the children of a node are visited by id.
+     */
+    private static class SettleCounter<D, L> implements GraphView<D, L> {
+        private final GraphView<D, L> graph;
+        private long settled;
+
+        SettleCounter(GraphView<D, L> graph) {
+            this.graph = graph;
+        }
+
+        // Returns the count so far, and starts counting again from 0.
+        long reset() {
+            long result = settled;
+            settled = 0;
+            return result;
+        }
+
+        @Override
+        public boolean containsNode(Graph.Node<D> n) {
+            return graph.containsNode(n);
+        }
+
+        @Override
+        public Set<Graph.Node<D>> listNodes() {
+            return graph.listNodes();
+        }
+
+        @Override
+        public Set<Graph.Edge<D, L>> listChildren(Graph.Node<D> n) {
+            return graph.listChildren(n);
+        }
+
+        @Override
+        public int size() {
+            return graph.size();
+        }
+
+        @Override
+        public int idOf(D data) {
+            return graph.idOf(data);
+        }
+
+        @Override
+        public D dataOf(int id) {
+            return graph.dataOf(id);
+        }
+
+        @Override
+        public int[] childrenOf(int id) {
+            return graph.childrenOf(id);
+        }
+
+        @Override
+        public List<L> labelsOf(int parentId, int childId) {
+            return graph.labelsOf(parentId, childId);
+        }
+
+        @Override
+        public void forEachChild(int id, ChildConsumer<L> action) {
+            settled++;
+            graph.forEachChild(id, action);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.*;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+/**
+ * This class contains tests to ensure the AStarAlgorithm class is correctly implemented
+ */
+public class AStarAlgorithmTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    //this graph, a square with a diagonal, edge costs twice the straight-line distance
+    private Graph<Point, Double> graph;
+    private Point a;
+    private Point b;
+    private Point c;
+    private Point d;
+    @Before
+    public void setUp() throws Exception {
+        graph = new Graph<>();
+        a = new Point(0, 0);
+        b = new Point(3, 0);
+        c = new Point(3, 4);
+        d = new Point(0, 4);
+        for (Point p : new Point[] {a, b, c, d}) {
+            graph.addNode(new Graph.Node<>(p));
+        }
+        addPath(a, b, 6.0);
+        addPath(b, c, 8.0);
+        addPath(a, d, 8.0);
+        addPath(d, c, 6.0);
+        addPath(a, c, 15.0);
+    }
+
+    private void addPath(Point p, Point q, double cost) {
+        graph.addEdge(new Graph.Node<>(p), new Graph.Node<>(q), cost);
+        graph.addEdge(new Graph.Node<>(q), new Graph.Node<>(p), cost);
+    }
+
+    /**
+     * Test for a null heuristic
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void findWithNullHeuristic() {
+        AStarAlgorithm.aStarPath(a, c, graph, null);
+    }
+
+    /**
+     * Test for path finding on an end node doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void endNotExist() {
+        AStarAlgorithm.aStarPath(a, new Point(9, 9), graph, AStarAlgorithm.euclidean(2.0));
+    }
+
+    /**
+     * Test for a negative heuristic scale
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void negativeScale() {
+        AStarAlgorithm.euclidean(-1.0);
+    }
+
+    /**
+     * Test the straight-line heuristic
+     */
+    @Test
+    public void euclideanEstimate() {
+        Assert.assertEquals(10.0, AStarAlgorithm.euclidean(2.0).estimate(a, c), 1e-9);
+    }
+
+    /**
+     * Test A* finds the same cheapest paths as Dijkstra's algorithm, with and without an estimate
+     */
+    @Test
+    public void findSameAsDijkstra() {
+        for (double scale : new double[] {0.0, 1.0, 2.0}) {
+            Path<Point> path = AStarAlgorithm.aStarPath(a, c, graph, AStarAlgorithm.euclidean(scale));
+            Assert.assertEquals(14.0, path.getCost(), 0);
+            Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath(a, c, graph).getCost(), path.getCost(), 0);
+        }
+        Assert.assertEquals(new Path<>(b), AStarAlgorithm.aStarPath(b, b, graph, AStarAlgorithm.euclidean(2.0)));
+    }
+
+    /**
+     * Test no path is found to a node no edge leads to
+     */
+    @Test
+    public void findNoPath() {
+        Point e = new Point(10, 10);
+        graph.addNode(new Graph.Node<>(e));
+        Assert.assertNull(AStarAlgorithm.aStarPath(a, e, graph, AStarAlgorithm.euclidean(2.0)));
+    }
+
+    /**
+     * Test the campus map finds paths of the same cost with either engine
+     */
+    @Test
+    public void campusEngines() {
+        CampusMap dijkstra = new CampusMap(CampusMap.Engine.DIJKSTRA);
+        CampusMap aStar = new CampusMap(CampusMap.Engine.A_STAR);
+        Assert.assertEquals(dijkstra.findShortestPath("CSE", "MGH"), aStar.findShortestPath("CSE", "MGH"));
+        Assert.assertEquals(dijkstra.findShortestPath("KNE", "PAR").getCost(),
+                aStar.findShortestPath("KNE", "PAR").getCost(), 1e-9);
+    }
+}
@@ -0,0 +1,109 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.*;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import java.util.Random;
+
+/**
+ * This class contains tests to ensure the ContractionHierarchy class is correctly implemented
+ */
+public class ContractionHierarchyTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * Test for building from a null graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void buildFromNull() {
+        ContractionHierarchy.from(null);
+    }
+
+    /**
+     * Test for path finding on a node doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void endNotExist() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        ContractionHierarchy.from(graph).shortestPath("a", "b");
+    }
+
+    /**
+     * Test the shortest path uses the edges of the graph, not shortcuts, and the cheaper of two
+     * parallel edges, and follows edges one way only
+     */
+    @Test
+    public void findOnLine() {
+        Graph<String, Double> graph = new Graph<>();
+        String[] names = {"a", "b", "c", "d", "e"};
+        for (String name : names) {
+            graph.addNode(new Graph.Node<>(name));
+        }
+        for (int i = 0; i + 1 < names.length; i++) {
+            graph.addEdge(new Graph.Node<>(names[i]), new Graph.Node<>(names[i + 1]), 1.0 + i);
+        }
+        graph.addEdge(new Graph.Node<>("b"), new Graph.Node<>("c"), 0.5);
+        graph.addEdge(new Graph.Node<>("a"), new Graph.Node<>("e"), 20.0);
+        ContractionHierarchy<String> ch = ContractionHierarchy.from(graph);
+        Path<String> path = ch.shortestPath("a", "e");
+        Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath("a", "e", graph), path);
+        Assert.assertEquals(8.5, path.getCost(), 0);
+        Assert.assertNull(ch.shortestPath("e", "a"));
+        Assert.assertEquals(new Path<>("c"), ch.shortestPath("c", "c"));
+    }
+
+    /**
+     * Test the hierarchy finds paths as cheap as Dijkstra's algorithm on a random graph, made of
+     * edges of the graph, not shortcuts
+     */
+    @Test
+    public void findOnRandomGraph() {
+        int n = 200;
+        Graph<Integer, Double> graph = RandomGraphs.numbered(n, 331, random -> random.nextInt(10));
+        Random random = new Random(332);
+        ContractionHierarchy<Integer> ch = ContractionHierarchy.from(graph);
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(n);
+            int end = random.nextInt(n);
+            Path<Integer> expected = DijkstrasAlgorithm.indexedDijkstraPath(start, end, graph);
+            Path<Integer> actual = ch.shortestPath(start, end);
+            if (expected == null) {
+                Assert.assertNull(actual);
+            } else {
+                Assert.assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+                assertPathInGraph(start, end, actual, graph);
+            }
+        }
+    }
+
+    // Asserts the given path goes from start to end, each step an edge of graph with that cost.
+    private static void assertPathInGraph(int start, int end, Path<Integer> path, Graph<Integer, Double> graph) {
+        Assert.assertEquals(Integer.valueOf(start), path.getStart());
+        Integer at = start;
+        for (Path<Integer>.Segment segment : path) {
+            Assert.assertEquals(at, segment.getStart());
+            Assert.assertTrue(graph.labelsOf(graph.idOf(segment.getStart()), graph.idOf(segment.getEnd()))
+                    .contains(segment.getCost()));
+            at = segment.getEnd();
+        }
+        Assert.assertEquals(Integer.valueOf(end), at);
+    }
+
+    /**
+     * Test the campus map finds paths of the same cost with a contraction hierarchy
+     */
+    @Test
+    public void campusEngine() {
+        CampusMap dijkstra = new CampusMap();
+        CampusMap hierarchy = new CampusMap(CampusMap.Engine.CONTRACTION_HIERARCHY);
+        Assert.assertEquals(dijkstra.findShortestPath("CSE", "MGH"), hierarchy.findShortestPath("CSE", "MGH"));
+        Assert.assertEquals(dijkstra.findShortestPath("KNE", "PAR").getCost(),
+                hierarchy.findShortestPath("KNE", "PAR").getCost(), 1e-9);
+    }
+}
@@ -0,0 +1,127 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.*;
+import pathfinder.testUtils.RandomGraphs;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * This class contains tests to ensure the DeltaStepping class is correctly implemented
+ */
+public class DeltaSteppingTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * Test for copying a null graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void copyNull() {
+        DeltaStepping.from(null);
+    }
+
+    /**
+     * Test for copying with a bucket width that isn't positive
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void copyWithNoWidth() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        DeltaStepping.from(graph, 0.0);
+    }
+
+    /**
+     * Test for copying with a bucket width that isn't a number
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void copyWithNaNWidth() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        DeltaStepping.from(graph, Double.NaN);
+    }
+
+    /**
+     * Test for copying a graph with a negative cost
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void copyNegativeCost() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        graph.addNode(new Graph.Node<>("b"));
+        graph.addEdge(new Graph.Node<>("a"), new Graph.Node<>("b"), -1.0);
+        DeltaStepping.from(graph);
+    }
+
+    /**
+     * Test for searching from a node doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void sourceNotExist() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        DeltaStepping.from(graph).distances("b", 1);
+    }
+
+    /**
+     * Test for searching from a node added to the graph after it was copied
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void sourceAddedLater() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        DeltaStepping<String> search = DeltaStepping.from(graph);
+        graph.addNode(new Graph.Node<>("b"));
+        search.distances("b", 1);
+    }
+
+    /**
+     * Test for searching on no threads
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void searchOnNoThreads() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        DeltaStepping.from(graph).distances("a", 0);
+    }
+
+    /**
+     * Test the distances on random graphs are the ones Dijkstra's algorithm finds, for several
+     * bucket widths and numbers of threads, and on a pool shared by every search
+     */
+    @Test
+    public void searchSameAsDijkstra() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                searchSameAsDijkstra(round, pool);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Compares the distances on the random graph of the given round with Dijkstra's.
+    private void searchSameAsDijkstra(int round, ForkJoinPool pool) {
+        int n = 2000;
+        ToDoubleFunction<Random> cost = round % 2 == 0 ? Random::nextDouble : random -> random.nextInt(5);
+        Graph<Integer, Double> graph = RandomGraphs.numbered(n, 331 + round, cost);
+        ShortestPathTree<Integer> tree = DijkstrasAlgorithm.shortestPathTree(0, graph);
+        for (double delta : new double[] {Double.NaN, 0.01, 0.3, 1.0, 100.0}) {
+            DeltaStepping<Integer> search = Double.isNaN(delta) ? DeltaStepping.from(graph)
+                    : DeltaStepping.from(graph, delta);
+            List<double[]> found = List.of(search.distances(0, 1), search.distances(0, 3),
+                    search.distances(0, pool));
+            for (double[] dist : found) {
+                for (int v = 0; v < n; v++) {
+                    Assert.assertEquals(tree.distanceTo(v), dist[graph.idOf(v)], 1e-9);
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package pathfinder.junitTests;
 import graph.Graph;
+import graph.GraphView;
+import graph.OffHeapGraph;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.*;
@@ -7,6 +9,10 @@ import org.junit.rules.Timeout;
 import pathfinder.*;
 import pathfinder.datastructures.Path;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
 /**
  * This class contains tests to ensure the DijkstrasAlgorithm class is correctly implemented
  */
@@ -68,4 +74,234 @@ public class DijkstraAlgorithmTest {
     public void endNotExist() {
         DijkstrasAlgorithm.dijkstraPath(n1.getData(), n3.getData(), graph);
     }
+
+    /**
+     * Test a path found on a snapshot doesn't change when the graph changes afterwards
+     */
+    @Test
+    public void findOnSnapshot() {
+        graph.addNode(n3);
+        graph.addEdge(n1, n2, 5.0);
+        GraphView<String, Double> snapshot = graph.snapshot();
+        graph.addEdge(n1, n3, 1.0);
+        graph.addEdge(n3, n2, 1.0);
+        Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath(n1.getData(), n2.getData(), snapshot).getCost(), 5.0, 0);
+        Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath(n1.getData(), n2.getData(), graph).getCost(), 2.0, 0);
+    }
+
+    /**
+     * Test a path found on an off-heap copy of the graph is the same as on the graph
+     */
+    @Test
+    public void findOnOffHeap() {
+        graph.addNode(n3);
+        graph.addEdge(n1, n2, 5.0);
+        graph.addEdge(n1, n3, 1.0);
+        graph.addEdge(n3, n2, 1.0);
+        Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath(n1.getData(), n2.getData(), OffHeapGraph.from(graph)),
+                DijkstrasAlgorithm.dijkstraPath(n1.getData(), n2.getData(), graph));
+    }
+
+    /**
+     * Test the indexed variant finds the same path as dijkstraPath, using the cheaper of two parallel edges
+     */
+    @Test
+    public void findIndexedSameAsQueue() {
+        graph.addNode(n3);
+        graph.addEdge(n1, n2, 5.0);
+        graph.addEdge(n1, n3, 3.0);
+        graph.addEdge(n1, n3, 1.0);
+        graph.addEdge(n3, n2, 1.0);
+        Path<String> path = DijkstrasAlgorithm.indexedDijkstraPath(n1.getData(), n2.getData(), graph);
+        Assert.assertEquals(2.0, path.getCost(), 0);
+        Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath(n1.getData(), n2.getData(), graph), path);
+    }
+
+    /**
+     * Test the indexed variant returns an empty path from a node to itself, and null with no path
+     */
+    @Test
+    public void findIndexedTrivialAndMissing() {
+        graph.addNode(n3);
+        graph.addEdge(n1, n2, 5.0);
+        Assert.assertEquals(new Path<>(n1.getData()),
+                DijkstrasAlgorithm.indexedDijkstraPath(n1.getData(), n1.getData(), graph));
+        Assert.assertNull(DijkstrasAlgorithm.indexedDijkstraPath(n1.getData(), n3.getData(), graph));
+    }
+
+    /**
+     * Test the indexed variant rejects nodes that aren't in the graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void findIndexedEndNotExist() {
+        DijkstrasAlgorithm.indexedDijkstraPath(n1.getData(), n3.getData(), graph);
+    }
+
+    /**
+     * Test the bidirectional variant finds a cheapest path following edges one way only
+     */
+    @Test
+    public void findBidirectional() {
+        graph.addNode(n3);
+        graph.addEdge(n1, n2, 5.0);
+        graph.addEdge(n1, n3, 1.0);
+        graph.addEdge(n3, n2, 3.0);
+        graph.addEdge(n2, n1, 0.5);
+        for (int pass = 0; pass < 2; pass++) {
+            Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath(n1.getData(), n2.getData(), graph),
+                    DijkstrasAlgorithm.bidirectionalDijkstraPath(n1.getData(), n2.getData(), graph));
+            Assert.assertEquals(3.5, DijkstrasAlgorithm.bidirectionalDijkstraPath(n3.getData(), n1.getData(), graph)
+                    .getCost(), 0);
+            Assert.assertEquals(new Path<>(n3.getData()),
+                    DijkstrasAlgorithm.bidirectionalDijkstraPath(n3.getData(), n3.getData(), graph));
+            graph.indexParents();
+        }
+    }
+
+    /**
+     * Test the bidirectional variant returns null with no path
+     */
+    @Test
+    public void findBidirectionalNoPath() {
+        graph.addNode(n3);
+        graph.addEdge(n1, n2, 5.0);
+        graph.addEdge(n3, n2, 1.0);
+        graph.indexParents();
+        Assert.assertNull(DijkstrasAlgorithm.bidirectionalDijkstraPath(n1.getData(), n3.getData(), graph));
+        Assert.assertNull(DijkstrasAlgorithm.bidirectionalDijkstraPath(n2.getData(), n1.getData(), graph));
+    }
+
+    /**
+     * Test the tree from one source gives the same paths and costs as searching for each end
+     */
+    @Test
+    public void findTreeSameAsIndexed() {
+        graph.addNode(n3);
+        graph.addEdge(n1, n2, 5.0);
+        graph.addEdge(n1, n3, 1.0);
+        graph.addEdge(n3, n2, 3.0);
+        ShortestPathTree<String> tree = DijkstrasAlgorithm.shortestPathTree(n1.getData(), graph);
+        Assert.assertEquals(n1.getData(), tree.getSource());
+        for (Graph.Node<String> end : graph.listNodes()) {
+            Assert.assertEquals(DijkstrasAlgorithm.indexedDijkstraPath(n1.getData(), end.getData(), graph),
+                    tree.pathTo(end.getData()));
+        }
+        Assert.assertEquals(4.0, tree.distanceTo(n2.getData()), 0);
+        Assert.assertEquals(0.0, tree.distanceTo(n1.getData()), 0);
+    }
+
+    /**
+     * Test the tree from a source with no path to some nodes
+     */
+    @Test
+    public void findTreeUnreachable() {
+        graph.addEdge(n2, n1, 1.0);
+        ShortestPathTree<String> tree = DijkstrasAlgorithm.shortestPathTree(n1.getData(), graph);
+        Assert.assertFalse(tree.reaches(n2.getData()));
+        Assert.assertNull(tree.pathTo(n2.getData()));
+        Assert.assertEquals(Double.POSITIVE_INFINITY, tree.distanceTo(n2.getData()), 0);
+    }
+
+    /**
+     * Test for building a tree from a node doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void findTreeSourceNotExist() {
+        DijkstrasAlgorithm.shortestPathTree(n3.getData(), graph);
+    }
+
+    /**
+     * Test for asking a tree about a node added to the graph after the tree was built
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void findTreeNodeAddedLater() {
+        ShortestPathTree<String> tree = DijkstrasAlgorithm.shortestPathTree(n1.getData(), graph);
+        graph.addNode(n3);
+        tree.pathTo(n3.getData());
+    }
+
+    /**
+     * Test searches one after another on graphs of different sizes give the same paths as the
+     * queue-based search, which shares no state between searches
+     */
+    @Test
+    public void findIndexedReusingWorkspaces() {
+        Random random = new Random(331);
+        for (int round = 0; round < 20; round++) {
+            int n = 1 + random.nextInt(round % 2 == 0 ? 10 : 300);
+            Graph<Integer, Double> g = new Graph<>();
+            for (int i = 0; i < n; i++) {
+                g.addNode(new Graph.Node<>(i));
+            }
+            for (int i = 0; i < 3 * n; i++) {
+                g.addEdge(new Graph.Node<>(random.nextInt(n)), new Graph.Node<>(random.nextInt(n)),
+                        (double) random.nextInt(10));
+            }
+            for (int i = 0; i < 20; i++) {
+                int start = random.nextInt(n);
+                int end = random.nextInt(n);
+                Path<Integer> expected = DijkstrasAlgorithm.dijkstraPath(start, end, g);
+                Path<Integer> actual = DijkstrasAlgorithm.indexedDijkstraPath(start, end, g);
+                Assert.assertEquals(expected == null, actual == null);
+                if (expected != null) {
+                    Assert.assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test the paths within a radius are the shortest paths to the nodes no further than it, in
+     * order of cost, with the radius itself included
+     */
+    @Test
+    public void findWithin() {
+        graph.addNode(n3);
+        graph.addEdge(n1, n2, 5.0);
+        graph.addEdge(n1, n3, 1.0);
+        graph.addEdge(n3, n2, 3.0);
+        Map<String, Path<String>> within = DijkstrasAlgorithm.pathsWithin(n1.getData(), 4.0, graph);
+        Assert.assertEquals(List.of("n1", "n3", "n2"), List.copyOf(within.keySet()));
+        for (String end : within.keySet()) {
+            Assert.assertEquals(DijkstrasAlgorithm.indexedDijkstraPath(n1.getData(), end, graph), within.get(end));
+        }
+        Assert.assertEquals(List.of("n1", "n3"),
+                List.copyOf(DijkstrasAlgorithm.pathsWithin(n1.getData(), 3.9, graph).keySet()));
+        Assert.assertEquals(List.of("n2"), List.copyOf(DijkstrasAlgorithm.pathsWithin(n2.getData(),
+                Double.POSITIVE_INFINITY, graph).keySet()));
+    }
+
+    /**
+     * Test for finding paths within a negative radius
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void findWithinNegativeRadius() {
+        DijkstrasAlgorithm.pathsWithin(n1.getData(), -1.0, graph);
+    }
+
+    /**
+     * Test the path from several starts to several ends is the cheapest over every pair
+     */
+    @Test
+    public void findMultiSource() {
+        Graph.Node<String> n4 = new Graph.Node<>("n4");
+        graph.addNode(n3);
+        graph.addNode(n4);
+        graph.addEdge(n1, n2, 5.0);
+        graph.addEdge(n3, n2, 3.0);
+        graph.addEdge(n3, n4, 4.0);
+        Path<String> path = DijkstrasAlgorithm.multiSourcePath(List.of("n1", "n3"), List.of("n2", "n4"), graph);
+        Assert.assertEquals(DijkstrasAlgorithm.indexedDijkstraPath("n3", "n2", graph), path);
+        Assert.assertEquals(new Path<>("n2"),
+                DijkstrasAlgorithm.multiSourcePath(List.of("n1", "n2"), List.of("n2", "n4"), graph));
+        Assert.assertNull(DijkstrasAlgorithm.multiSourcePath(List.of("n2", "n4"), List.of("n1", "n3"), graph));
+    }
+
+    /**
+     * Test for finding a path from no starts
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void findMultiSourceNoStarts() {
+        DijkstrasAlgorithm.multiSourcePath(List.of(), List.of(n1.getData()), graph);
+    }
 }
@@ -0,0 +1,115 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.*;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/**
+ * This class contains tests to ensure the KShortestPaths class is correctly implemented
+ */
+public class KShortestPathsTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * Test for asking for no paths
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void findNoPaths() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        KShortestPaths.kShortestPaths("a", "a", 0, graph);
+    }
+
+    /**
+     * Test for path finding on a node doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void endNotExist() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        KShortestPaths.kShortestPaths("a", "b", 1, graph);
+    }
+
+    /**
+     * Test the three shortest paths of the usual example of Yen's algorithm, and that asking for
+     * more paths than there are gives all of them
+     */
+    @Test
+    public void findOnExample() {
+        Graph<String, Double> graph = new Graph<>();
+        for (String name : new String[] {"C", "D", "E", "F", "G", "H"}) {
+            graph.addNode(new Graph.Node<>(name));
+        }
+        String[][] edges = {{"C", "D", "3"}, {"C", "E", "2"}, {"D", "F", "4"}, {"E", "D", "1"}, {"E", "F", "2"},
+                {"E", "G", "3"}, {"F", "G", "2"}, {"F", "H", "1"}, {"G", "H", "2"}};
+        for (String[] e : edges) {
+            graph.addEdge(new Graph.Node<>(e[0]), new Graph.Node<>(e[1]), Double.parseDouble(e[2]));
+        }
+        List<Path<String>> paths = KShortestPaths.kShortestPaths("C", "H", 3, graph);
+        Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath("C", "H", graph), paths.get(0));
+        Assert.assertEquals(List.of(5.0, 7.0, 8.0), costs(paths));
+        Assert.assertEquals(List.of(5.0, 7.0, 8.0, 8.0, 8.0, 11.0, 11.0),
+                costs(KShortestPaths.kShortestPaths("C", "H", 20, graph)));
+        Assert.assertEquals(List.of(), KShortestPaths.kShortestPaths("H", "C", 3, graph));
+        Assert.assertEquals(List.of(new Path<>("C")), KShortestPaths.kShortestPaths("C", "C", 3, graph));
+    }
+
+    /**
+     * Test the paths found on random graphs are the cheapest loopless ones, found by listing them all
+     */
+    @Test
+    public void findOnRandomGraphs() {
+        Random random = new Random(331);
+        for (int round = 0; round < 20; round++) {
+            Graph<Integer, Double> graph = new Graph<>();
+            int n = 7;
+            for (int i = 0; i < n; i++) {
+                graph.addNode(new Graph.Node<>(i));
+            }
+            for (int i = 0; i < 3 * n; i++) {
+                graph.addEdge(new Graph.Node<>(random.nextInt(n)), new Graph.Node<>(random.nextInt(n)),
+                        (double) random.nextInt(10));
+            }
+            List<Double> all = new ArrayList<>();
+            allPaths(graph, 0, n - 1, new HashSet<>(Set.of(0)), 0.0, all);
+            Collections.sort(all);
+            List<Path<Integer>> paths = KShortestPaths.kShortestPaths(0, n - 1, 5, graph);
+            Assert.assertEquals(all.subList(0, Math.min(5, all.size())), costs(paths));
+            Assert.assertEquals(paths.size(), new HashSet<>(paths).size());
+        }
+    }
+
+    // Adds the cost of every loopless path from node to end not through visited, plus cost, to result.
+    // Of several parallel edges only the cheapest is taken.
+    private static void allPaths(Graph<Integer, Double> graph, int node, int end, Set<Integer> visited,
+                                 double cost, List<Double> result) {
+        if (node == end) {
+            result.add(cost);
+            return;
+        }
+        Map<Integer, Double> cheapest = new HashMap<>();
+        for (Graph.Edge<Integer, Double> e : graph.listChildren(new Graph.Node<>(node))) {
+            cheapest.merge(e.getChild().getData(), e.getLabel(), Math::min);
+        }
+        for (Map.Entry<Integer, Double> e : cheapest.entrySet()) {
+            if (visited.add(e.getKey())) {
+                allPaths(graph, e.getKey(), end, visited, cost + e.getValue(), result);
+                visited.remove(e.getKey());
+            }
+        }
+    }
+
+    // Returns the cost of each of the given paths, in order.
+    private static <D> List<Double> costs(List<Path<D>> paths) {
+        List<Double> result = new ArrayList<>();
+        for (Path<D> path : paths) {
+            result.add(path.getCost());
+        }
+        return result;
+    }
+}
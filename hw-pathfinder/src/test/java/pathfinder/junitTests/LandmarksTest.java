@@ -0,0 +1,126 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.*;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class contains tests to ensure the Landmarks class is correctly implemented
+ */
+public class LandmarksTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * Test for building from a null graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void buildFromNull() {
+        Landmarks.from(null, 4);
+    }
+
+    /**
+     * Test for building with no landmarks
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void buildWithNoLandmarks() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        Landmarks.from(graph, 0);
+    }
+
+    /**
+     * Test for estimating from a node doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void estimateNotExist() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        Landmarks.from(graph, 1).estimate("a", "b");
+    }
+
+    /**
+     * Test the landmarks are picked far apart on a line, and the estimates along it are exact
+     * one way and never too high the other
+     */
+    @Test
+    public void estimateOnLine() {
+        Graph<Integer, Double> graph = new Graph<>();
+        for (int i = 0; i < 5; i++) {
+            graph.addNode(new Graph.Node<>(i));
+        }
+        for (int i = 0; i + 1 < 5; i++) {
+            graph.addEdge(new Graph.Node<>(i), new Graph.Node<>(i + 1), 1.0);
+        }
+        Landmarks<Integer> landmarks = Landmarks.from(graph, 10);
+        Assert.assertEquals(5, landmarks.landmarks().size());
+        Assert.assertEquals(Integer.valueOf(4), landmarks.landmarks().get(0));
+        Assert.assertEquals(3.0, landmarks.estimate(1, 4), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, landmarks.estimate(4, 1), 0);
+    }
+
+    /**
+     * Test every part of a disconnected graph gets a landmark, and no node is picked twice
+     */
+    @Test
+    public void landmarksOnDisconnectedGraph() {
+        Graph<Integer, Double> graph = new Graph<>();
+        for (int i = 0; i < 6; i++) {
+            graph.addNode(new Graph.Node<>(i));
+        }
+        // two lines, 0 - 1 - 2 and 3 - 4 - 5, each joined both ways
+        for (int i : new int[] {0, 1, 3, 4}) {
+            graph.addEdge(new Graph.Node<>(i), new Graph.Node<>(i + 1), 1.0);
+            graph.addEdge(new Graph.Node<>(i + 1), new Graph.Node<>(i), 1.0);
+        }
+        Landmarks<Integer> two = Landmarks.from(graph, 2);
+        Assert.assertEquals(List.of(2, 3), two.landmarks());
+        Assert.assertEquals(2.0, two.estimate(0, 2), 0);
+        Assert.assertEquals(2.0, two.estimate(3, 5), 0);
+
+        Landmarks<Integer> all = Landmarks.from(graph, 10);
+        Assert.assertEquals(6, new HashSet<>(all.landmarks()).size());
+    }
+
+    /**
+     * Test for estimating from a node added to the graph after the landmarks were picked
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void estimateFromNodeAddedLater() {
+        Graph<Integer, Double> graph = RandomGraphs.numbered(10, 331, random -> 1.0);
+        Landmarks<Integer> landmarks = Landmarks.from(graph, 2);
+        graph.addNode(new Graph.Node<>(10));
+        landmarks.estimate(10, 0);
+    }
+
+    /**
+     * Test A* with the landmarks finds paths as cheap as Dijkstra's algorithm on random directed
+     * graphs, and never estimates more than the cost of the cheapest path
+     */
+    @Test
+    public void findOnRandomGraph() {
+        int n = 200;
+        Graph<Integer, Double> graph = RandomGraphs.numbered(n, 331, random -> random.nextInt(10));
+        Random random = new Random(332);
+        Landmarks<Integer> landmarks = Landmarks.from(graph, 4);
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(n);
+            int end = random.nextInt(n);
+            Path<Integer> expected = DijkstrasAlgorithm.indexedDijkstraPath(start, end, graph);
+            Path<Integer> actual = AStarAlgorithm.aStarPath(start, end, graph, landmarks);
+            if (expected == null) {
+                Assert.assertNull(actual);
+            } else {
+                Assert.assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+                Assert.assertTrue(landmarks.estimate(start, end) <= expected.getCost() + 1e-9);
+            }
+        }
+    }
+}
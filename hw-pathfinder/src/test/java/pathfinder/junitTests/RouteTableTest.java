@@ -0,0 +1,121 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.*;
+import org.junit.rules.Timeout;
+import pathfinder.*;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import java.util.*;
+
+/**
+ * This class contains tests to ensure the RouteTable class is correctly implemented
+ */
+public class RouteTableTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * Test for building from a null graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void buildFromNull() {
+        RouteTable.build(null, List.of("a"), 1);
+    }
+
+    /**
+     * Test for building with a source doesn't exist in graph
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void sourceNotExist() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        RouteTable.build(graph, List.of("a", "b"), 1);
+    }
+
+    /**
+     * Test for path finding from a node that is not a source
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void startNotSource() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        graph.addNode(new Graph.Node<>("b"));
+        RouteTable.build(graph, List.of("a"), 1).shortestPath("b", "a");
+    }
+
+    /**
+     * Test for path finding to a node added to the graph after the table was built
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void endAddedLater() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        RouteTable<String> table = RouteTable.build(graph, List.of("a"), 1);
+        graph.addNode(new Graph.Node<>("b"));
+        table.shortestPath("a", "b");
+    }
+
+    /**
+     * Test a cheaper edge added to the graph after the table was built doesn't change its paths
+     */
+    @Test
+    public void findAfterEdgeAdded() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode(new Graph.Node<>("a"));
+        graph.addNode(new Graph.Node<>("b"));
+        graph.addEdge(new Graph.Node<>("a"), new Graph.Node<>("b"), 2.0);
+        RouteTable<String> table = RouteTable.build(graph, List.of("a"), 1);
+        Path<String> before = table.shortestPath("a", "b");
+        graph.addEdge(new Graph.Node<>("a"), new Graph.Node<>("b"), 1.0);
+        Assert.assertEquals(before, table.shortestPath("a", "b"));
+        Assert.assertEquals(2.0, table.shortestPath("a", "b").getCost(), 0);
+    }
+
+    /**
+     * Test the paths and distances read out of the table, the cheaper of two parallel edges, and
+     * edges followed one way only
+     */
+    @Test
+    public void findOnLine() {
+        Graph<String, Double> graph = new Graph<>();
+        String[] names = {"a", "b", "c", "d"};
+        for (String name : names) {
+            graph.addNode(new Graph.Node<>(name));
+        }
+        for (int i = 0; i + 1 < names.length; i++) {
+            graph.addEdge(new Graph.Node<>(names[i]), new Graph.Node<>(names[i + 1]), 1.0 + i);
+        }
+        graph.addEdge(new Graph.Node<>("b"), new Graph.Node<>("c"), 0.5);
+        RouteTable<String> table = RouteTable.build(graph, List.of("a", "d", "a"), 2);
+        Assert.assertEquals(List.of("a", "d"), table.sources());
+        Assert.assertEquals(DijkstrasAlgorithm.dijkstraPath("a", "d", graph), table.shortestPath("a", "d"));
+        Assert.assertEquals(4.5, table.distance("a", "d"), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, table.distance("d", "a"), 0);
+        Assert.assertNull(table.shortestPath("d", "a"));
+        Assert.assertEquals(new Path<>("a"), table.shortestPath("a", "a"));
+        Assert.assertEquals(1.5, table.shortestPath("a", "c").getCost(), 0);
+    }
+
+    /**
+     * Test the table gives the same paths as Dijkstra's algorithm on a random graph
+     */
+    @Test
+    public void findOnRandomGraph() {
+        int n = 200;
+        Graph<Integer, Double> graph = RandomGraphs.numbered(n, 331, random -> random.nextInt(10));
+        Random random = new Random(332);
+        List<Integer> sources = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sources.add(random.nextInt(n));
+        }
+        RouteTable<Integer> table = RouteTable.build(graph, sources, 4);
+        for (int start : sources) {
+            for (int end = 0; end < n; end++) {
+                Path<Integer> expected = DijkstrasAlgorithm.indexedDijkstraPath(start, end, graph);
+                Assert.assertEquals(expected, table.shortestPath(start, end));
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestIndexedMinHeap {
+
+    @Test
+    public void testEmpty() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(0));
+    }
+
+    @Test
+    public void testRemovesInKeyOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.offer(3, 3.0);
+        heap.offer(0, 5.0);
+        heap.offer(4, 1.0);
+        heap.offer(1, 4.0);
+        assertEquals(4, heap.size());
+        assertEquals(4, heap.peek());
+        assertEquals(4, heap.removeMin());
+        assertEquals(3, heap.removeMin());
+        assertEquals(1, heap.removeMin());
+        assertEquals(0, heap.removeMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.offer(0, 1.0);
+        heap.offer(1, 2.0);
+        heap.offer(2, 3.0);
+        assertTrue(heap.offer(2, 0.5));
+        assertEquals(0.5, heap.keyOf(2), 0);
+        assertEquals(3, heap.size());
+        assertEquals(2, heap.removeMin());
+    }
+
+    @Test
+    public void testHigherKeyIgnored() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.offer(0, 1.0);
+        heap.offer(1, 2.0);
+        assertFalse(heap.offer(0, 7.0));
+        assertEquals(1.0, heap.keyOf(0), 0);
+        assertEquals(0, heap.removeMin());
+    }
+
+    @Test
+    public void testReinsertAfterRemove() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.offer(0, 1.0);
+        heap.removeMin();
+        assertFalse(heap.contains(0));
+        assertTrue(heap.offer(0, 9.0));
+        assertEquals(9.0, heap.keyOf(0), 0);
+    }
+
+    @Test
+    public void testClear() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.offer(1, 1.0);
+        heap.offer(2, 2.0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(1));
+        heap.offer(2, 5.0);
+        assertEquals(2, heap.removeMin());
+    }
+
+    @Test
+    public void testManyRandomKeys() {
+        int n = 1000;
+        Random random = new Random(331);
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        double[] best = new double[n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 5 * n; i++) {
+            int id = random.nextInt(n);
+            double key = random.nextDouble();
+            heap.offer(id, key);
+            best[id] = Math.min(best[id], key);
+        }
+        long offered = Arrays.stream(best).filter(Double::isFinite).count();
+        double last = Double.NEGATIVE_INFINITY;
+        int removed = 0;
+        while (!heap.isEmpty()) {
+            double key = heap.keyOf(heap.peek());
+            int id = heap.removeMin();
+            assertEquals(best[id], key, 0);
+            assertTrue(key >= last);
+            last = key;
+            removed++;
+        }
+        assertEquals(offered, removed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIdOutOfRange() {
+        new IndexedMinHeap(2).offer(2, 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyOfMissing() {
+        new IndexedMinHeap(2).keyOf(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRemoveFromEmpty() {
+        new IndexedMinHeap(2).removeMin();
+    }
+}
@@ -106,4 +106,34 @@ public class TestPath {
         assertEquals(path2.hashCode(), path2.hashCode());
         assertEquals(path3.hashCode(), path3.hashCode());
     }
+
+    @Test
+    public void testExtendSharesPrefix() {
+        Path<Point> base = new Path<>(new Point(0.0, 0.0)).extend(new Point(1.0, 0.0), 1.0D);
+        Path<Point> left = base.extend(new Point(1.0, 1.0), 2.0D);
+        Path<Point> right = base.extend(new Point(1.0, -1.0), 3.0D);
+        assertEquals(1.0D, base.getCost(), EPSILON);
+        assertEquals(new Point(1.0, 0.0), base.getEnd());
+        assertEquals(3.0D, left.getCost(), EPSILON);
+        assertEquals(4.0D, right.getCost(), EPSILON);
+        assertNotEquals(left, right);
+        assertEquals(left, base.extend(new Point(1.0, 1.0), 2.0D));
+    }
+
+    @Test
+    public void testLongPathIteratesInOrder() {
+        int n = 100_000;
+        Path<Point> path = new Path<>(new Point(0.0, 0.0));
+        for (int i = 1; i <= n; i++) {
+            path = path.extend(new Point(i, 0.0), 1.0D);
+        }
+        assertEquals(n, path.getCost(), EPSILON);
+        int i = 0;
+        for (Path<Point>.Segment segment : path) {
+            assertEquals(new Point(i, 0.0), segment.getStart());
+            assertEquals(new Point(i + 1, 0.0), segment.getEnd());
+            i++;
+        }
+        assertEquals(n, i);
+    }
 }
@@ -0,0 +1,37 @@
+package pathfinder.testUtils;
+
+import graph.Graph;
+
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * RandomGraphs makes the random directed graphs the path finding tests compare their results on.
+ */
+public final class RandomGraphs {
+
+    private RandomGraphs() {
+    }
+
+    /**
+     * Makes a graph with the nodes 0 to n - 1 and 4 * n edges between nodes picked at random,
+     * the same graph every time for the same arguments.
+     * @param n the number of nodes
+     * @param seed the seed of the random choices
+     * @param cost gives the cost of each edge, drawn from the random choices
+     * @return a random graph with n nodes and 4 * n edges
+     */
+    public static Graph<Integer, Double> numbered(int n, long seed, ToDoubleFunction<Random> cost) {
+        Random random = new Random(seed);
+        Graph<Integer, Double> graph = new Graph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addNode(new Graph.Node<>(i));
+        }
+        for (int i = 0; i < 4 * n; i++) {
+            Graph.Node<Integer> parent = new Graph.Node<>(random.nextInt(n));
+            Graph.Node<Integer> child = new Graph.Node<>(random.nextInt(n));
+            graph.addEdge(parent, child, cost.applyAsDouble(random));
+        }
+        return graph;
+    }
+}